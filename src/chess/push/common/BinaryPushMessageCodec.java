@@ -0,0 +1,64 @@
+package chess.push.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * 길이 필드와 고정 순서 header를 사용하는 compact binary codec<br>
+ * -frame 형식은 {@link BinaryPushMessageDecoder} 참고<br>
+ * -stream 전송에서는 frame 앞에 4 byte 길이 필드를 추가하고, WebSocket에서는 길이 필드 없이 BinaryWebSocketFrame으로 전송
+ */
+public class BinaryPushMessageCodec implements PushMessageCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryPushMessageCodec.class);
+
+    /**
+     * codec 이름
+     */
+    public static final String NAME = "binary";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return true;
+    }
+
+    @Override
+    public ChannelHandler newFrameDecoder(int maxFrameSize) {
+        return new LengthFieldBasedFrameDecoder(maxFrameSize, 0, 4, 0, 4);
+    }
+
+    @Override
+    public ChannelHandler newDecoder() {
+        return new BinaryPushMessageDecoder();
+    }
+
+    @Override
+    public ChannelHandler newEncoder(boolean stream) {
+        return new BinaryPushMessageEncoder(stream);
+    }
+
+    @Override
+    public ByteBuf encode(ByteBufAllocator alloc, PushMessage msg, boolean stream) {
+        ByteBuf buf = alloc.directBuffer();
+        try {
+            BinaryPushMessageEncoder.encode(msg, buf, stream);
+            return buf;
+        } catch (EncoderException e) {
+            buf.release();
+            LOG.error("[BinaryPushMessageCodec] failed to encode " + msg, e);
+            return null;
+        }
+    }
+
+}
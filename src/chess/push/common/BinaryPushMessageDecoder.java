@@ -0,0 +1,192 @@
+package chess.push.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * 길이 필드가 제거된 binary frame을 PushMessage 타입으로 디코딩하는 코덱<br>
+ * -LengthFieldBasedFrameDecoder 뒤에 위치하여 frame마다 고정 순서의 header만 읽으므로 구분자 탐색이나 JSON 파싱 없이 디코딩<br>
+ * -frame 형식 (big-endian, 길이 필드는 이후 byte 수이며 WebSocket에서는 생략)
+ * <pre>
+ * int    length
+ * byte   flags         (선택 필드 포함 여부, 아래 FLAG_* 값의 조합)
+ * byte   extFlags      (확장 필드 포함 여부, 아래 EXT_* 값의 조합, FLAG_EXTENDED)
+ * short  serviceId 길이 + UTF-8 bytes (-1이면 null)
+ * short  groupId 길이 + UTF-8 bytes (-1이면 null)
+ * short  clientId 길이 + UTF-8 bytes (-1이면 null)
+ * byte   priority      (PushPriority ordinal, FLAG_PRIORITY)
+ * long   ttl           (밀리초, FLAG_TTL)
+ * long   expireAt      (epoch 밀리초, FLAG_EXPIRE_AT)
+ * long   sequence      (FLAG_SEQUENCE)
+ * short  conflationKey 길이 + UTF-8 bytes (FLAG_CONFLATION_KEY)
+ * short  codec 길이 + UTF-8 bytes (FLAG_CODEC)
+ * int    clientIds 수 + (short 길이 + UTF-8 bytes) 반복 (-1이면 null, EXT_TARGETS)
+ * int    groupIds 수 + (short 길이 + UTF-8 bytes) 반복 (-1이면 null, EXT_TARGETS)
+ * short  topic 길이 + UTF-8 bytes (EXT_TOPIC)
+ * int    subscribe 수 + (short 길이 + UTF-8 bytes) 반복 (-1이면 null, EXT_SUBSCRIPTIONS)
+ * int    unsubscribe 수 + (short 길이 + UTF-8 bytes) 반복 (-1이면 null, EXT_SUBSCRIPTIONS)
+ * long   ackId         (EXT_ACK)
+ * bytes  message       (frame의 나머지, UTF-8, FLAG_MESSAGE)
+ * </pre>
+ * -여러 메시지를 담는 batch frame은 flags가 FLAG_EXTENDED, extFlags가 EXT_BATCH이고 이후 (int length + frame)이 반복됨
+ * &nbsp;(batch frame 안에 다시 batch frame을 담을 수 없으며, 일부 frame이라도 형식이 잘못되면 batch 전체를 버림)<br>
+ * -envelope 모드에서는 message를 문자열로 디코딩하지 않고 JSON escape만 적용하여 payload로 보관
+ */
+public class BinaryPushMessageDecoder extends MessageToMessageDecoder<ByteBuf> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryPushMessageDecoder.class);
+
+    static final int FLAG_PRIORITY = 0x01;
+    static final int FLAG_TTL = 0x02;
+    static final int FLAG_EXPIRE_AT = 0x04;
+    static final int FLAG_SEQUENCE = 0x08;
+    static final int FLAG_CONFLATION_KEY = 0x10;
+    static final int FLAG_CODEC = 0x20;
+    static final int FLAG_MESSAGE = 0x40;
+    static final int FLAG_EXTENDED = 0x80;
+
+    static final int EXT_TARGETS = 0x01;
+    static final int EXT_BATCH = 0x02;
+    static final int EXT_TOPIC = 0x04;
+    static final int EXT_SUBSCRIPTIONS = 0x08;
+    static final int EXT_ACK = 0x10;
+
+    private static final PushPriority[] PRIORITIES = PushPriority.values();
+
+    private final boolean envelope;	// envelope 모드 여부
+
+    /**
+     * default constructor
+     */
+    public BinaryPushMessageDecoder() {
+        this(false);
+    }
+
+    /**
+     * constructor with a parameter
+     * @param envelope envelope 모드 여부
+     */
+    public BinaryPushMessageDecoder(boolean envelope) {
+        this.envelope = envelope;
+    }
+
+    /**
+     * binary frame을 PushMessage 타입으로 변환한다.<br>
+     * -header 형식이 잘못되었거나 길이, 개수 필드가 frame의 남은 크기를 넘는 frame은 로깅 후 버림
+     * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageDecoder} belongs to
+     * @param msg 길이 필드가 제거된 frame
+     * @param out the {@link List} to which decoded messages should be added
+     * @see io.netty.handler.codec.MessageToMessageDecoder#decode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
+     */
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        try {
+            int flags = msg.getByte(msg.readerIndex());
+            int extFlags = (flags & FLAG_EXTENDED) != 0 ? msg.getByte(msg.readerIndex() + 1) : 0;
+            if ((extFlags & EXT_BATCH) == 0) {
+                out.add(decodeMessage(msg));
+                return;
+            }
+
+            msg.skipBytes(2);
+            List<Object> batch = new ArrayList<Object>();
+            while (msg.isReadable()) {
+                int length = msg.readInt();
+                if (length < 0 || length > msg.readableBytes()) {
+                    LOG.error("[BinaryPushMessageDecoder] invalid batch element length {} from channel {}", length, ctx.channel());
+                    return;
+                }
+                ByteBuf frame = msg.readSlice(length);
+                if ((frame.getByte(frame.readerIndex()) & FLAG_EXTENDED) != 0 && (frame.getByte(frame.readerIndex() + 1) & EXT_BATCH) != 0) {
+                    LOG.error("[BinaryPushMessageDecoder] nested batch frame from channel {}", ctx.channel());
+                    return;
+                }
+                batch.add(decodeMessage(frame));
+            }
+            LOG.debug("[BinaryPushMessageDecoder] decoded batch of {} messages from channel {}", batch.size(), ctx.channel());
+            out.addAll(batch);
+        } catch (IndexOutOfBoundsException | CorruptedFrameException e) {
+            LOG.error("[BinaryPushMessageDecoder] malformed frame from channel {}", ctx.channel(), e);
+        }
+    }
+
+    private PushMessage decodeMessage(ByteBuf msg) {
+        int flags = msg.readByte();
+        int extFlags = (flags & FLAG_EXTENDED) != 0 ? msg.readByte() : 0;
+
+        PushMessage decoded = new PushMessage(readString(msg), readString(msg), readString(msg), null);
+        if ((flags & FLAG_PRIORITY) != 0) {
+            decoded.setPriority(PRIORITIES[msg.readByte()]);
+        }
+        if ((flags & FLAG_TTL) != 0) {
+            decoded.setTtl(msg.readLong());
+        }
+        if ((flags & FLAG_EXPIRE_AT) != 0) {
+            decoded.setExpireAt(msg.readLong());
+        }
+        if ((flags & FLAG_SEQUENCE) != 0) {
+            decoded.setSequence(msg.readLong());
+        }
+        if ((flags & FLAG_CONFLATION_KEY) != 0) {
+            decoded.setConflationKey(readString(msg));
+        }
+        if ((flags & FLAG_CODEC) != 0) {
+            decoded.setCodec(readString(msg));
+        }
+        if ((extFlags & EXT_TARGETS) != 0) {
+            decoded.setClientIds(readStrings(msg));
+            decoded.setGroupIds(readStrings(msg));
+        }
+        if ((extFlags & EXT_TOPIC) != 0) {
+            decoded.setTopic(readString(msg));
+        }
+        if ((extFlags & EXT_SUBSCRIPTIONS) != 0) {
+            decoded.setSubscribe(readStrings(msg));
+            decoded.setUnsubscribe(readStrings(msg));
+        }
+        if ((extFlags & EXT_ACK) != 0) {
+            decoded.setAckId(msg.readLong());
+        }
+        if ((flags & FLAG_MESSAGE) != 0) {
+            if (envelope) {
+                decoded.setPayload(PushMessageJson.escape(msg, msg.readerIndex(), msg.readableBytes()));
+            } else {
+                decoded.setMessage(msg.readCharSequence(msg.readableBytes(), CharsetUtil.UTF_8).toString());
+            }
+        }
+        return decoded;
+    }
+
+    private static String readString(ByteBuf buf) {
+        int length = buf.readShort();
+        return length < 0 ? null : buf.readCharSequence(length, CharsetUtil.UTF_8).toString();
+    }
+
+    private static Set<String> readStrings(ByteBuf buf) {
+        int count = buf.readInt();
+        if (count < 0) {
+            return null;
+        }
+        // 각 항목은 최소 2 byte(길이 필드)이므로 남은 크기로 담을 수 없는 개수는 잘못된 frame
+        if (count > buf.readableBytes() / 2) {
+            throw new CorruptedFrameException("invalid count " + count + " (readable bytes: " + buf.readableBytes() + ")");
+        }
+        Set<String> values = new LinkedHashSet<String>();
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buf));
+        }
+        return values;
+    }
+
+}
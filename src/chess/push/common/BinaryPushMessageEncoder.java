@@ -0,0 +1,188 @@
+package chess.push.common;
+
+import java.util.Collection;
+import java.util.Set;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * PushMessage 타입의 메시지를 binary frame으로 인코딩하는 코덱<br>
+ * -frame 형식은 {@link BinaryPushMessageDecoder} 참고<br>
+ * -envelope 모드 메시지는 escape된 문자가 없으면 payload를 디코딩하지 않고 그대로 기록<br>
+ * -clientIds, groupIds, topic, subscribe, unsubscribe, ackId는 확장 필드로 기록하며, {@link #encodeBatch(Collection, ByteBuf, boolean)}로 batch frame 생성
+ */
+public class BinaryPushMessageEncoder extends MessageToByteEncoder<PushMessage> {
+
+    private final boolean lengthField;	// frame 앞에 길이 필드를 추가할지 여부
+
+    /**
+     * default constructor (길이 필드 추가)
+     */
+    public BinaryPushMessageEncoder() {
+        this(true);
+    }
+
+    /**
+     * constructor with a parameter
+     * @param lengthField frame 앞에 길이 필드를 추가할지 여부 (stream 전송이면 true)
+     */
+    public BinaryPushMessageEncoder(boolean lengthField) {
+        this.lengthField = lengthField;
+    }
+
+    /**
+     * PushMessage 타입 메시지를 binary frame으로 변환한다.
+     * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToByteEncoder} belongs to
+     * @param msg the message to encode
+     * @param out the {@link ByteBuf} into which the encoded message will be written
+     * @see io.netty.handler.codec.MessageToByteEncoder#encode(io.netty.channel.ChannelHandlerContext, java.lang.Object, io.netty.buffer.ByteBuf)
+     */
+    @Override
+    protected void encode(ChannelHandlerContext ctx, PushMessage msg, ByteBuf out) {
+        encode(msg, out, lengthField);
+    }
+
+    /**
+     * PushMessage 타입 메시지를 binary frame으로 변환하여 ByteBuf에 기록한다.
+     * @param msg 인코딩할 메시지
+     * @param out 기록할 ByteBuf
+     * @param lengthField frame 앞에 길이 필드를 추가할지 여부
+     * @throws EncoderException header 필드가 너무 긴 경우
+     */
+    public static void encode(PushMessage msg, ByteBuf out, boolean lengthField) {
+        int lengthIndex = out.writerIndex();
+        if (lengthField) {
+            out.writeInt(0);
+        }
+
+        byte[] payload = msg.getPayload();
+        boolean hasMessage = payload != null || msg.getMessage() != null;
+        boolean hasSubscriptions = msg.getSubscribe() != null || msg.getUnsubscribe() != null;
+        int extFlags = (msg.isMultiTarget() ? BinaryPushMessageDecoder.EXT_TARGETS : 0)
+                | (msg.getTopic() != null ? BinaryPushMessageDecoder.EXT_TOPIC : 0)
+                | (hasSubscriptions ? BinaryPushMessageDecoder.EXT_SUBSCRIPTIONS : 0)
+                | (msg.getAckId() != null ? BinaryPushMessageDecoder.EXT_ACK : 0);
+        int flags = (msg.getPriority() != null ? BinaryPushMessageDecoder.FLAG_PRIORITY : 0)
+                | (msg.getTtl() != null ? BinaryPushMessageDecoder.FLAG_TTL : 0)
+                | (msg.getExpireAt() != null ? BinaryPushMessageDecoder.FLAG_EXPIRE_AT : 0)
+                | (msg.getSequence() != null ? BinaryPushMessageDecoder.FLAG_SEQUENCE : 0)
+                | (msg.getConflationKey() != null ? BinaryPushMessageDecoder.FLAG_CONFLATION_KEY : 0)
+                | (msg.getCodec() != null ? BinaryPushMessageDecoder.FLAG_CODEC : 0)
+                | (hasMessage ? BinaryPushMessageDecoder.FLAG_MESSAGE : 0)
+                | (extFlags != 0 ? BinaryPushMessageDecoder.FLAG_EXTENDED : 0);
+        out.writeByte(flags);
+        if (extFlags != 0) {
+            out.writeByte(extFlags);
+        }
+        writeString(out, msg.getServiceId());
+        writeString(out, msg.getGroupId());
+        writeString(out, msg.getClientId());
+        if (msg.getPriority() != null) {
+            out.writeByte(msg.getPriority().ordinal());
+        }
+        if (msg.getTtl() != null) {
+            out.writeLong(msg.getTtl());
+        }
+        if (msg.getExpireAt() != null) {
+            out.writeLong(msg.getExpireAt());
+        }
+        if (msg.getSequence() != null) {
+            out.writeLong(msg.getSequence());
+        }
+        if (msg.getConflationKey() != null) {
+            writeString(out, msg.getConflationKey());
+        }
+        if (msg.getCodec() != null) {
+            writeString(out, msg.getCodec());
+        }
+        if (msg.isMultiTarget()) {
+            writeStrings(out, msg.getClientIds());
+            writeStrings(out, msg.getGroupIds());
+        }
+        if (msg.getTopic() != null) {
+            writeString(out, msg.getTopic());
+        }
+        if (hasSubscriptions) {
+            writeStrings(out, msg.getSubscribe());
+            writeStrings(out, msg.getUnsubscribe());
+        }
+        if (msg.getAckId() != null) {
+            out.writeLong(msg.getAckId());
+        }
+        if (payload != null && !containsEscape(payload)) {
+            out.writeBytes(payload);
+        } else if (hasMessage) {
+            out.writeCharSequence(msg.getMessage(), CharsetUtil.UTF_8);
+        }
+
+        if (lengthField) {
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    /**
+     * 여러 PushMessage를 하나의 batch frame으로 변환하여 ByteBuf에 기록한다.
+     * @param msgs 인코딩할 메시지 collection
+     * @param out 기록할 ByteBuf
+     * @param lengthField frame 앞에 길이 필드를 추가할지 여부
+     * @throws EncoderException header 필드가 너무 긴 경우
+     */
+    public static void encodeBatch(Collection<PushMessage> msgs, ByteBuf out, boolean lengthField) {
+        int lengthIndex = out.writerIndex();
+        if (lengthField) {
+            out.writeInt(0);
+        }
+
+        out.writeByte(BinaryPushMessageDecoder.FLAG_EXTENDED);
+        out.writeByte(BinaryPushMessageDecoder.EXT_BATCH);
+        for (PushMessage msg : msgs) {
+            encode(msg, out, true);
+        }
+
+        if (lengthField) {
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    // JSON escape가 없는 payload는 UTF-8 원문과 동일
+    private static boolean containsEscape(byte[] payload) {
+        for (byte b : payload) {
+            if (b == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeString(ByteBuf buf, String value) {
+        if (value == null) {
+            buf.writeShort(-1);
+            return;
+        }
+
+        int lengthIndex = buf.writerIndex();
+        buf.writeShort(0);
+        int length = buf.writeCharSequence(value, CharsetUtil.UTF_8);
+        if (length > Short.MAX_VALUE) {
+            throw new EncoderException("too long header field [" + length + " bytes]");
+        }
+        buf.setShort(lengthIndex, length);
+    }
+
+    private static void writeStrings(ByteBuf buf, Set<String> values) {
+        if (values == null) {
+            buf.writeInt(-1);
+            return;
+        }
+
+        buf.writeInt(values.size());
+        for (String value : values) {
+            writeString(buf, value);
+        }
+    }
+
+}
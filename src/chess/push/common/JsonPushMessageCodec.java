@@ -0,0 +1,49 @@
+package chess.push.common;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+
+/**
+ * UTF-8 JSON 형식의 기본 codec<br>
+ * -stream 전송에서는 메시지 끝에 기본 delimiter("\r\0")를 추가하여 frame 구분
+ */
+public class JsonPushMessageCodec implements PushMessageCodec {
+
+    /**
+     * codec 이름
+     */
+    public static final String NAME = "json";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return false;
+    }
+
+    @Override
+    public ChannelHandler newFrameDecoder(int maxFrameSize) {
+        return new DelimiterBasedFrameDecoder(maxFrameSize, PushConstant.DEFAULT_DELIMITER);
+    }
+
+    @Override
+    public ChannelHandler newDecoder() {
+        return new PushMessageDecoder();
+    }
+
+    @Override
+    public ChannelHandler newEncoder(boolean stream) {
+        return stream ? new PushMessageEncoder(PushConstant.DEFAULT_DELIMITER_STR) : new PushMessageEncoder();
+    }
+
+    @Override
+    public ByteBuf encode(ByteBufAllocator alloc, PushMessage msg, boolean stream) {
+        return PushMessageEncoder.encode(alloc, msg, stream ? PushConstant.DEFAULT_DELIMITER_STR : null);
+    }
+
+}
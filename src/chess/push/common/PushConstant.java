@@ -30,4 +30,9 @@ public class PushConstant {
      */
     public static final AttributeKey<String> CLIENT_ID = AttributeKey.newInstance("clientId");
 
+    /**
+     * 클라이언트 채널에 설정되는 codec 이름 속성에 대한 key
+     */
+    public static final AttributeKey<String> CODEC = AttributeKey.newInstance("codec");
+
 }
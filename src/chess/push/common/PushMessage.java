@@ -1,5 +1,15 @@
 package chess.push.common;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * Push 메시지를 바인딩할 객체 타입
  */
@@ -9,6 +19,36 @@ public class PushMessage {
     private String groupId;	// Push 수신대상 그룹 구분 (null이면 clientId 기준으로 Push)
     private String clientId;	// Push 수신대상 구분 (null이면 serviceId에 해당하는 Outbound Server에 연결된 전체 클라이언트에게 Push)
     private String message;	// Push 전송할 메시지
+    @JsonInclude(Include.NON_NULL)
+    @JsonDeserialize(as = LinkedHashSet.class)
+    private Set<String> clientIds;	// 여러 클라이언트ID 대상 (지정하면 clientId, groupId는 null이어야 하며, groupIds와 함께 지정하면 합집합)
+    @JsonInclude(Include.NON_NULL)
+    @JsonDeserialize(as = LinkedHashSet.class)
+    private Set<String> groupIds;	// 여러 그룹ID 대상 (지정하면 clientId, groupId는 null이어야 하며, clientIds와 함께 지정하면 합집합)
+    @JsonInclude(Include.NON_NULL)
+    private String topic;	// Push 수신대상 topic ('/'로 구분된 계층형 이름, 지정하면 topic에 일치하는 filter를 구독한 클라이언트에게 Push)
+    @JsonInclude(Include.NON_NULL)
+    @JsonDeserialize(as = LinkedHashSet.class)
+    private Set<String> subscribe;	// 클라이언트가 구독을 요청하는 topic filter ("*"는 한 level, 마지막 level "#"는 나머지 모든 level과 일치)
+    @JsonInclude(Include.NON_NULL)
+    @JsonDeserialize(as = LinkedHashSet.class)
+    private Set<String> unsubscribe;	// 클라이언트가 구독 해제를 요청하는 topic filter
+    @JsonInclude(Include.NON_NULL)
+    private String conflationKey;	// 전송 대기중인 메시지를 최신 메시지로 대체하기 위한 key (null이면 대체하지 않음)
+    @JsonInclude(Include.NON_NULL)
+    private PushPriority priority;	// Push 우선순위 (null이면 NORMAL)
+    @JsonInclude(Include.NON_NULL)
+    private Long ttl;	// Push 메시지 유효시간 (밀리초, 서버 수신 시점 기준, expireAt이 지정되지 않은 경우에만 사용)
+    @JsonInclude(Include.NON_NULL)
+    private Long expireAt;	// Push 메시지 만료 시각 (epoch 밀리초, null이면 만료되지 않음)
+    @JsonInclude(Include.NON_NULL)
+    private Long sequence;	// 서비스 단위로 서버가 부여하는 sequence (클라이언트의 ID 등록 메시지에서는 마지막으로 수신한 sequence)
+    @JsonInclude(Include.NON_NULL)
+    private String codec;	// 클라이언트의 ID 등록 메시지에서 요청하는 codec 이름 (서버의 응답 메시지에서는 이후 사용할 codec 이름)
+    @JsonInclude(Include.NON_NULL)
+    private Long ackId;	// ack 모드에서 서버가 부여하는 메시지 ID (클라이언트의 ack 메시지에서는 처리를 완료한 메시지 ID)
+    @JsonIgnore
+    private byte[] payload;	// envelope 모드에서 디코딩하지 않고 보관하는 message 원문 (JSON escape된 UTF-8, 따옴표 제외, null이면 message 사용)
 
     public PushMessage() {}
 
@@ -47,11 +87,159 @@ public class PushMessage {
         this.clientId = clientId;
     }
 
+    public Set<String> getClientIds() {
+        return clientIds;
+    }
+    public void setClientIds(Set<String> clientIds) {
+        this.clientIds = clientIds;
+    }
+
+    public Set<String> getGroupIds() {
+        return groupIds;
+    }
+    public void setGroupIds(Set<String> groupIds) {
+        this.groupIds = groupIds;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public Set<String> getSubscribe() {
+        return subscribe;
+    }
+    public void setSubscribe(Set<String> subscribe) {
+        this.subscribe = subscribe;
+    }
+
+    public Set<String> getUnsubscribe() {
+        return unsubscribe;
+    }
+    public void setUnsubscribe(Set<String> unsubscribe) {
+        this.unsubscribe = unsubscribe;
+    }
+
+    /**
+     * clientIds 또는 groupIds로 여러 대상을 지정한 메시지인지 여부를 반환한다.
+     * @return 여러 대상 메시지이면 true
+     */
+    @JsonIgnore
+    public boolean isMultiTarget() {
+        return clientIds != null || groupIds != null;
+    }
+
+    /**
+     * 대상만 바꾼 메시지 복사본을 생성한다.<br>
+     * -본문(payload 포함)과 나머지 필드는 원본과 공유하므로 복사 비용은 대상 수와 무관
+     * @param groupId 그룹ID
+     * @param clientId 클라이언트ID
+     * @param groupIds 여러 그룹ID 대상
+     * @param clientIds 여러 클라이언트ID 대상
+     * @return 메시지 복사본
+     */
+    public PushMessage retarget(String groupId, String clientId, Set<String> groupIds, Set<String> clientIds) {
+        PushMessage copy = new PushMessage(serviceId, groupId, clientId, message);
+        copy.clientIds = clientIds;
+        copy.groupIds = groupIds;
+        copy.topic = topic;
+        copy.conflationKey = conflationKey;
+        copy.priority = priority;
+        copy.ttl = ttl;
+        copy.expireAt = expireAt;
+        copy.sequence = sequence;
+        copy.codec = codec;
+        copy.ackId = ackId;
+        copy.payload = payload;
+        return copy;
+    }
+
+    /**
+     * 메시지 본문을 반환한다.<br>
+     * -envelope 모드로 수신한 메시지는 호출할 때마다 원문을 디코딩하므로, 전송 경로에서는 {@link #getPayload()}를 사용
+     * @return 메시지 본문
+     */
     public String getMessage() {
+        if (message == null && payload != null) {
+            try {
+                return PushMessageJson.unescape(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return message;
     }
     public void setMessage(String message) {
         this.message = message;
+        this.payload = null;
+    }
+
+    public String getConflationKey() {
+        return conflationKey;
+    }
+    public void setConflationKey(String conflationKey) {
+        this.conflationKey = conflationKey;
+    }
+
+    public PushPriority getPriority() {
+        return priority;
+    }
+    public void setPriority(PushPriority priority) {
+        this.priority = priority;
+    }
+
+    public Long getTtl() {
+        return ttl;
+    }
+    public void setTtl(Long ttl) {
+        this.ttl = ttl;
+    }
+
+    public Long getExpireAt() {
+        return expireAt;
+    }
+    public void setExpireAt(Long expireAt) {
+        this.expireAt = expireAt;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getCodec() {
+        return codec;
+    }
+    public void setCodec(String codec) {
+        this.codec = codec;
+    }
+
+    public Long getAckId() {
+        return ackId;
+    }
+    public void setAckId(Long ackId) {
+        this.ackId = ackId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+        this.message = null;
+    }
+
+    /**
+     * 기준 시각에 메시지가 만료되었는지 여부를 반환한다.
+     * @param now 기준 시각 (epoch 밀리초)
+     * @return 만료 시각이 지정되어 있고 기준 시각이 만료 시각 이후이면 true
+     */
+    public boolean isExpired(long now) {
+        return expireAt != null && expireAt <= now;
     }
 
     @Override
@@ -60,8 +248,27 @@ public class PushMessage {
         builder.append(getClass().getSimpleName()).append("[")
                .append("serviceId=").append(serviceId)
                .append(", groupId=").append(groupId)
-               .append(", clientId=").append(clientId)
-               .append(", message=").append(message)
+               .append(", clientId=").append(clientId);
+        if (isMultiTarget()) {
+            // 대상 목록은 길 수 있으므로 개수만 기록
+            builder.append(", groupIds=(").append(groupIds != null ? groupIds.size() : 0).append(")")
+                   .append(", clientIds=(").append(clientIds != null ? clientIds.size() : 0).append(")");
+        }
+        if (topic != null) {
+            builder.append(", topic=").append(topic);
+        }
+        if (subscribe != null || unsubscribe != null) {
+            builder.append(", subscribe=").append(subscribe)
+                   .append(", unsubscribe=").append(unsubscribe);
+        }
+        builder.append(", message=").append(payload != null ? "(" + payload.length + " bytes)" : message)
+               .append(", conflationKey=").append(conflationKey)
+               .append(", priority=").append(priority)
+               .append(", ttl=").append(ttl)
+               .append(", expireAt=").append(expireAt)
+               .append(", sequence=").append(sequence)
+               .append(", codec=").append(codec)
+               .append(", ackId=").append(ackId)
                .append("]");
         return builder.toString();
     }
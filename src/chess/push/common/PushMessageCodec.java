@@ -0,0 +1,58 @@
+package chess.push.common;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+
+/**
+ * Outbound Server와 클라이언트간 채널에서 사용하는 PushMessage 직렬화 방식(wire codec)의 SPI<br>
+ * -구현 클래스를 META-INF/services/chess.push.common.PushMessageCodec 파일에 등록하면 {@link PushMessageCodecs}가 ServiceLoader로 로딩<br>
+ * -구현 클래스는 thread-safe해야 하며, 핸들러 생성 메소드는 채널마다 사용할 핸들러를 반환<br>
+ * -stream 전송(TCP Socket)에서는 frame 구분 정보(구분자, 길이 필드 등)를 포함하고, 메시지 단위 전송(WebSocket)에서는 포함하지 않음
+ */
+public interface PushMessageCodec {
+
+    /**
+     * codec 이름을 반환한다.<br>
+     * -서비스 설정(outboundCodec, outboundCodecs)과 클라이언트의 codec 협상에 사용
+     * @return codec 이름
+     */
+    String name();
+
+    /**
+     * binary 형식인지 여부를 반환한다.<br>
+     * -WebSocket에서 BinaryWebSocketFrame과 TextWebSocketFrame 중 사용할 frame 타입을 결정
+     * @return binary 형식이면 true
+     */
+    boolean isBinary();
+
+    /**
+     * stream 전송에서 frame 단위로 ByteBuf를 분리하는 디코더를 생성한다.
+     * @param maxFrameSize frame의 최대 크기 (byte)
+     * @return frame 디코더
+     */
+    ChannelHandler newFrameDecoder(int maxFrameSize);
+
+    /**
+     * frame 단위 ByteBuf를 PushMessage 타입으로 변환하는 디코더를 생성한다.
+     * @return 메시지 디코더
+     */
+    ChannelHandler newDecoder();
+
+    /**
+     * PushMessage 타입을 ByteBuf로 변환하는 인코더를 생성한다.
+     * @param stream stream 전송 여부 (true이면 frame 구분 정보 포함)
+     * @return 메시지 인코더
+     */
+    ChannelHandler newEncoder(boolean stream);
+
+    /**
+     * 여러 채널에 공유할 수 있도록 PushMessage 타입 메시지를 ByteBuf로 인코딩한다.
+     * @param alloc ByteBuf allocator
+     * @param msg 인코딩할 메시지
+     * @param stream stream 전송 여부 (true이면 frame 구분 정보 포함)
+     * @return 인코딩된 ByteBuf (reference count 1), 실패시 null
+     */
+    ByteBuf encode(ByteBufAllocator alloc, PushMessage msg, boolean stream);
+
+}
@@ -0,0 +1,58 @@
+package chess.push.common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ServiceLoader로 등록된 {@link PushMessageCodec} 구현 클래스를 이름으로 조회하는 registry<br>
+ * -클래스 로딩 시점에 한 번만 로딩하며, 같은 이름의 codec이 여러 개이면 먼저 로딩된 codec을 사용
+ */
+public final class PushMessageCodecs {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PushMessageCodecs.class);
+
+    /**
+     * 기본 codec 이름 (JSON)
+     */
+    public static final String DEFAULT_CODEC = JsonPushMessageCodec.NAME;
+
+    private static final Map<String, PushMessageCodec> CODECS = load();
+
+    private PushMessageCodecs() {}
+
+    private static Map<String, PushMessageCodec> load() {
+        Map<String, PushMessageCodec> codecs = new LinkedHashMap<String, PushMessageCodec>();
+        for (PushMessageCodec codec : ServiceLoader.load(PushMessageCodec.class)) {
+            PushMessageCodec previous = codecs.putIfAbsent(codec.name(), codec);
+            if (previous != null) {
+                LOG.warn("[PushMessageCodecs] duplicated codec [{}], {} is ignored", codec.name(), codec.getClass().getName());
+            }
+        }
+        LOG.info("[PushMessageCodecs] loaded codecs {}", codecs.keySet());
+        return Collections.unmodifiableMap(codecs);
+    }
+
+    /**
+     * 이름에 해당하는 codec을 반환한다.
+     * @param name codec 이름
+     * @return codec (등록되지 않은 이름이면 null)
+     */
+    public static PushMessageCodec get(String name) {
+        return name != null ? CODECS.get(name) : null;
+    }
+
+    /**
+     * 등록된 codec 이름 목록을 반환한다.
+     * @return codec 이름 목록 (read-only)
+     */
+    public static Set<String> names() {
+        return CODECS.keySet();
+    }
+
+}
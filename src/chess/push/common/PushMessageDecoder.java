@@ -1,45 +1,82 @@
 package chess.push.common;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.util.CharsetUtil;
 
 /**
- * String 타입의 메시지를 PushMessage 타입으로 디코딩하는 코덱
+ * ByteBuf 타입의 메시지(UTF-8 JSON)를 PushMessage 타입으로 디코딩하는 코덱<br>
+ * -String으로 변환하지 않고 ByteBuf에서 직접 파싱<br>
+ * -envelope 모드에서는 message 필드를 디코딩하지 않고 원문을 payload로 보관<br>
+ * -JSON 배열은 여러 메시지를 담은 batch로 디코딩하여 배열 순서대로 전달 (일부 원소라도 파싱에 실패하면 batch 전체를 버림)
  */
-public class PushMessageDecoder extends MessageToMessageDecoder<String> {
+public class PushMessageDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PushMessageDecoder.class);
 
+    private final boolean envelope;	// envelope 모드 여부
+
     /**
-     * String 타입 메시지(JSON 문자열)를 PushMessage 타입으로 변환한다.
+     * default constructor
+     */
+    public PushMessageDecoder() {
+        this(false);
+    }
+
+    /**
+     * constructor with a parameter
+     * @param envelope envelope 모드 여부
+     */
+    public PushMessageDecoder(boolean envelope) {
+        this.envelope = envelope;
+    }
+
+    /**
+     * ByteBuf 타입 메시지(JSON)를 PushMessage 타입으로 변환한다.
      * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageDecoder} belongs to
      * @param msg the message to decode to an other one
      * @param out the {@link List} to which decoded messages should be added
      * @see io.netty.handler.codec.MessageToMessageDecoder#decode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
      */
     @Override
-    protected void decode(ChannelHandlerContext ctx, String msg, List<Object> out) {
-        LOG.debug("[PushMessageDecoder] decode {} from channel {}", msg, ctx.channel());
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        if (PushMessageJson.isBatch(msg)) {
+            decodeBatch(ctx, msg, out);
+            return;
+        }
 
         PushMessage decoded = null;
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            decoded = mapper.readValue(msg, PushMessage.class);
+            decoded = envelope ? PushMessageJson.readEnvelope(msg) : PushMessageJson.read(msg);
         } catch (IOException e) {
-            LOG.error("[PushMessageDecoder] failed to decode " + msg, e);
+            LOG.error("[PushMessageDecoder] failed to decode " + msg.toString(CharsetUtil.UTF_8), e);
         }
 
         if (decoded != null) {
+            LOG.debug("[PushMessageDecoder] decoded {} from channel {}", decoded, ctx.channel());
             out.add(decoded);
         }
     }
 
+    private void decodeBatch(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        List<Object> batch = new ArrayList<Object>();
+        try {
+            PushMessageJson.readBatch(msg, envelope, batch);
+        } catch (IOException e) {
+            LOG.error("[PushMessageDecoder] failed to decode batch of " + msg.readableBytes() + " bytes from channel " + ctx.channel(), e);
+            return;
+        }
+
+        LOG.debug("[PushMessageDecoder] decoded batch of {} messages from channel {}", batch.size(), ctx.channel());
+        out.addAll(batch);
+    }
+
 }
@@ -6,19 +6,22 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.CharsetUtil;
 
 /**
- * PushMessage 타입의 메시지를 String 타입으로 인코딩하는 코덱
+ * PushMessage 타입의 메시지를 ByteBuf 타입(UTF-8 JSON)으로 인코딩하는 코덱<br>
+ * -String을 거치지 않고 ByteBuf에 직접 기록<br>
+ * -envelope 모드로 수신한 메시지는 payload를 복사하지 않고 header와 연결한 CompositeByteBuf로 인코딩
  */
 public class PushMessageEncoder extends MessageToMessageEncoder<PushMessage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PushMessageEncoder.class);
 
-    private String delimiter;
+    private byte[] delimiter;
 
     /**
      * default constructor
@@ -30,35 +33,59 @@ public class PushMessageEncoder extends MessageToMessageEncoder<PushMessage> {
      * @param delimiter 인코딩 메시지에 추가할 delimiter
      */
     public PushMessageEncoder(String delimiter) {
-        this.delimiter = delimiter;
+        this.delimiter = delimiter.getBytes(CharsetUtil.UTF_8);
     }
 
     /**
-     * PushMessage 타입 메시지를 String 타입 메시지(JSON 문자열)로 변환한다.<br>
-     * -지정된 delimiter가 있으면 String 타입 메시지 끝에 delimiter를 추가한다.
+     * PushMessage 타입 메시지를 JSON으로 직렬화하여 ByteBuf 타입 메시지로 변환한다.<br>
+     * -지정된 delimiter가 있으면 메시지 끝에 delimiter를 추가한다.
      * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageEncoder} belongs to
      * @param msg the message to encode to an other one
      * @param out the {@link List} into which the encoded msg should be added
+     * @throws IOException 직렬화 실패
      * @see io.netty.handler.codec.MessageToMessageEncoder#encode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
      */
     @Override
-    protected void encode(ChannelHandlerContext ctx, PushMessage msg, List<Object> out) {
+    protected void encode(ChannelHandlerContext ctx, PushMessage msg, List<Object> out) throws IOException {
         LOG.debug("[PushMessageEncoder] encode {} to channel {}", msg, ctx.channel());
 
-        String encoded = null;
+        out.add(encode(ctx.alloc(), msg, delimiter));
+    }
+
+    /**
+     * PushMessage 타입 메시지를 JSON으로 직렬화하여 direct ByteBuf에 기록한다.<br>
+     * -여러 채널에 동일한 메시지를 전송할 때 한 번만 인코딩하여 공유하는 용도<br>
+     * -지정된 delimiter가 있으면 메시지 끝에 delimiter를 추가한다.
+     * @param alloc ByteBuf allocator
+     * @param msg 인코딩할 메시지
+     * @param delimiter 인코딩 메시지에 추가할 delimiter (없으면 null)
+     * @return 인코딩된 ByteBuf (reference count 1), 실패시 null
+     */
+    public static ByteBuf encode(ByteBufAllocator alloc, PushMessage msg, String delimiter) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            encoded = mapper.writeValueAsString(msg);
-            if (delimiter != null) {
-                encoded += delimiter;
-            }
+            return encode(alloc, msg, delimiter != null ? delimiter.getBytes(CharsetUtil.UTF_8) : null);
         } catch (IOException e) {
             LOG.error("[PushMessageEncoder] failed to encode " + msg, e);
+            return null;
         }
+    }
 
-        if (encoded != null) {
-            out.add(encoded);
+    private static ByteBuf encode(ByteBufAllocator alloc, PushMessage msg, byte[] delimiter) throws IOException {
+        if (msg.getPayload() != null) {
+            return PushMessageJson.writeEnvelope(alloc, msg, delimiter);
+        }
+
+        ByteBuf buf = alloc.directBuffer();
+        try {
+            PushMessageJson.write(msg, buf);
+        } catch (IOException e) {
+            buf.release();
+            throw e;
+        }
+        if (delimiter != null) {
+            buf.writeBytes(delimiter);
         }
+        return buf;
     }
 
 }
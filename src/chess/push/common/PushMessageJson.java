@@ -0,0 +1,419 @@
+package chess.push.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+
+/**
+ * PushMessage 타입과 JSON 간 변환 유틸리티<br>
+ * -ObjectReader/ObjectWriter는 immutable하고 thread-safe하므로 PushMessage 타입에 고정된 인스턴스를 공유<br>
+ * -PushMessage 타입의 (de)serializer는 최초 변환시 한 번 생성되어 재사용됨<br>
+ * -String을 거치지 않고 ByteBuf에서 직접 파싱하고 ByteBuf에 직접 기록<br>
+ * -envelope 모드에서는 라우팅 header만 파싱하고 message 원문은 디코딩하지 않고 그대로 전달<br>
+ * -최상위가 배열인 JSON은 여러 Push 메시지를 담은 batch로 파싱
+ */
+public final class PushMessageJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(PushMessage.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(PushMessage.class);
+    private static final JsonFactory FACTORY = MAPPER.getFactory();	// 생성한 parser는 MAPPER를 codec으로 사용
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+    private static final TypeReference<LinkedHashSet<String>> STRING_SET = new TypeReference<LinkedHashSet<String>>() {};	// 요청 순서를 유지하는 문자열 Set
+
+    private PushMessageJson() {}
+
+    /**
+     * ByteBuf의 읽을 수 있는 영역(JSON)을 PushMessage 타입으로 변환한다.<br>
+     * -heap buffer는 backing array를 직접 파싱하고, direct buffer는 InputStream으로 파싱<br>
+     * -ByteBuf의 readerIndex는 변경하지 않음
+     * @param buf JSON이 기록된 ByteBuf
+     * @return Push 메시지
+     * @throws IOException JSON 파싱 실패
+     */
+    public static PushMessage read(ByteBuf buf) throws IOException {
+        if (buf.hasArray()) {
+            return READER.readValue(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        }
+        return READER.readValue((InputStream) new ByteBufInputStream(buf.duplicate()));
+    }
+
+    /**
+     * ByteBuf의 읽을 수 있는 영역(JSON)을 envelope 모드로 PushMessage 타입으로 변환한다.<br>
+     * -message 이외의 필드만 파싱하고, 문자열인 message 필드는 디코딩하지 않고 JSON 원문(따옴표 제외)을 payload로 복사<br>
+     * -message 필드가 문자열이 아니면 일반 모드와 같이 문자열로 변환<br>
+     * -ByteBuf의 readerIndex는 변경하지 않음
+     * @param buf JSON이 기록된 ByteBuf
+     * @return Push 메시지
+     * @throws IOException JSON 파싱 실패
+     */
+    public static PushMessage readEnvelope(ByteBuf buf) throws IOException {
+        try (JsonParser parser = createParser(buf)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected START_OBJECT");
+            }
+            return readEnvelope(parser, buf);
+        }
+    }
+
+    /**
+     * ByteBuf의 읽을 수 있는 영역(JSON 배열)을 PushMessage 타입 메시지들로 변환한다.<br>
+     * -배열의 각 원소를 순서대로 변환하며, envelope 모드에서는 원소마다 {@link #readEnvelope(ByteBuf)}와 같이 변환<br>
+     * -ByteBuf의 readerIndex는 변경하지 않음
+     * @param buf JSON 배열이 기록된 ByteBuf
+     * @param envelope envelope 모드 여부
+     * @param out 변환된 Push 메시지를 추가할 list
+     * @throws IOException JSON 파싱 실패 (실패 이전에 변환된 메시지는 out에 남음)
+     */
+    public static void readBatch(ByteBuf buf, boolean envelope, List<Object> out) throws IOException {
+        try (JsonParser parser = createParser(buf)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected START_ARRAY");
+            }
+
+            JsonToken token = parser.nextToken();
+            while (token == JsonToken.START_OBJECT) {
+                out.add(envelope ? readEnvelope(parser, buf) : parser.readValueAs(PushMessage.class));
+                token = parser.nextToken();
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Unexpected token " + token);
+            }
+        }
+    }
+
+    /**
+     * ByteBuf의 읽을 수 있는 영역이 JSON 배열(batch)인지 여부를 반환한다.
+     * @param buf JSON이 기록된 ByteBuf
+     * @return 공백을 제외한 첫 문자가 '['이면 true
+     */
+    public static boolean isBatch(ByteBuf buf) {
+        for (int i = buf.readerIndex(); i < buf.writerIndex(); i++) {
+            byte b = buf.getByte(i);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '[';
+            }
+        }
+        return false;
+    }
+
+    private static JsonParser createParser(ByteBuf buf) throws IOException {
+        return buf.hasArray()
+                ? FACTORY.createParser(buf.array(), buf.arrayOffset() + buf.readerIndex(), buf.readableBytes())
+                : FACTORY.createParser((InputStream) new ByteBufInputStream(buf.duplicate()));
+    }
+
+    // START_OBJECT token에 위치한 parser에서 END_OBJECT token까지 읽어 envelope 모드로 변환
+    private static PushMessage readEnvelope(JsonParser parser, ByteBuf buf) throws IOException {
+        PushMessage msg = new PushMessage();
+        JsonToken token = parser.nextToken();
+        while (token == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            if (parser.nextToken() == JsonToken.VALUE_STRING && "message".equals(field)) {
+                // 문자열 내용은 다음 token으로 넘어갈 때 디코딩 없이 건너뜀
+                long start = parser.getTokenLocation().getByteOffset();
+                token = parser.nextToken();
+                msg.setPayload(payload(parser, buf, start, parser.getTokenLocation().getByteOffset()));
+                continue;
+            }
+            bind(parser, field, msg);
+            token = parser.nextToken();
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+        return msg;
+    }
+
+    // 문자열 token 시작 위치부터 다음 token 시작 위치 사이에서 공백, 구분자, 따옴표를 제외한 원문을 복사
+    private static byte[] payload(JsonParser parser, ByteBuf buf, long start, long next) throws IOException {
+        int from = buf.readerIndex() + (int) start + 1;
+        int to = buf.readerIndex() + (int) next;
+        to = skipWhitespace(buf, from, to);
+        if (buf.getByte(to - 1) == ',') {
+            to = skipWhitespace(buf, from, to - 1);
+        }
+        if (to <= from || buf.getByte(to - 1) != '"') {
+            throw new JsonParseException(parser, "Unterminated message field");
+        }
+
+        byte[] payload = new byte[to - 1 - from];
+        buf.getBytes(from, payload);
+        return payload;
+    }
+
+    private static int skipWhitespace(ByteBuf buf, int from, int to) {
+        while (to > from) {
+            byte b = buf.getByte(to - 1);
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                break;
+            }
+            to--;
+        }
+        return to;
+    }
+
+    private static void bind(JsonParser parser, String field, PushMessage msg) throws IOException {
+        switch (field) {
+            case "serviceId":
+                msg.setServiceId(parser.readValueAs(String.class));
+                break;
+            case "groupId":
+                msg.setGroupId(parser.readValueAs(String.class));
+                break;
+            case "clientId":
+                msg.setClientId(parser.readValueAs(String.class));
+                break;
+            case "clientIds":
+                msg.setClientIds(parser.readValueAs(STRING_SET));
+                break;
+            case "groupIds":
+                msg.setGroupIds(parser.readValueAs(STRING_SET));
+                break;
+            case "topic":
+                msg.setTopic(parser.readValueAs(String.class));
+                break;
+            case "subscribe":
+                msg.setSubscribe(parser.readValueAs(STRING_SET));
+                break;
+            case "unsubscribe":
+                msg.setUnsubscribe(parser.readValueAs(STRING_SET));
+                break;
+            case "message":
+                msg.setMessage(parser.readValueAs(String.class));
+                break;
+            case "conflationKey":
+                msg.setConflationKey(parser.readValueAs(String.class));
+                break;
+            case "priority":
+                msg.setPriority(parser.readValueAs(PushPriority.class));
+                break;
+            case "ttl":
+                msg.setTtl(parser.readValueAs(Long.class));
+                break;
+            case "expireAt":
+                msg.setExpireAt(parser.readValueAs(Long.class));
+                break;
+            case "sequence":
+                msg.setSequence(parser.readValueAs(Long.class));
+                break;
+            case "codec":
+                msg.setCodec(parser.readValueAs(String.class));
+                break;
+            case "ackId":
+                msg.setAckId(parser.readValueAs(Long.class));
+                break;
+            default:
+                throw new JsonParseException(parser, "Unrecognized field \"" + field + "\"");
+        }
+    }
+
+    /**
+     * envelope 모드 payload(JSON escape된 문자열 원문)를 문자열로 디코딩한다.
+     * @param payload JSON escape된 UTF-8 문자열 (따옴표 제외)
+     * @return 디코딩된 문자열
+     * @throws IOException JSON 파싱 실패
+     */
+    static String unescape(byte[] payload) throws IOException {
+        byte[] quoted = new byte[payload.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(payload, 0, quoted, 1, payload.length);
+        quoted[quoted.length - 1] = '"';
+        try (JsonParser parser = FACTORY.createParser(quoted)) {
+            parser.nextToken();
+            return parser.getText();
+        }
+    }
+
+    /**
+     * UTF-8 문자열을 envelope 모드 payload(JSON escape된 문자열 원문)로 변환한다.<br>
+     * -UTF-8 multi-byte 문자는 0x80 이상의 byte로만 구성되므로 byte 단위로 따옴표, 역슬래시, 제어문자만 escape
+     * @param buf UTF-8 문자열이 기록된 ByteBuf
+     * @param index 시작 위치
+     * @param length 길이 (byte)
+     * @return payload
+     */
+    public static byte[] escape(ByteBuf buf, int index, int length) {
+        int extra = 0;
+        for (int i = index; i < index + length; i++) {
+            extra += escapedLength(buf.getByte(i)) - 1;
+        }
+        byte[] payload = new byte[length + extra];
+        if (extra == 0) {
+            buf.getBytes(index, payload);
+            return payload;
+        }
+
+        int pos = 0;
+        for (int i = index; i < index + length; i++) {
+            byte b = buf.getByte(i);
+            if (b == '"' || b == '\\') {
+                payload[pos++] = '\\';
+                payload[pos++] = b;
+            } else if (b >= 0 && b < 0x20) {
+                payload[pos++] = '\\';
+                switch (b) {
+                    case '\n':
+                        payload[pos++] = 'n';
+                        break;
+                    case '\r':
+                        payload[pos++] = 'r';
+                        break;
+                    case '\t':
+                        payload[pos++] = 't';
+                        break;
+                    case '\b':
+                        payload[pos++] = 'b';
+                        break;
+                    case '\f':
+                        payload[pos++] = 'f';
+                        break;
+                    default:
+                        payload[pos++] = 'u';
+                        payload[pos++] = '0';
+                        payload[pos++] = '0';
+                        payload[pos++] = HEX[b >> 4];
+                        payload[pos++] = HEX[b & 0xF];
+                }
+            } else {
+                payload[pos++] = b;
+            }
+        }
+        return payload;
+    }
+
+    private static int escapedLength(byte b) {
+        if (b == '"' || b == '\\' || b == '\n' || b == '\r' || b == '\t' || b == '\b' || b == '\f') {
+            return 2;
+        }
+        return b >= 0 && b < 0x20 ? 6 : 1;
+    }
+
+    /**
+     * JSON byte 배열을 PushMessage 타입으로 변환한다.
+     * @param bytes JSON byte 배열
+     * @return Push 메시지
+     * @throws IOException JSON 파싱 실패
+     */
+    public static PushMessage read(byte[] bytes) throws IOException {
+        return READER.readValue(bytes);
+    }
+
+    /**
+     * PushMessage 타입 메시지를 JSON으로 직렬화하여 ByteBuf에 기록한다.
+     * @param msg Push 메시지
+     * @param buf 기록할 ByteBuf
+     * @throws IOException 직렬화 실패
+     */
+    public static void write(PushMessage msg, ByteBuf buf) throws IOException {
+        WRITER.writeValue((OutputStream) new ByteBufOutputStream(buf), msg);
+    }
+
+    /**
+     * envelope 모드 PushMessage 타입 메시지를 JSON으로 직렬화한다.<br>
+     * -payload 앞뒤의 header만 새로 기록하고, payload는 복사하지 않고 CompositeByteBuf의 component로 연결<br>
+     * -필드 순서와 null 처리는 일반 모드 직렬화 결과와 동일
+     * @param alloc ByteBuf allocator
+     * @param msg payload가 있는 Push 메시지
+     * @param delimiter 메시지 끝에 추가할 delimiter (없으면 null)
+     * @return 직렬화된 ByteBuf (reference count 1)
+     * @throws IOException 직렬화 실패
+     */
+    public static ByteBuf writeEnvelope(ByteBufAllocator alloc, PushMessage msg, byte[] delimiter) throws IOException {
+        ByteBuf header = alloc.directBuffer();
+        int split;
+        try (JsonGenerator gen = FACTORY.createGenerator((OutputStream) new ByteBufOutputStream(header))) {
+            gen.writeStartObject();
+            gen.writeStringField("serviceId", msg.getServiceId());
+            gen.writeStringField("groupId", msg.getGroupId());
+            gen.writeStringField("clientId", msg.getClientId());
+            gen.writeFieldName("message");
+            gen.writeRawValue("\"");
+            gen.flush();
+            split = header.writerIndex();
+            gen.writeRaw('"');
+            writeStrings(gen, "clientIds", msg.getClientIds());
+            writeStrings(gen, "groupIds", msg.getGroupIds());
+            if (msg.getTopic() != null) {
+                gen.writeStringField("topic", msg.getTopic());
+            }
+            writeStrings(gen, "subscribe", msg.getSubscribe());
+            writeStrings(gen, "unsubscribe", msg.getUnsubscribe());
+            if (msg.getConflationKey() != null) {
+                gen.writeStringField("conflationKey", msg.getConflationKey());
+            }
+            if (msg.getPriority() != null) {
+                gen.writeStringField("priority", msg.getPriority().name());
+            }
+            if (msg.getTtl() != null) {
+                gen.writeNumberField("ttl", msg.getTtl());
+            }
+            if (msg.getExpireAt() != null) {
+                gen.writeNumberField("expireAt", msg.getExpireAt());
+            }
+            if (msg.getSequence() != null) {
+                gen.writeNumberField("sequence", msg.getSequence());
+            }
+            if (msg.getCodec() != null) {
+                gen.writeStringField("codec", msg.getCodec());
+            }
+            if (msg.getAckId() != null) {
+                gen.writeNumberField("ackId", msg.getAckId());
+            }
+            gen.writeEndObject();
+        } catch (IOException e) {
+            header.release();
+            throw e;
+        }
+        if (delimiter != null) {
+            header.writeBytes(delimiter);
+        }
+
+        // 두 slice가 header의 reference를 하나씩 가지므로 composite 해제시 header도 해제됨
+        return alloc.compositeBuffer(3).addComponents(true,
+                header.retainedSlice(0, split),
+                Unpooled.wrappedBuffer(msg.getPayload()),
+                header.slice(split, header.writerIndex() - split));
+    }
+
+    private static void writeStrings(JsonGenerator gen, String field, Set<String> values) throws IOException {
+        if (values == null) {
+            return;
+        }
+        gen.writeArrayFieldStart(field);
+        for (String value : values) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * PushMessage 타입 메시지를 JSON byte 배열로 직렬화한다.
+     * @param msg Push 메시지
+     * @return JSON byte 배열
+     * @throws IOException 직렬화 실패
+     */
+    public static byte[] writeBytes(PushMessage msg) throws IOException {
+        return WRITER.writeValueAsBytes(msg);
+    }
+
+}
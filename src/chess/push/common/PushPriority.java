@@ -0,0 +1,22 @@
+package chess.push.common;
+
+/**
+ * Push 메시지 우선순위 정의<br>
+ * -서버는 우선순위별로 별도의 큐(lane)를 두고, 서비스별 설정에 따라 높은 우선순위의 메시지를 먼저 전달
+ */
+public enum PushPriority {
+
+    /**
+     * 긴급 알림 등 대기열과 무관하게 먼저 전달해야 하는 메시지
+     */
+    HIGH,
+    /**
+     * 일반 메시지 (우선순위를 지정하지 않은 경우)
+     */
+    NORMAL,
+    /**
+     * 대량 갱신 등 지연되어도 무방한 메시지
+     */
+    LOW;
+
+}
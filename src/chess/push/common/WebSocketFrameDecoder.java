@@ -7,20 +7,22 @@ import org.slf4j.LoggerFactory;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 
 /**
- * WebSocketFrame 타입의 메시지를 String 타입으로 디코딩하는 코덱<br>
- * -WebSocketFrame 타입 중 TextWebSocketFrame 타입만 처리
+ * WebSocketFrame 타입의 메시지를 ByteBuf 타입(frame의 content)으로 디코딩하는 코덱<br>
+ * -WebSocketFrame 타입 중 TextWebSocketFrame, BinaryWebSocketFrame 타입만 처리<br>
+ * -content를 복사하지 않고 reference count만 증가시켜 전달
  */
 public class WebSocketFrameDecoder extends MessageToMessageDecoder<WebSocketFrame> {
 
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketFrameDecoder.class);
 
     /**
-     * WebSocketFrame 타입 메시지를 String 타입으로 변환한다.<br>
-     * -WebSocketFrame 타입 중 TextWebSocketFrame 타입만 처리하며, 다른 타입은 {@link UnsupportedOperationException}를 발생시킨다.
+     * WebSocketFrame 타입 메시지를 ByteBuf 타입으로 변환한다.<br>
+     * -WebSocketFrame 타입 중 TextWebSocketFrame, BinaryWebSocketFrame 타입만 처리하며, 다른 타입은 {@link UnsupportedOperationException}를 발생시킨다.
      * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageDecoder} belongs to
      * @param frame the message to decode to an other one
      * @param out the {@link List} to which decoded messages should be added
@@ -28,10 +30,9 @@ public class WebSocketFrameDecoder extends MessageToMessageDecoder<WebSocketFram
      */
     @Override
     protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) {
-        if (frame instanceof TextWebSocketFrame) {
-            String decoded = ((TextWebSocketFrame) frame).text();
-            LOG.debug("[WebSocketFrameDecoder] decoded {} from channel {}", decoded, ctx.channel());
-            out.add(decoded);
+        if (frame instanceof TextWebSocketFrame || frame instanceof BinaryWebSocketFrame) {
+            LOG.debug("[WebSocketFrameDecoder] decoded {} bytes from channel {}", frame.content().readableBytes(), ctx.channel());
+            out.add(frame.content().retain());
         } else {
             throw new UnsupportedOperationException("Unsupported frame type [" + frame.getClass().getName() + "]");
         }
@@ -5,31 +5,52 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
 
 /**
- * String 타입의 메시지를 WebSocketFrame 타입으로 인코딩하는 코덱<br>
- * -WebSocketFrame 타입 중 TextWebSocketFrame 타입으로 처리
+ * ByteBuf 타입의 메시지를 WebSocketFrame 타입으로 인코딩하는 코덱<br>
+ * -텍스트 codec은 TextWebSocketFrame, binary codec은 BinaryWebSocketFrame 타입으로 처리<br>
+ * -ByteBuf를 복사하지 않고 frame의 content로 그대로 사용
  */
-public class WebSocketFrameEncoder extends MessageToMessageEncoder<String> {
+public class WebSocketFrameEncoder extends MessageToMessageEncoder<ByteBuf> {
 
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketFrameEncoder.class);
 
+    private final boolean binary;	// BinaryWebSocketFrame 사용 여부
+
+    /**
+     * default constructor (TextWebSocketFrame 사용)
+     */
+    public WebSocketFrameEncoder() {
+        this(false);
+    }
+
+    /**
+     * constructor with a parameter
+     * @param binary BinaryWebSocketFrame 사용 여부
+     */
+    public WebSocketFrameEncoder(boolean binary) {
+        this.binary = binary;
+    }
+
     /**
-     * String 타입 메시지를 WebSocketFrame 타입 메시지로 변환한다.<br>
-     * -WebSocketFrame 타입 중 TextWebSocketFrame 타입으로 처리한다.
+     * ByteBuf 타입 메시지를 WebSocketFrame 타입 메시지로 변환한다.<br>
+     * -binary 여부에 따라 BinaryWebSocketFrame 또는 TextWebSocketFrame 타입으로 처리한다.
      * @param ctx the {@link ChannelHandlerContext} which this {@link MessageToMessageEncoder} belongs to
      * @param msg the message to encode to an other one
      * @param out the {@link List} into which the encoded msg should be added
      * @see io.netty.handler.codec.MessageToMessageEncoder#encode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
      */
     @Override
-    protected void encode(ChannelHandlerContext ctx, String msg, List<Object> out) {
-        LOG.debug("[WebSocketFrameEncoder] encode {} to channel {}", msg, ctx.channel());
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        LOG.debug("[WebSocketFrameEncoder] encode {} bytes to channel {}", msg.readableBytes(), ctx.channel());
 
-        out.add(new TextWebSocketFrame(msg));
+        // MessageToMessageEncoder가 encode 후 msg를 release하므로 frame에서 사용할 참조를 추가
+        out.add(binary ? new BinaryWebSocketFrame(msg.retain()) : new TextWebSocketFrame(msg.retain()));
     }
 
 }
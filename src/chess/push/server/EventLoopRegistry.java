@@ -0,0 +1,100 @@
+package chess.push.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.server.property.PushBaseProperty;
+import io.netty.channel.EventLoopGroup;
+
+/**
+ * 서버 컴포넌트가 공유하는 EventLoopGroup 관리자<br>
+ * -Inbound Server, Outbound Server, 클러스터 노드가 하나의 boss EventLoopGroup과 worker EventLoopGroup을 공유하여 CPU 코어 수를 넘는 쓰레드 생성 방지<br>
+ * -격리가 필요한 컴포넌트는 쓰레드 수를 지정하여 전용 worker EventLoopGroup 사용 가능<br>
+ * -모든 EventLoopGroup은 같은 transport로 생성되며, 서버 종료시 한 번에 종료
+ */
+public class EventLoopRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventLoopRegistry.class);
+
+    private final Transport transport;						// Netty transport
+    private final EventLoopGroup bossGroup;					// 공유 EventLoopGroup that accepts an incoming connection
+    private final EventLoopGroup workerGroup;				// 공유 EventLoopGroup that handles the traffic of the accepted connection
+    private final Map<String, EventLoopGroup> dedicatedGroups;	// 컴포넌트 이름을 key로 하는 전용 worker EventLoopGroup collection
+
+    /**
+     * constructor with parameters
+     * @param baseProperty Push 서버 기본 속성
+     * @param transport Netty transport
+     */
+    public EventLoopRegistry(PushBaseProperty baseProperty, Transport transport) {
+        this.transport = transport;
+
+        int bossThreads = baseProperty.getEventLoopBossThreads() > 0 ? baseProperty.getEventLoopBossThreads() : transport.acceptorCount();
+        this.bossGroup = transport.newEventLoopGroup(bossThreads);
+        this.workerGroup = transport.newEventLoopGroup(baseProperty.getEventLoopWorkerThreads());
+        this.dedicatedGroups = new LinkedHashMap<String, EventLoopGroup>();
+
+        LOG.info("[EventLoopRegistry] shared boss threads {}, worker threads {}", bossThreads,
+                baseProperty.getEventLoopWorkerThreads() > 0 ? String.valueOf(baseProperty.getEventLoopWorkerThreads()) : "default");
+    }
+
+    /**
+     * EventLoopGroup 생성에 사용한 transport를 반환한다.
+     * @return Netty transport
+     */
+    public Transport transport() {
+        return transport;
+    }
+
+    /**
+     * 공유 boss EventLoopGroup을 반환한다.
+     * @return boss EventLoopGroup
+     */
+    public EventLoopGroup bossGroup() {
+        return bossGroup;
+    }
+
+    /**
+     * 공유 worker EventLoopGroup을 반환한다.
+     * @return worker EventLoopGroup
+     */
+    public EventLoopGroup workerGroup() {
+        return workerGroup;
+    }
+
+    /**
+     * 컴포넌트가 사용할 worker EventLoopGroup을 반환한다.<br>
+     * -쓰레드 수가 지정되지 않으면 공유 worker EventLoopGroup을 반환<br>
+     * -쓰레드 수가 지정되면 컴포넌트 전용 EventLoopGroup을 생성하여 반환 (같은 이름으로 다시 요청하면 생성된 EventLoopGroup 반환)
+     * @param name 컴포넌트 이름
+     * @param nThreads 전용 EventLoopGroup 쓰레드 수 (0이면 공유 EventLoopGroup 사용)
+     * @return worker EventLoopGroup
+     */
+    public synchronized EventLoopGroup workerGroup(String name, int nThreads) {
+        if (nThreads <= 0) {
+            return workerGroup;
+        }
+        return dedicatedGroups.computeIfAbsent(name, key -> {
+            LOG.info("[EventLoopRegistry] dedicated worker threads {} for [{}]", nThreads, key);
+            return transport.newEventLoopGroup(nThreads);
+        });
+    }
+
+    /**
+     * 모든 EventLoopGroup을 종료한다.<br>
+     * -shutdown dedicated worker EventLoopGroups<br>
+     * -shutdown shared worker EventLoopGroup<br>
+     * -shutdown shared boss EventLoopGroup
+     */
+    public synchronized void shutdown() {
+        dedicatedGroups.values().forEach(EventLoopGroup::shutdownGracefully);
+        workerGroup.shutdownGracefully();
+        bossGroup.shutdownGracefully();
+
+        LOG.info("[EventLoopRegistry] shutdown");
+    }
+
+}
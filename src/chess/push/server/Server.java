@@ -7,6 +7,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import chess.push.server.cluster.ClusterNode;
 import chess.push.server.inbound.InboundServer;
 import chess.push.server.outbound.OutboundServer;
 import chess.push.server.outbound.OutboundServerFactory;
@@ -31,6 +32,8 @@ public class Server {
     private OutboundQueueChecker outboundQueueChecker;	// OutboundQueue 상태 모니터링 쓰레드
     private InboundQueueChecker inboundQueueChecker;	// InboundQueue 상태 모니터링 쓰레드
     private InboundServer inboundServer;				// Push 요청을 수용하는 InboundServer
+    private ClusterNode clusterNode;					// 클러스터 모드에서 다른 노드와 메시지를 주고받는 로컬 노드
+    private EventLoopRegistry eventLoopRegistry;		// 서버 컴포넌트가 공유하는 EventLoopGroup 관리자
 
     public Server() {
         outboundServers = new HashMap<String, OutboundServer>();
@@ -48,22 +51,35 @@ public class Server {
     public Map<String, InboundQueue> startupServer(boolean embedded, PushBaseProperty baseProperty, Collection<PushServiceProperty> serviceProperties) {
         LOG.info("[simple-push-server] starting...");
 
+        eventLoopRegistry = new EventLoopRegistry(baseProperty, new Transport(baseProperty));
+
         if (!serviceProperties.isEmpty()) {
             // 개별 Push 서비스 속성에 따라 필요한 인스턴스 생성하고 Service ID를 key로 하는 collection에 저장
             serviceProperties.forEach(property -> {
                 String serviceId = property.getServiceId();
-                outboundServers.put(serviceId, OutboundServerFactory.getInstance(property, outboundQueueManager));
-                inboundQueues.put(serviceId, new InboundQueue(serviceId, property.getInboundQueueCapacity(), outboundQueueManager));
-                outboundQueueManager.addOutboundQueueGroup(serviceId);
+                outboundServers.put(serviceId, OutboundServerFactory.getInstance(property, outboundQueueManager, eventLoopRegistry));
+                outboundQueueManager.addOutboundQueueGroup(property, eventLoopRegistry.transport().allocator());
+                inboundQueues.put(serviceId, new InboundQueue(property, outboundQueueManager));
             });
         }
 
         // startup OutboundServers
         outboundServers.forEach((serviceId, outboundServer) -> outboundServer.startup());
 
-        // startup InboundQueue threads
+        // startup InboundQueue worker threads
         inboundQueues.forEach((serviceId, inboundQueue) -> inboundQueue.start());
 
+        // replay undispatched messages from InboundQueue journals
+        inboundQueues.forEach((serviceId, inboundQueue) -> inboundQueue.replay());
+
+        // startup ClusterNode
+        if (baseProperty.getClusterAddress() != null) {
+            clusterNode = new ClusterNode(baseProperty, inboundQueues, outboundQueueManager, eventLoopRegistry);
+            outboundQueueManager.setRouteListener(clusterNode);
+            inboundQueues.forEach((serviceId, inboundQueue) -> inboundQueue.setClusterNode(clusterNode));
+            clusterNode.startup();
+        }
+
         // startup OutboundQueueChecker
         outboundQueueChecker = new OutboundQueueChecker(outboundQueueManager, baseProperty.getOutboundQueueCheckInterval());
         outboundQueueChecker.start();
@@ -74,7 +90,7 @@ public class Server {
 
         // startup InboundServer
         if (!embedded) {
-            inboundServer = new InboundServer(baseProperty.getInboundServerPort());
+            inboundServer = new InboundServer(baseProperty, eventLoopRegistry);
             inboundServer.startup(inboundQueues);
         }
 
@@ -92,6 +108,11 @@ public class Server {
             inboundServer.shutdown();
         }
 
+        // shtudown ClusterNode
+        if (clusterNode != null) {
+            clusterNode.shutdown();
+        }
+
         // shtudown InboundQueueChecker
         if (inboundQueueChecker != null) {
             inboundQueueChecker.shutdown();
@@ -111,6 +132,14 @@ public class Server {
         if (outboundServers != null) {
             outboundServers.forEach((serviceId, outboundServer) -> outboundServer.shutdown());
         }
+
+        // shtudown OutboundQueue I/O threads
+        outboundQueueManager.shutdown();
+
+        // shtudown EventLoopGroups
+        if (eventLoopRegistry != null) {
+            eventLoopRegistry.shutdown();
+        }
     }
 
 }
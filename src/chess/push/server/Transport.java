@@ -0,0 +1,175 @@
+package chess.push.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.server.property.PushBaseProperty;
+import chess.push.server.property.TransportType;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.internal.SystemPropertyUtil;
+
+/**
+ * 서버 컴포넌트가 공통으로 사용하는 Netty transport<br>
+ * -transportType 설정과 native epoll transport 사용 가능 여부에 따라 epoll 또는 NIO transport를 결정<br>
+ * -epoll transport에서는 listen port마다 transportAcceptorCount개의 accept 채널을 SO_REUSEPORT로 bind하여 커널이 연결을 분산<br>
+ * -allocator 설정(direct 여부, arena 수, chunk 크기)으로 생성한 pooled allocator를 모든 채널에 지정<br>
+ * -EventLoopGroup과 채널 타입은 같은 transport끼리만 함께 사용할 수 있으므로 모든 bootstrap은 이 클래스를 통해 설정
+ */
+public class Transport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Transport.class);
+
+    private final boolean epoll;			// native epoll transport 사용 여부
+    private final int acceptorCount;		// listen port마다 bind하는 accept 채널 수
+    private final EpollMode epollMode;		// epoll transport의 이벤트 통지 방식
+    private final ByteBufAllocator allocator;	// 모든 채널이 사용하는 pooled allocator
+
+    /**
+     * constructor with a parameter
+     * @param baseProperty Push 서버 기본 속성
+     */
+    public Transport(PushBaseProperty baseProperty) {
+        TransportType type = baseProperty.getTransportType();
+        if (type == TransportType.NIO) {
+            this.epoll = false;
+        } else if (Epoll.isAvailable()) {
+            this.epoll = true;
+        } else {
+            if (type == TransportType.EPOLL) {
+                LOG.warn("[Transport] epoll transport is not available, fall back to NIO", Epoll.unavailabilityCause());
+            }
+            this.epoll = false;
+        }
+        this.epollMode = baseProperty.isTransportEdgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+
+        if (!epoll && baseProperty.getTransportAcceptorCount() > 1) {
+            LOG.warn("[Transport] SO_REUSEPORT requires epoll transport, use 1 acceptor instead of {}", baseProperty.getTransportAcceptorCount());
+            this.acceptorCount = 1;
+        } else {
+            this.acceptorCount = baseProperty.getTransportAcceptorCount();
+        }
+
+        this.allocator = newAllocator(baseProperty);
+
+        LOG.info("[Transport] {} transport, {} acceptor(s) per port{}", epoll ? "epoll" : "NIO", acceptorCount, epoll ? ", " + epollMode : "");
+    }
+
+    private static ByteBufAllocator newAllocator(PushBaseProperty baseProperty) {
+        int arenas = baseProperty.getAllocatorArenas();
+        int heapArenas = arenas > 0 ? arenas : PooledByteBufAllocator.defaultNumHeapArena();
+        int directArenas = arenas > 0 ? arenas : PooledByteBufAllocator.defaultNumDirectArena();
+        int pageSize = PooledByteBufAllocator.defaultPageSize();
+        int chunkSize = baseProperty.getAllocatorChunkSize();
+        // chunk 크기 = page 크기 << maxOrder
+        int maxOrder = chunkSize > 0
+                ? Math.max(0, Integer.numberOfTrailingZeros(chunkSize) - Integer.numberOfTrailingZeros(pageSize))
+                : PooledByteBufAllocator.defaultMaxOrder();
+
+        LOG.info("[Transport] pooled {} allocator, heap arenas {}, direct arenas {}, chunk size {}",
+                baseProperty.isAllocatorPreferDirect() ? "direct" : "heap", heapArenas, directArenas, pageSize << maxOrder);
+        // thread cache 설정은 Netty 기본값 유지 (useCacheForAllThreads 기본값 조회 메소드가 없는 버전이므로 같은 system property 사용)
+        return new PooledByteBufAllocator(baseProperty.isAllocatorPreferDirect(), heapArenas, directArenas, pageSize, maxOrder,
+                PooledByteBufAllocator.defaultTinyCacheSize(), PooledByteBufAllocator.defaultSmallCacheSize(), PooledByteBufAllocator.defaultNormalCacheSize(),
+                SystemPropertyUtil.getBoolean("io.netty.allocator.useCacheForAllThreads", true));
+    }
+
+    /**
+     * native epoll transport를 사용하는지 여부를 반환한다.
+     * @return epoll transport이면 true
+     */
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    /**
+     * listen port마다 bind하는 accept 채널 수를 반환한다.
+     * @return accept 채널 수
+     */
+    public int acceptorCount() {
+        return acceptorCount;
+    }
+
+    /**
+     * 모든 채널이 사용하는 ByteBuf allocator를 반환한다.
+     * @return pooled allocator
+     */
+    public ByteBufAllocator allocator() {
+        return allocator;
+    }
+
+    /**
+     * transport에 맞는 EventLoopGroup을 생성한다.
+     * @param nThreads 쓰레드 수 (0이면 Netty 기본값)
+     * @return EventLoopGroup 인스턴스
+     */
+    public EventLoopGroup newEventLoopGroup(int nThreads) {
+        return epoll ? new EpollEventLoopGroup(nThreads) : new NioEventLoopGroup(nThreads);
+    }
+
+    /**
+     * 서버 bootstrap에 transport에 맞는 채널 타입과 옵션을 설정한다.
+     * @param bootstrap 서버 bootstrap
+     * @return 설정된 서버 bootstrap
+     */
+    public ServerBootstrap configure(ServerBootstrap bootstrap) {
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator)
+                 .childOption(ChannelOption.ALLOCATOR, allocator);
+        if (epoll) {
+            bootstrap.channel(EpollServerSocketChannel.class)
+                     .option(EpollChannelOption.EPOLL_MODE, epollMode)
+                     .childOption(EpollChannelOption.EPOLL_MODE, epollMode);
+            if (acceptorCount > 1) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+        } else {
+            bootstrap.channel(NioServerSocketChannel.class);
+        }
+        return bootstrap;
+    }
+
+    /**
+     * 클라이언트 bootstrap에 transport에 맞는 채널 타입과 옵션을 설정한다.
+     * @param bootstrap 클라이언트 bootstrap
+     * @return 설정된 클라이언트 bootstrap
+     */
+    public Bootstrap configure(Bootstrap bootstrap) {
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        if (epoll) {
+            bootstrap.channel(EpollSocketChannel.class)
+                     .option(EpollChannelOption.EPOLL_MODE, epollMode);
+        } else {
+            bootstrap.channel(NioSocketChannel.class);
+        }
+        return bootstrap;
+    }
+
+    /**
+     * 서버 bootstrap을 port에 bind한다.<br>
+     * -accept 채널 수만큼 같은 port에 bind하며, 각 accept 채널은 boss EventLoopGroup의 EventLoop에 순서대로 할당됨
+     * @param bootstrap {@link #configure(ServerBootstrap)}로 설정된 서버 bootstrap
+     * @param port listen port
+     * @param channels bind된 accept 채널을 추가할 ChannelGroup
+     * @throws InterruptedException bind 대기 중 인터럽트된 경우
+     */
+    public void bind(ServerBootstrap bootstrap, int port, ChannelGroup channels) throws InterruptedException {
+        for (int i = 0; i < acceptorCount; i++) {
+            channels.add(bootstrap.bind(port).sync().channel());
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package chess.push.server.cluster;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import chess.push.common.PushMessage;
+
+/**
+ * 클러스터 노드간 peer link에서 주고받는 메시지를 바인딩할 객체 타입
+ */
+@JsonInclude(Include.NON_NULL)
+public class ClusterFrame {
+
+    /**
+     * peer link 메시지 유형
+     */
+    public enum Type {
+        HELLO,			// 연결한 노드의 ID 통지 (연결 직후 한 번)
+        ROUTE_ADD,		// 라우팅 정보 추가
+        ROUTE_REMOVE,	// 라우팅 정보 제거
+        PUSH			// Push 메시지 전달
+    }
+
+    private Type type;				// 메시지 유형
+    private String nodeId;			// 연결한 노드의 ID (HELLO)
+    private String serviceId;		// 서비스ID (ROUTE_ADD, ROUTE_REMOVE)
+    private RouteType routeType;	// 라우팅 정보 유형 (ROUTE_ADD, ROUTE_REMOVE)
+    private String key;				// 클라이언트ID, 그룹ID 또는 topic filter (ROUTE_ADD, ROUTE_REMOVE)
+    private PushMessage message;	// 전달할 Push 메시지 (PUSH)
+
+    public ClusterFrame() {}
+
+    /**
+     * 노드의 ID를 통지하는 메시지를 생성한다.
+     * @param nodeId 노드 ID
+     * @return HELLO 메시지
+     */
+    public static ClusterFrame hello(String nodeId) {
+        ClusterFrame frame = new ClusterFrame();
+        frame.type = Type.HELLO;
+        frame.nodeId = nodeId;
+        return frame;
+    }
+
+    /**
+     * 라우팅 정보 추가/제거 메시지를 생성한다.
+     * @param type ROUTE_ADD 또는 ROUTE_REMOVE
+     * @param serviceId 서비스ID
+     * @param routeType 라우팅 정보 유형
+     * @param key 클라이언트ID 또는 그룹ID
+     * @return 라우팅 정보 메시지
+     */
+    public static ClusterFrame route(Type type, String serviceId, RouteType routeType, String key) {
+        ClusterFrame frame = new ClusterFrame();
+        frame.type = type;
+        frame.serviceId = serviceId;
+        frame.routeType = routeType;
+        frame.key = key;
+        return frame;
+    }
+
+    /**
+     * Push 메시지 전달 메시지를 생성한다.
+     * @param message Push 메시지
+     * @return PUSH 메시지
+     */
+    public static ClusterFrame push(PushMessage message) {
+        ClusterFrame frame = new ClusterFrame();
+        frame.type = Type.PUSH;
+        frame.message = message;
+        return frame;
+    }
+
+    public Type getType() {
+        return type;
+    }
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+    public void setServiceId(String serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public RouteType getRouteType() {
+        return routeType;
+    }
+    public void setRouteType(RouteType routeType) {
+        this.routeType = routeType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public PushMessage getMessage() {
+        return message;
+    }
+    public void setMessage(PushMessage message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getClass().getSimpleName()).append("[")
+               .append("type=").append(type)
+               .append(", nodeId=").append(nodeId)
+               .append(", serviceId=").append(serviceId)
+               .append(", routeType=").append(routeType)
+               .append(", key=").append(key)
+               .append(", message=").append(message)
+               .append("]");
+        return builder.toString();
+    }
+
+}
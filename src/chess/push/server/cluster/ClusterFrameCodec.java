@@ -0,0 +1,68 @@
+package chess.push.server.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import chess.push.common.PushConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.util.CharsetUtil;
+
+/**
+ * ByteBuf 타입의 메시지(UTF-8 JSON)와 ClusterFrame 타입을 상호 변환하는 코덱<br>
+ * -String을 거치지 않고 ByteBuf에서 직접 파싱하고 ByteBuf에 직접 기록<br>
+ * -인코딩시 메시지 끝에 기본 delimiter 추가
+ */
+public class ClusterFrameCodec extends MessageToMessageCodec<ByteBuf, ClusterFrame> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterFrameCodec.class);
+
+    // ObjectReader/ObjectWriter는 thread-safe하므로 ClusterFrame 타입에 고정된 인스턴스를 공유
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(ClusterFrame.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(ClusterFrame.class);
+    private static final byte[] DELIMITER = PushConstant.DEFAULT_DELIMITER_STR.getBytes(CharsetUtil.UTF_8);
+
+    /**
+     * ClusterFrame 타입 메시지를 delimiter가 추가된 JSON으로 직렬화하여 ByteBuf에 기록한다.
+     * @see io.netty.handler.codec.MessageToMessageCodec#encode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
+     */
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ClusterFrame msg, List<Object> out) {
+        ByteBuf buf = ctx.alloc().buffer();
+        try {
+            WRITER.writeValue((OutputStream) new ByteBufOutputStream(buf), msg);
+            buf.writeBytes(DELIMITER);
+            out.add(buf);
+        } catch (IOException e) {
+            buf.release();
+            LOG.error("[ClusterFrameCodec] failed to encode " + msg, e);
+        }
+    }
+
+    /**
+     * ByteBuf 타입 메시지(JSON)를 ClusterFrame 타입 메시지로 변환한다.
+     * @see io.netty.handler.codec.MessageToMessageCodec#decode(io.netty.channel.ChannelHandlerContext, java.lang.Object, java.util.List)
+     */
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) {
+        try {
+            out.add(READER.readValue((InputStream) new ByteBufInputStream(msg.duplicate())));
+        } catch (IOException e) {
+            LOG.error("[ClusterFrameCodec] failed to decode " + msg.toString(CharsetUtil.UTF_8), e);
+        }
+    }
+
+}
@@ -0,0 +1,344 @@
+package chess.push.server.cluster;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushConstant;
+import chess.push.common.PushMessage;
+import chess.push.server.EventLoopRegistry;
+import chess.push.server.property.PushBaseProperty;
+import chess.push.server.queue.InboundQueue;
+import chess.push.server.queue.OutboundQueueManager;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+import io.netty.handler.logging.LogLevel;
+import io.netty.handler.logging.LoggingHandler;
+
+/**
+ * 여러 노드가 Inbound Server 역할을 나누어 맡는 클러스터의 로컬 노드<br>
+ * -clusterAddress의 포트로 다른 노드의 peer link 연결을 수용하고, clusterMembers의 각 노드로 peer link 연결<br>
+ * -로컬 노드에 클라이언트ID/그룹ID/topic filter가 등록/해제되면 모든 노드에 통지하여 각 노드가 라우팅 테이블 유지<br>
+ * -로컬 InboundQueue에 추가되는 메시지를 라우팅 테이블에 따라 대상 클라이언트ID/그룹ID/topic이 등록된 노드에 전달하고, 전체 대상 메시지는 모든 노드에 전달<br>
+ * -전달받은 메시지는 다시 전달하지 않으므로 메시지는 노드간 최대 한 번만 전달됨
+ */
+public class ClusterNode implements RouteListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final String nodeId;								// 로컬 노드 ID (clusterAddress)
+    private final int port;										// peer link listen port
+    private final int maxFrameSize;								// peer link로 수신하는 frame의 최대 크기 (byte)
+    private final Map<String, InboundQueue> inboundQueues;		// Service ID를 key로 하는 InboundQueue collection
+    private final OutboundQueueManager outboundQueueManager;	// OutboundQueue 인스턴스 관리자
+    private final ClusterRouteTable routeTable;					// 다른 노드의 라우팅 정보
+    private final Map<String, ClusterPeerLink> links;			// 노드 ID를 key로 하는 peer link collection
+    private final Map<String, Channel> peerChannels;			// 노드 ID를 key로 하는 수용한 peer link 채널 collection
+    private final LongAdder forwarded;							// 다른 노드에 전달한 메시지 수
+    private final LongAdder forwardDropped;						// 연결이 없거나 전송이 밀려 전달하지 못한 메시지 수
+    private final EventLoopRegistry eventLoopRegistry;			// 공유 EventLoopGroup 관리자
+
+    private volatile Channel serverChannel;	// peer link 연결을 수용하는 accept 채널
+
+    /**
+     * constructor with parameters
+     * @param baseProperty Push 서버 기본 속성
+     * @param inboundQueues Service ID를 key로 하는 InboundQueue collection
+     * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
+     */
+    public ClusterNode(PushBaseProperty baseProperty, Map<String, InboundQueue> inboundQueues, OutboundQueueManager outboundQueueManager, EventLoopRegistry eventLoopRegistry) {
+        this.nodeId = baseProperty.getClusterAddress();
+        this.port = Integer.parseInt(nodeId.substring(nodeId.lastIndexOf(':') + 1));
+        // 전달하는 메시지는 binary 본문이 base64로 인코딩되고 JSON 필드가 추가되므로 inboundMaxFrameSize의 2배까지 허용
+        this.maxFrameSize = (int) Math.min(Integer.MAX_VALUE, 2L * baseProperty.getInboundMaxFrameSize());
+        this.inboundQueues = inboundQueues;
+        this.outboundQueueManager = outboundQueueManager;
+        this.routeTable = new ClusterRouteTable();
+        this.links = new ConcurrentHashMap<String, ClusterPeerLink>();
+        this.peerChannels = new ConcurrentHashMap<String, Channel>();
+        this.forwarded = new LongAdder();
+        this.forwardDropped = new LongAdder();
+        this.eventLoopRegistry = eventLoopRegistry;
+
+        baseProperty.getClusterMembers().forEach(member -> {
+            if (!member.equals(nodeId)) {
+                links.put(member, new ClusterPeerLink(this, member, eventLoopRegistry, maxFrameSize, baseProperty.getClusterReconnectInterval()));
+            }
+        });
+    }
+
+    /**
+     * 로컬 노드 ID를 반환한다.
+     * @return 노드 ID
+     */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * ClusterNode를 기동한다.<br>
+     * -peer link 연결 수용을 시작하고 다른 노드로 peer link 연결 (연결되지 않은 노드는 주기적으로 재연결)<br>
+     * -peer link 채널은 공유 EventLoopGroup 사용
+     */
+    public void startup() {
+        LOG.info("[ClusterNode:{}] starting...", nodeId);
+
+        try {
+            ServerBootstrap bootstrap = new ServerBootstrap();
+            eventLoopRegistry.transport().configure(bootstrap)
+                     .group(eventLoopRegistry.bossGroup(), eventLoopRegistry.workerGroup())
+                     .handler(new LoggingHandler(LogLevel.INFO))
+                     .childHandler(new ChannelInitializer<SocketChannel>() {
+                         @Override
+                         public void initChannel(SocketChannel ch) {
+                             ChannelPipeline pipeline = ch.pipeline();
+                             pipeline.addLast(new DelimiterBasedFrameDecoder(maxFrameSize, PushConstant.DEFAULT_DELIMITER));
+                             pipeline.addLast(new ClusterFrameCodec());
+                             pipeline.addLast(new ClusterServerHandler(ClusterNode.this));
+                         }
+                     })
+                     .option(ChannelOption.SO_REUSEADDR, true)
+                     .childOption(ChannelOption.SO_KEEPALIVE, true)
+                     .childOption(ChannelOption.TCP_NODELAY, true);
+
+            serverChannel = bootstrap.bind(port).sync().channel();
+
+            LOG.info("[ClusterNode:{}] started, listening on port {}, members {}", nodeId, port, links.keySet());
+
+        } catch (InterruptedException e) {
+            LOG.error("[ClusterNode:" + nodeId + "] failed to startup", e);
+            shutdown();
+            return;
+        }
+
+        links.values().forEach(ClusterPeerLink::connect);
+    }
+
+    /**
+     * ClusterNode를 중지한다.<br>
+     * -peer link 종료<br>
+     * -close accept 채널과 수용한 peer link 채널
+     */
+    public void shutdown() {
+        links.values().forEach(ClusterPeerLink::close);
+        if (serverChannel != null) {
+            serverChannel.close();
+        }
+        peerChannels.values().forEach(Channel::close);
+
+        LOG.info("[ClusterNode:{}] shutdown, {}", nodeId, status());
+    }
+
+    /**
+     * 로컬 InboundQueue에 추가되는 메시지를 대상이 등록된 다른 노드에 전달한다.<br>
+     * -클라이언트ID 대상: 클라이언트ID가 등록된 노드에 전달<br>
+     * -그룹ID 대상: 그룹ID가 등록된 노드에 전달<br>
+     * -전체 대상: 모든 노드에 전달<br>
+     * -여러 대상: 노드마다 그 노드에 등록된 대상만 남긴 메시지를 전달하고, 로컬 노드에서 처리할 클라이언트ID만 남김<br>
+     * -topic 대상: topic에 일치하는 filter를 구독한 노드에 전달<br>
+     * -클라이언트ID 대상 메시지는 다른 노드에만 등록되어 있으면 로컬 노드에서 처리하지 않고, 어느 노드에도 없으면 로컬 우편함에 보관할 수 있도록 로컬 노드에서 처리
+     * @param message Push 메시지
+     * @return 로컬 노드에서 처리해야 하는지 여부와 전달하지 못한 노드가 있는지 여부
+     */
+    public ForwardResult forward(PushMessage message) {
+        if (message.isMultiTarget()) {
+            return forwardMultiTarget(message);
+        }
+
+        String serviceId = message.getServiceId();
+        String clientId = message.getClientId();
+        String groupId = message.getGroupId();
+        ClusterFrame frame = ClusterFrame.push(forwardCopy(message, null, null));
+
+        if (message.getTopic() != null) {
+            return ForwardResult.of(true, send(routeTable.findByTopic(serviceId, message.getTopic()), frame));
+        }
+        if (clientId != null) {
+            Set<String> nodes = routeTable.find(serviceId, RouteType.CLIENT, clientId);
+            boolean sent = send(nodes, frame);
+            return ForwardResult.of(nodes.isEmpty() || outboundQueueManager.isRegistered(serviceId, clientId), sent);
+        }
+        if (groupId != null) {
+            return ForwardResult.of(true, send(routeTable.find(serviceId, RouteType.GROUP, groupId), frame));
+        }
+        return ForwardResult.of(true, send(links.keySet(), frame));
+    }
+
+    private ForwardResult forwardMultiTarget(PushMessage message) {
+        String serviceId = message.getServiceId();
+        Map<String, Set<String>> nodeClientIds = new HashMap<String, Set<String>>();
+        Map<String, Set<String>> nodeGroupIds = new HashMap<String, Set<String>>();
+        Set<String> localClientIds = new LinkedHashSet<String>();
+
+        if (message.getClientIds() != null) {
+            for (String clientId : message.getClientIds()) {
+                Set<String> nodes = routeTable.find(serviceId, RouteType.CLIENT, clientId);
+                nodes.forEach(node -> nodeClientIds.computeIfAbsent(node, key -> new LinkedHashSet<String>()).add(clientId));
+                if (nodes.isEmpty() || outboundQueueManager.isRegistered(serviceId, clientId)) {
+                    localClientIds.add(clientId);
+                }
+            }
+        }
+        if (message.getGroupIds() != null) {
+            for (String groupId : message.getGroupIds()) {
+                routeTable.find(serviceId, RouteType.GROUP, groupId)
+                          .forEach(node -> nodeGroupIds.computeIfAbsent(node, key -> new LinkedHashSet<String>()).add(groupId));
+            }
+        }
+
+        Set<String> nodes = new LinkedHashSet<String>(nodeClientIds.keySet());
+        nodes.addAll(nodeGroupIds.keySet());
+        boolean sent = true;
+        for (String node : nodes) {
+            sent &= send(links.get(node), ClusterFrame.push(forwardCopy(message, nodeGroupIds.get(node), nodeClientIds.get(node))));
+        }
+
+        if (message.getClientIds() != null) {
+            if (localClientIds.isEmpty() && message.getGroupIds() == null) {
+                return ForwardResult.of(false, sent);
+            }
+            message.setClientIds(localClientIds);
+        }
+        return ForwardResult.of(true, sent);
+    }
+
+    // 전달 메시지는 peer link의 EventLoop에서 나중에 직렬화되므로, 로컬 노드가 이후 부여하는 sequence, ackId와 섞이지 않도록 복사본 전달
+    // (sequence와 ackId는 메시지를 전달받아 채널에 전송하는 노드가 부여하므로 노드간에 겹치지 않음)
+    private static PushMessage forwardCopy(PushMessage message, Set<String> groupIds, Set<String> clientIds) {
+        PushMessage copy = message.retarget(message.getGroupId(), message.getClientId(), groupIds, clientIds);
+        copy.setSequence(null);
+        copy.setAckId(null);
+        return copy;
+    }
+
+    // 모든 노드에 전달했으면 true
+    private boolean send(Collection<String> nodes, ClusterFrame frame) {
+        boolean sent = true;
+        for (String node : nodes) {
+            sent &= send(links.get(node), frame);
+        }
+        return sent;
+    }
+
+    private boolean send(ClusterPeerLink link, ClusterFrame frame) {
+        if (link != null && link.sendPush(frame)) {
+            forwarded.increment();
+            return true;
+        }
+        forwardDropped.increment();
+        LOG.debug("[ClusterNode:{}] failed to forward {} to {}", nodeId, frame, link != null ? link.peerId() : null);
+        return false;
+    }
+
+    /**
+     * 연결된 peer link 중 전송이 밀려 writable 상태가 아닌 link가 있는지 여부를 반환한다.<br>
+     * -연결되지 않은 link는 재연결까지 메시지를 버리므로 대상에서 제외
+     * @return writable 상태가 아닌 link가 있으면 true
+     */
+    public boolean isForwardBlocked() {
+        for (ClusterPeerLink link : links.values()) {
+            if (!link.isWritable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * peer link가 다시 writable 상태가 되거나 해제되었을 때, 전달이 밀려 읽기를 중지한 송신자 채널을 재개하도록 InboundQueue에 통지한다.
+     */
+    void linkWritable() {
+        inboundQueues.values().forEach(InboundQueue::resumeIfDrained);
+    }
+
+    @Override
+    public void routeAdded(String serviceId, RouteType type, String key) {
+        ClusterFrame frame = ClusterFrame.route(ClusterFrame.Type.ROUTE_ADD, serviceId, type, key);
+        links.values().forEach(link -> link.sendRoute(frame));
+    }
+
+    @Override
+    public void routeRemoved(String serviceId, RouteType type, String key) {
+        ClusterFrame frame = ClusterFrame.route(ClusterFrame.Type.ROUTE_REMOVE, serviceId, type, key);
+        links.values().forEach(link -> link.sendRoute(frame));
+    }
+
+    /**
+     * peer link로 로컬 노드의 라우팅 정보 전체를 기록한다.<br>
+     * -연결 직후 peer link 채널의 EventLoop에서 호출되며, flush는 호출한 쪽에서 처리
+     * @param link 연결된 peer link
+     */
+    void sendRoutes(ClusterPeerLink link) {
+        outboundQueueManager.outboundQueueGroups().forEach((serviceId, queueGroup) -> {
+            queueGroup.clientIds().forEach(key -> link.writeRoute(ClusterFrame.route(ClusterFrame.Type.ROUTE_ADD, serviceId, RouteType.CLIENT, key)));
+            queueGroup.groupIds().forEach(key -> link.writeRoute(ClusterFrame.route(ClusterFrame.Type.ROUTE_ADD, serviceId, RouteType.GROUP, key)));
+            queueGroup.topics().forEach(key -> link.writeRoute(ClusterFrame.route(ClusterFrame.Type.ROUTE_ADD, serviceId, RouteType.TOPIC, key)));
+        });
+    }
+
+    /**
+     * 다른 노드의 peer link 연결을 수용했을 때 이전 연결의 라우팅 정보를 제거한다.
+     * @param peerId 연결한 노드의 ID
+     * @param channel 수용한 peer link 채널
+     */
+    void peerConnected(String peerId, Channel channel) {
+        Channel previous = peerChannels.put(peerId, channel);
+        if (previous != null) {
+            routeTable.removeNode(peerId);
+            previous.close();
+        }
+    }
+
+    /**
+     * 수용한 peer link 채널이 해제되었을 때 노드의 라우팅 정보를 제거한다.<br>
+     * -같은 노드가 이미 다시 연결한 경우 새 연결의 라우팅 정보를 유지
+     * @param peerId 연결한 노드의 ID
+     * @param channel 해제된 peer link 채널
+     */
+    void peerDisconnected(String peerId, Channel channel) {
+        if (peerChannels.remove(peerId, channel)) {
+            routeTable.removeNode(peerId);
+        }
+    }
+
+    /**
+     * 라우팅 테이블을 반환한다.
+     * @return 라우팅 테이블
+     */
+    ClusterRouteTable routeTable() {
+        return routeTable;
+    }
+
+    /**
+     * 서비스ID에 해당하는 InboundQueue를 반환한다.
+     * @param serviceId 서비스ID
+     * @return InboundQueue (없으면 null)
+     */
+    InboundQueue inboundQueue(String serviceId) {
+        return inboundQueues.get(serviceId);
+    }
+
+    /**
+     * 클러스터 노드의 현재 상태를 문자열로 반환한다.
+     * @return 노드 상태 문자열
+     */
+    public String status() {
+        long connected = links.values().stream().filter(ClusterPeerLink::isConnected).count();
+        return "node: " + nodeId + ", links: " + connected + "/" + links.size() + ", peers: " + peerChannels.size()
+                + ", routes: " + routeTable.size() + ", forwarded: " + forwarded.sum() + ", forwardDropped: " + forwardDropped.sum();
+    }
+
+}
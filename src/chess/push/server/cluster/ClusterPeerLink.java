@@ -0,0 +1,218 @@
+package chess.push.server.cluster;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushConstant;
+import chess.push.server.EventLoopRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+
+/**
+ * 다른 노드로 연결하는 단방향 peer link<br>
+ * -연결 직후 HELLO와 로컬 노드의 라우팅 정보 전체를 전송하고, 이후 라우팅 정보 변경과 Push 메시지를 전송<br>
+ * -연결이 실패하거나 해제되면 clusterReconnectInterval 후 다시 연결
+ */
+class ClusterPeerLink {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterPeerLink.class);
+
+    private final ClusterNode node;				// 로컬 클러스터 노드
+    private final String peerId;				// 연결할 노드의 ID (host:port)
+    private final Bootstrap bootstrap;			// peer 연결용 bootstrap
+    private final long reconnectInterval;		// 재연결 주기 (밀리초)
+
+    private volatile Channel channel;			// 연결된 채널 (연결되지 않았으면 null)
+    private volatile boolean closed;			// link 종료 여부
+
+    /**
+     * constructor with parameters
+     * @param node 로컬 클러스터 노드
+     * @param peerId 연결할 노드의 ID (host:port)
+     * @param eventLoopRegistry peer 연결 채널이 사용할 공유 EventLoopGroup 관리자
+     * @param maxFrameSize 수신하는 frame의 최대 크기 (byte)
+     * @param reconnectInterval 재연결 주기 (밀리초)
+     */
+    ClusterPeerLink(ClusterNode node, String peerId, EventLoopRegistry eventLoopRegistry, int maxFrameSize, long reconnectInterval) {
+        this.node = node;
+        this.peerId = peerId;
+        this.reconnectInterval = reconnectInterval;
+
+        int separator = peerId.lastIndexOf(':');
+        this.bootstrap = new Bootstrap();
+        eventLoopRegistry.transport().configure(bootstrap)
+                 .group(eventLoopRegistry.workerGroup())
+                 .option(ChannelOption.SO_KEEPALIVE, true)
+                 .option(ChannelOption.TCP_NODELAY, true)
+                 .remoteAddress(peerId.substring(0, separator), Integer.parseInt(peerId.substring(separator + 1)))
+                 .handler(new ChannelInitializer<SocketChannel>() {
+                     @Override
+                     public void initChannel(SocketChannel ch) {
+                         ChannelPipeline pipeline = ch.pipeline();
+                         pipeline.addLast(new DelimiterBasedFrameDecoder(maxFrameSize, PushConstant.DEFAULT_DELIMITER));
+                         pipeline.addLast(new ClusterFrameCodec());
+                         pipeline.addLast(new LinkHandler());
+                     }
+                 });
+    }
+
+    /**
+     * 연결할 노드의 ID를 반환한다.
+     * @return 노드 ID
+     */
+    String peerId() {
+        return peerId;
+    }
+
+    /**
+     * 연결 여부를 반환한다.
+     * @return 연결되어 있으면 true
+     */
+    boolean isConnected() {
+        Channel ch = channel;
+        return ch != null && ch.isActive();
+    }
+
+    /**
+     * 전송이 밀리지 않았는지 여부를 반환한다.
+     * @return 연결되지 않았거나 채널이 writable 상태이면 true
+     */
+    boolean isWritable() {
+        Channel ch = channel;
+        return ch == null || ch.isWritable();
+    }
+
+    /**
+     * peer 노드로 연결한다.<br>
+     * -실패하면 재연결 주기 후 다시 시도
+     */
+    void connect() {
+        if (closed) {
+            return;
+        }
+        bootstrap.connect().addListener((ChannelFuture future) -> {
+            if (!future.isSuccess()) {
+                LOG.debug("[ClusterPeerLink:{}] failed to connect, retry after {}ms", peerId, reconnectInterval);
+                scheduleReconnect(future.channel().eventLoop());
+            }
+        });
+    }
+
+    private void scheduleReconnect(EventLoopGroup group) {
+        if (!closed) {
+            group.schedule(this::connect, reconnectInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 라우팅 정보 변경 메시지를 전송한다.<br>
+     * -연결되지 않은 경우 버리며, 재연결시 라우팅 정보 전체를 다시 전송하므로 누락되지 않음<br>
+     * -호출한 쓰레드가 채널의 EventLoop이더라도 작업 큐를 거쳐 호출 순서대로 전송하므로,
+     * &nbsp;같은 key의 변경 통지 순서와 연결 직후 EventLoop에서 전송하는 라우팅 정보 전체와의 순서가 유지됨
+     * @param frame 라우팅 정보 메시지
+     */
+    void sendRoute(ClusterFrame frame) {
+        Channel ch = channel;
+        if (ch != null) {
+            ch.eventLoop().execute(() -> ch.writeAndFlush(frame, ch.voidPromise()));
+        }
+    }
+
+    /**
+     * 라우팅 정보 전체에 포함되는 메시지를 flush 없이 바로 기록한다.<br>
+     * -연결 직후 채널의 EventLoop에서만 호출됨
+     * @param frame 라우팅 정보 메시지
+     */
+    void writeRoute(ClusterFrame frame) {
+        Channel ch = channel;
+        ch.write(frame, ch.voidPromise());
+    }
+
+    /**
+     * Push 메시지 전달 메시지를 전송한다.
+     * @param frame Push 메시지 전달 메시지
+     * @return 연결되지 않았거나 채널이 writable 상태가 아니어서 전송하지 못하면 false
+     */
+    boolean sendPush(ClusterFrame frame) {
+        Channel ch = channel;
+        if (ch == null || !ch.isWritable()) {
+            return false;
+        }
+        ch.writeAndFlush(frame, ch.voidPromise());
+        return true;
+    }
+
+    /**
+     * link를 종료한다.
+     */
+    void close() {
+        closed = true;
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+    }
+
+    /**
+     * peer link 채널의 이벤트 처리용 핸들러
+     */
+    private class LinkHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            LOG.info("[ClusterPeerLink:{}] connected {}", peerId, ctx.channel());
+
+            // 변경 통지를 받도록 채널을 설정한 후 HELLO와 라우팅 정보 전체를 EventLoop에서 바로 기록 (중복 ROUTE_ADD는 무시됨)
+            // (이후의 변경 통지는 EventLoop 작업 큐를 거치므로 라우팅 정보 전체보다 먼저 전송되지 않고,
+            // 라우팅 정보 전체를 조회한 후 제거된 key의 ROUTE_REMOVE는 ROUTE_ADD 뒤에 전송됨)
+            channel = ctx.channel();
+            ctx.write(ClusterFrame.hello(node.nodeId()));
+            node.sendRoutes(ClusterPeerLink.this);
+            ctx.flush();
+            ctx.fireChannelActive();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            LOG.info("[ClusterPeerLink:{}] disconnected {}", peerId, ctx.channel());
+
+            channel = null;
+            node.linkWritable();
+            scheduleReconnect(ctx.channel().eventLoop());
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+            if (ctx.channel().isWritable()) {
+                node.linkWritable();
+            }
+            ctx.fireChannelWritabilityChanged();
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            if (cause instanceof IOException) {
+                // peer 노드 종료 등으로 연결이 끊긴 경우 재연결하므로 stack trace 생략
+                LOG.warn("[ClusterPeerLink:{}] {} {}, it will be closed", peerId, cause.toString(), ctx.channel());
+                ctx.close();
+                return;
+            }
+            LOG.error("[ClusterPeerLink:" + peerId + "] error " + ctx.channel() + ", it will be closed", cause);
+            ctx.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package chess.push.server.cluster;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import chess.push.server.queue.TopicTrie;
+
+/**
+ * 다른 노드에 등록된 클라이언트ID/그룹ID/topic filter를 노드 ID와 함께 보관하는 라우팅 테이블<br>
+ * -peer link로 수신한 ROUTE_ADD/ROUTE_REMOVE 메시지에 따라 갱신하고, peer 연결이 해제되면 해당 노드의 정보를 모두 제거<br>
+ * -topic filter는 서비스마다 topic trie에도 보관하여 topic에 일치하는 filter를 구독한 노드를 조회
+ */
+class ClusterRouteTable {
+
+    private final Map<String, Set<String>> routes;			// 라우팅 key를 key로 하는 노드 ID collection
+    private final Map<String, TopicTrie<String>> topics;	// 서비스ID를 key로 하는 topic filter trie (구독자는 노드 ID)
+
+    ClusterRouteTable() {
+        this.routes = new ConcurrentHashMap<String, Set<String>>();
+        this.topics = new ConcurrentHashMap<String, TopicTrie<String>>();
+    }
+
+    /**
+     * 노드에 등록된 클라이언트ID/그룹ID를 추가한다.
+     * @param nodeId 노드 ID
+     * @param serviceId 서비스ID
+     * @param type 라우팅 정보 유형
+     * @param key 클라이언트ID, 그룹ID 또는 topic filter
+     */
+    void add(String nodeId, String serviceId, RouteType type, String key) {
+        routes.compute(routeKey(serviceId, type, key), (k, nodes) -> {
+            Set<String> result = nodes != null ? nodes : ConcurrentHashMap.<String>newKeySet();
+            result.add(nodeId);
+            return result;
+        });
+        if (type == RouteType.TOPIC) {
+            topics.computeIfAbsent(serviceId, k -> new TopicTrie<String>()).add(key, nodeId);
+        }
+    }
+
+    /**
+     * 노드에서 해제된 클라이언트ID/그룹ID를 제거한다.
+     * @param nodeId 노드 ID
+     * @param serviceId 서비스ID
+     * @param type 라우팅 정보 유형
+     * @param key 클라이언트ID, 그룹ID 또는 topic filter
+     */
+    void remove(String nodeId, String serviceId, RouteType type, String key) {
+        routes.computeIfPresent(routeKey(serviceId, type, key), (k, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+        TopicTrie<String> trie = type == RouteType.TOPIC ? topics.get(serviceId) : null;
+        if (trie != null) {
+            trie.remove(key, nodeId);
+        }
+    }
+
+    /**
+     * 노드의 라우팅 정보를 모두 제거한다.
+     * @param nodeId 노드 ID
+     */
+    void removeNode(String nodeId) {
+        routes.keySet().forEach(routeKey -> routes.computeIfPresent(routeKey, (k, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        }));
+        topics.keySet().forEach(serviceId -> topics.get(serviceId).removeSubscriber(nodeId));
+    }
+
+    /**
+     * 클라이언트ID/그룹ID가 등록된 노드 ID collection을 반환한다.
+     * @param serviceId 서비스ID
+     * @param type 라우팅 정보 유형
+     * @param key 클라이언트ID 또는 그룹ID
+     * @return 노드 ID collection (없으면 empty set)
+     */
+    Set<String> find(String serviceId, RouteType type, String key) {
+        Set<String> nodes = routes.get(routeKey(serviceId, type, key));
+        return nodes == null ? Collections.<String>emptySet() : nodes;
+    }
+
+    /**
+     * topic에 일치하는 filter를 구독한 노드 ID collection을 반환한다.
+     * @param serviceId 서비스ID
+     * @param topic topic
+     * @return 노드 ID collection (없으면 empty set)
+     */
+    Set<String> findByTopic(String serviceId, String topic) {
+        TopicTrie<String> trie = topics.get(serviceId);
+        return trie == null ? Collections.<String>emptySet() : trie.match(topic);
+    }
+
+    /**
+     * 라우팅 정보 수를 반환한다.
+     * @return 라우팅 정보 수
+     */
+    int size() {
+        return routes.size();
+    }
+
+    private static String routeKey(String serviceId, RouteType type, String key) {
+        // 서비스ID, 클라이언트ID, 그룹ID, topic filter에 올 수 없는 구분자로 연결
+        return serviceId + '\0' + type.name() + '\0' + key;
+    }
+
+}
@@ -0,0 +1,107 @@
+package chess.push.server.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushMessage;
+import chess.push.server.queue.InboundQueue;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.AttributeKey;
+
+/**
+ * 다른 노드의 peer link 연결을 수용한 채널에서 발생하는 이벤트 처리용 핸들러<br>
+ * -HELLO로 연결한 노드의 ID를 채널에 설정하고, 라우팅 정보를 라우팅 테이블에 반영<br>
+ * -전달받은 Push 메시지는 다시 전달하지 않고 로컬 InboundQueue에 추가
+ */
+public class ClusterServerHandler extends SimpleChannelInboundHandler<ClusterFrame> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterServerHandler.class);
+
+    private static final AttributeKey<String> NODE_ID = AttributeKey.newInstance("clusterNodeId");
+
+    private final ClusterNode node;	// 로컬 클러스터 노드
+
+    /**
+     * constructor with a parameter
+     * @param node 로컬 클러스터 노드
+     */
+    public ClusterServerHandler(ClusterNode node) {
+        this.node = node;
+    }
+
+    /**
+     * peer link 메시지를 수신했을 때 동작<br>
+     * -HELLO: 채널에 노드 ID 설정<br>
+     * -ROUTE_ADD, ROUTE_REMOVE: 라우팅 테이블 갱신<br>
+     * -PUSH: 로컬 InboundQueue에 추가하고, high water mark를 넘으면 채널의 읽기를 중지하여 송신 노드에 backpressure 전달
+     * @param ctx ChannelHandlerContext object
+     * @param msg 수신 메시지
+     * @see io.netty.channel.SimpleChannelInboundHandler#channelRead0(io.netty.channel.ChannelHandlerContext, java.lang.Object)
+     */
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ClusterFrame msg) {
+        String nodeId = ctx.channel().attr(NODE_ID).get();
+        switch (msg.getType()) {
+            case HELLO:
+                LOG.info("[ClusterServerHandler] node [{}] connected {}", msg.getNodeId(), ctx.channel());
+                ctx.channel().attr(NODE_ID).set(msg.getNodeId());
+                node.peerConnected(msg.getNodeId(), ctx.channel());
+                break;
+            case ROUTE_ADD:
+                if (nodeId != null) {
+                    node.routeTable().add(nodeId, msg.getServiceId(), msg.getRouteType(), msg.getKey());
+                }
+                break;
+            case ROUTE_REMOVE:
+                if (nodeId != null) {
+                    node.routeTable().remove(nodeId, msg.getServiceId(), msg.getRouteType(), msg.getKey());
+                }
+                break;
+            case PUSH:
+                PushMessage message = msg.getMessage();
+                InboundQueue inboundQueue = message != null && message.getServiceId() != null ? node.inboundQueue(message.getServiceId()) : null;
+                if (inboundQueue != null) {
+                    inboundQueue.enqueueForwarded(message);
+                    if (inboundQueue.isAboveHighWaterMark()) {
+                        inboundQueue.suspend(ctx.channel(), false);
+                    }
+                } else {
+                    LOG.warn("[ClusterServerHandler] invalid service id in message {}", message);
+                }
+                break;
+            default:
+                LOG.warn("[ClusterServerHandler] unknown frame {} from {}", msg, ctx.channel());
+        }
+    }
+
+    /**
+     * peer link 채널이 해제되었을 때 동작<br>
+     * -연결한 노드의 라우팅 정보 제거
+     * @param ctx ChannelHandlerContext object
+     * @see io.netty.channel.ChannelInboundHandlerAdapter#channelInactive(io.netty.channel.ChannelHandlerContext)
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        String nodeId = ctx.channel().attr(NODE_ID).get();
+        LOG.info("[ClusterServerHandler] node [{}] disconnected {}", nodeId, ctx.channel());
+        if (nodeId != null) {
+            node.peerDisconnected(nodeId, ctx.channel());
+        }
+    }
+
+    /**
+     * 채널의 I/O 오퍼레이션 도중 예외가 발생했을 때 동작<br>
+     * -예외 정보 로깅<br>
+     * -채널 연결해제
+     * @param ctx ChannelHandlerContext object
+     * @param cause 발생한 예외
+     * @see io.netty.channel.ChannelInboundHandlerAdapter#exceptionCaught(io.netty.channel.ChannelHandlerContext, java.lang.Throwable)
+     */
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        LOG.error("[ClusterServerHandler] error " + ctx.channel() + ", it will be closed", cause);
+        ctx.close();
+    }
+
+}
@@ -0,0 +1,62 @@
+package chess.push.server.cluster;
+
+/**
+ * 로컬 InboundQueue에 추가되는 메시지를 다른 노드에 전달한 결과 정의
+ */
+public enum ForwardResult {
+
+    /**
+     * 로컬 노드에서 처리해야 하며, 전달 대상 노드에 모두 전달했거나 전달 대상 노드가 없음
+     */
+    LOCAL(true, false),
+    /**
+     * 로컬 노드에서 처리해야 하지만, 연결이 없거나 전송이 밀려 일부 노드에 전달하지 못함
+     */
+    LOCAL_PARTIALLY_DROPPED(true, true),
+    /**
+     * 다른 노드에만 전달하였으므로 로컬 노드에서 처리하지 않음
+     */
+    FORWARDED(false, false),
+    /**
+     * 다른 노드에만 전달해야 하지만, 연결이 없거나 전송이 밀려 전달하지 못함
+     */
+    DROPPED(false, true);
+
+    private final boolean local;	// 로컬 노드에서 처리해야 하는지 여부
+    private final boolean dropped;	// 전달하지 못한 노드가 있는지 여부
+
+    private ForwardResult(boolean local, boolean dropped) {
+        this.local = local;
+        this.dropped = dropped;
+    }
+
+    /**
+     * 로컬 노드에서 처리 여부와 전달 성공 여부에 해당하는 결과를 반환한다.
+     * @param local 로컬 노드에서 처리해야 하면 true
+     * @param sent 전달 대상 노드에 모두 전달했으면 true
+     * @return 전달 결과
+     */
+    static ForwardResult of(boolean local, boolean sent) {
+        if (local) {
+            return sent ? LOCAL : LOCAL_PARTIALLY_DROPPED;
+        }
+        return sent ? FORWARDED : DROPPED;
+    }
+
+    /**
+     * 로컬 노드에서 처리해야 하는지 여부를 반환한다.
+     * @return 로컬 노드에서 처리해야 하면 true
+     */
+    public boolean isLocal() {
+        return local;
+    }
+
+    /**
+     * 전달하지 못한 노드가 있는지 여부를 반환한다.
+     * @return 전달하지 못한 노드가 있으면 true
+     */
+    public boolean isDropped() {
+        return dropped;
+    }
+
+}
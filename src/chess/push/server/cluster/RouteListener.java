@@ -0,0 +1,25 @@
+package chess.push.server.cluster;
+
+/**
+ * 로컬 노드의 라우팅 인덱스 변경을 통지받는 listener<br>
+ * -클라이언트ID/그룹ID/topic filter에 해당하는 첫 채널이 등록되거나 마지막 채널이 해제될 때만 호출
+ */
+public interface RouteListener {
+
+    /**
+     * 로컬 노드에 클라이언트ID/그룹ID/topic filter가 추가되었을 때 호출된다.
+     * @param serviceId 서비스ID
+     * @param type 라우팅 정보 유형
+     * @param key 클라이언트ID, 그룹ID 또는 topic filter
+     */
+    void routeAdded(String serviceId, RouteType type, String key);
+
+    /**
+     * 로컬 노드에서 클라이언트ID/그룹ID/topic filter가 제거되었을 때 호출된다.
+     * @param serviceId 서비스ID
+     * @param type 라우팅 정보 유형
+     * @param key 클라이언트ID, 그룹ID 또는 topic filter
+     */
+    void routeRemoved(String serviceId, RouteType type, String key);
+
+}
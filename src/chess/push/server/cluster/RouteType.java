@@ -0,0 +1,10 @@
+package chess.push.server.cluster;
+
+/**
+ * 클러스터 노드간에 공유하는 라우팅 정보의 유형
+ */
+public enum RouteType {
+    CLIENT,	// 클라이언트ID
+    GROUP,	// 그룹ID
+    TOPIC	// topic filter
+}
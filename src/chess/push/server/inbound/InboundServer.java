@@ -5,97 +5,125 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import chess.push.common.BinaryPushMessageDecoder;
 import chess.push.common.PushConstant;
 import chess.push.common.PushMessageDecoder;
+import chess.push.server.EventLoopRegistry;
+import chess.push.server.property.PushBaseProperty;
 import chess.push.server.queue.InboundQueue;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.string.StringDecoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.util.CharsetUtil;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * Business Application으로부터 Push를 요청받는 Inbound Server<br>
- * -비동기 TCP 통신으로 Push할 메시지 수신
+ * -비동기 TCP 통신으로 Push할 메시지 수신<br>
+ * -inboundServerPort: "\r\0" 구분자로 나눈 JSON 문자열 메시지 수신<br>
+ * -inboundBinaryServerPort: 길이 필드로 나눈 binary frame 메시지 수신 (구분자 탐색과 JSON 파싱 없이 flag byte에 표시된 header만 읽음)<br>
+ * -두 방식 모두 inboundMaxFrameSize를 넘는 메시지는 거부하고 채널 연결해제
  */
 public class InboundServer {
 
     private static final Logger LOG = LoggerFactory.getLogger(InboundServer.class);
 
-    private final int port;		// Inbound Server listen port
-
-    private EventLoopGroup bossGroup;		// EventLoopGroup that accepts an incoming connection
-    private EventLoopGroup workerGroup;	// EventLoopGroup that handles the traffic of the accepted connection
+    private final int port;				// Inbound Server listen port
+    private final int binaryPort;		// binary frame 방식 Inbound Server listen port (0이면 사용하지 않음)
+    private final int maxFrameSize;		// 수신 메시지의 최대 크기 (byte)
+    private final boolean envelope;		// envelope 모드 여부
+    private final int workerThreads;	// 전용 worker EventLoop 쓰레드 수 (0이면 공유 worker EventLoopGroup 사용)
+    private final EventLoopRegistry eventLoopRegistry;	// 공유 EventLoopGroup 관리자
+    private final ChannelGroup channels;	// accept 채널과 송신자 채널 collection (종료시 일괄 close)
 
     /**
-     * constructor with a paramter
-     * @param port Inbound Server listen port
+     * constructor with parameters
+     * @param baseProperty Push 서버 기본 속성
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
      */
-    public InboundServer(int port) {
-        this.port = port;
+    public InboundServer(PushBaseProperty baseProperty, EventLoopRegistry eventLoopRegistry) {
+        this.port = baseProperty.getInboundServerPort();
+        this.binaryPort = baseProperty.getInboundBinaryServerPort();
+        this.maxFrameSize = baseProperty.getInboundMaxFrameSize();
+        this.envelope = baseProperty.isInboundEnvelope();
+        this.workerThreads = baseProperty.getInboundWorkerThreads();
+        this.eventLoopRegistry = eventLoopRegistry;
+        this.channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     }
 
     /**
      * InboundServer 인스턴스를 기동한다.<br>
-     * -TCP 스트림에 대한 메시지 구분자 지정<br>
+     * -TCP 스트림에 대한 메시지 구분자 또는 길이 필드 지정<br>
      * -소켓채널에 대한 이벤트 핸들러 지정<br>
-     * -소켓옵션 지정
+     * -소켓옵션 지정<br>
+     * -transport 설정에 따라 epoll 또는 NIO transport 사용 (epoll transport에서는 SO_REUSEPORT로 여러 accept 채널 bind 가능)<br>
+     * -공유 boss EventLoopGroup과, inboundWorkerThreads 설정에 따라 공유 또는 전용 worker EventLoopGroup 사용
      * @param inboundQueues Inbound Queue collection
      */
     public void startup(Map<String, InboundQueue> inboundQueues) {
         LOG.info("[InboundServer] starting...");
 
-        bossGroup = new NioEventLoopGroup();
-        workerGroup = new NioEventLoopGroup();
         try {
-            ServerBootstrap bootstrap = new ServerBootstrap();
-            bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
-                     .handler(new LoggingHandler(LogLevel.INFO))
-                     .childHandler(new ChannelInitializer<SocketChannel>() {
-                         @Override
-                         public void initChannel(SocketChannel ch) {
-                             ChannelPipeline pipeline = ch.pipeline();
-                             pipeline.addLast(new DelimiterBasedFrameDecoder(Integer.MAX_VALUE, PushConstant.DEFAULT_DELIMITER));
-                             pipeline.addLast(new StringDecoder(CharsetUtil.UTF_8));
-                             pipeline.addLast(new PushMessageDecoder());
-                             pipeline.addLast(new InboundServerHandler(inboundQueues));
-                         }
-                     })
-                     .option(ChannelOption.SO_REUSEADDR, true)
-                     .childOption(ChannelOption.SO_KEEPALIVE, true)
-                     .childOption(ChannelOption.TCP_NODELAY, true);
-
-            bootstrap.bind(port).sync();
+            eventLoopRegistry.transport().bind(bootstrap(new ChannelInitializer<SocketChannel>() {
+                @Override
+                public void initChannel(SocketChannel ch) {
+                    channels.add(ch);
+                    ChannelPipeline pipeline = ch.pipeline();
+                    pipeline.addLast(new DelimiterBasedFrameDecoder(maxFrameSize, PushConstant.DEFAULT_DELIMITER));
+                    pipeline.addLast(new PushMessageDecoder(envelope));
+                    pipeline.addLast(new InboundServerHandler(inboundQueues));
+                }
+            }), port, channels);
 
             LOG.info("[InboundServer] started, listening on port " + port);
 
+            if (binaryPort > 0) {
+                eventLoopRegistry.transport().bind(bootstrap(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    public void initChannel(SocketChannel ch) {
+                        channels.add(ch);
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(maxFrameSize, 0, 4, 0, 4));
+                        pipeline.addLast(new BinaryPushMessageDecoder(envelope));
+                        pipeline.addLast(new InboundServerHandler(inboundQueues));
+                    }
+                }), binaryPort, channels);
+
+                LOG.info("[InboundServer] started, listening on binary port " + binaryPort);
+            }
+
         } catch (InterruptedException e) {
             LOG.error("[InboundServer] failed to startup", e);
             shutdown();
         }
     }
 
+    private ServerBootstrap bootstrap(ChannelInitializer<SocketChannel> childHandler) {
+        ServerBootstrap bootstrap = new ServerBootstrap();
+        eventLoopRegistry.transport().configure(bootstrap)
+                 .group(eventLoopRegistry.bossGroup(), eventLoopRegistry.workerGroup("inbound", workerThreads))
+                 .handler(new LoggingHandler(LogLevel.INFO))
+                 .childHandler(childHandler)
+                 .option(ChannelOption.SO_REUSEADDR, true)
+                 .childOption(ChannelOption.SO_KEEPALIVE, true)
+                 .childOption(ChannelOption.TCP_NODELAY, true);
+        return bootstrap;
+    }
+
     /**
      * InboundServer 인스턴스를 중지한다.<br>
-     * -shutdown worker EventLoopGroup<br>
-     * -shutdown boss EventLoopGroup
+     * -close accept 채널과 송신자 채널<br>
+     * -공유 EventLoopGroup은 {@link EventLoopRegistry}에서 종료
      */
     public void shutdown() {
-        if (workerGroup != null) {
-            workerGroup.shutdownGracefully();
-        }
-        if (bossGroup != null) {
-            bossGroup.shutdownGracefully();
-        }
+        channels.close();
 
         LOG.info("[InboundServer] shutdown");
     }
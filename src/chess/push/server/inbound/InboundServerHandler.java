@@ -41,7 +41,8 @@ public class InboundServerHandler extends SimpleChannelInboundHandler<PushMessag
 
     /**
      * 클라이언트로부터 메시지 수신했을 때 동작<br>
-     * -Service ID에 해당하는 InboundQueue에 추가
+     * -Service ID에 해당하는 InboundQueue에 추가<br>
+     * -InboundQueue가 high water mark를 넘거나 클러스터 peer link의 전송이 밀리면 채널의 읽기를 중지하여 송신자에게 TCP 흐름 제어로 backpressure 전달
      * @param ctx ChannelHandlerContext object
      * @param msg 수신된 메시지
      * @see io.netty.channel.SimpleChannelInboundHandler#channelRead0(io.netty.channel.ChannelHandlerContext, java.lang.Object)
@@ -52,8 +53,12 @@ public class InboundServerHandler extends SimpleChannelInboundHandler<PushMessag
 
         // Service ID에 해당하는 Inbound Queue에 메시지 추가
         String serviceId = msg.getServiceId();
-        if (serviceId != null && inboundQueues.containsKey(serviceId)) {
-            inboundQueues.get(serviceId).enqueue(msg);
+        InboundQueue inboundQueue = serviceId != null ? inboundQueues.get(serviceId) : null;
+        if (inboundQueue != null) {
+            inboundQueue.enqueue(msg);
+            if (inboundQueue.isAboveHighWaterMark() || inboundQueue.isForwardBlocked()) {
+                inboundQueue.suspend(ctx.channel(), true);
+            }
         } else {
             LOG.warn("[InboundServerHandler] invalid service id in message {}", msg);
         }
@@ -0,0 +1,298 @@
+package chess.push.server.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushMessage;
+import chess.push.common.PushMessageJson;
+import chess.push.server.property.PushServiceProperty;
+
+/**
+ * 서비스ID 단위로 InboundQueue에 추가되는 메시지를 기록하는 append-only write-ahead journal<br>
+ * -메모리 매핑된 고정 크기 segment 파일에 순서대로 기록하고, 가득 차면 다음 segment 파일 생성<br>
+ * -메시지마다 fsync하지 않고 별도 쓰레드가 journalCommitInterval 주기로 기록된 내용을 저장장치에 반영 (group commit)<br>
+ * &nbsp;(프로세스가 비정상 종료되어도 매핑된 내용은 OS에 남으므로, 주기는 OS 장애시 유실 가능한 범위만 결정)<br>
+ * -직렬화와 CRC 계산은 lock 없이 호출 쓰레드에서 처리하고, segment의 기록 위치를 CAS로 예약하여 여러 I/O 쓰레드가 동시에 기록<br>
+ * &nbsp;(동시에 기록된 메시지의 journal 내 순서는 추가 순서와 다를 수 있으나, 같은 송신자 채널의 메시지 순서는 유지)<br>
+ * -다음 segment 파일은 저장장치 반영 쓰레드가 미리 생성하므로, segment 교체시 I/O 쓰레드는 파일 생성과 매핑을 기다리지 않음<br>
+ * -기동시 이전에 기록된 segment의 메시지 중 전달 완료가 표시되지 않은 메시지만 다시 InboundQueue에 추가(replay)하고,
+ * &nbsp;모든 메시지가 전달된 segment는 삭제
+ */
+public class Journal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Journal.class);
+
+    private static final String SUFFIX = ".journal";
+
+    private final String serviceId;				// Push Service ID
+    private final File directory;				// segment 파일 디렉토리
+    private final int segmentSize;				// segment 파일 크기 (byte)
+    private final long commitInterval;			// 저장장치에 반영하는 주기 (밀리초)
+    private final Pattern segmentName;			// 서비스의 segment 파일 이름 패턴
+    private final List<File> recoveredFiles;	// 기동시 발견된 이전 segment 파일 collection (순서대로)
+    private final Thread committer;				// 주기적으로 저장장치에 반영하고 다음 segment를 미리 생성하는 쓰레드
+    private final Object rollLock;				// segment 생성과 교체 lock
+    private final Queue<JournalSegment> segments;	// 삭제되지 않은 segment collection (저장장치 반영 대상)
+
+    private volatile JournalSegment active;		// 현재 기록중인 segment
+    private JournalSegment next;				// 미리 생성한 다음 segment (rollLock 안에서만 접근)
+    private long nextSequence;					// 다음에 생성할 segment 일련번호 (rollLock 안에서만 접근)
+    private volatile boolean closed;			// journal 종료 여부
+
+    /**
+     * constructor with a parameter
+     * @param property Push Service property
+     */
+    public Journal(PushServiceProperty property) {
+        this.serviceId = property.getServiceId();
+        this.directory = new File(property.getJournalDirectory());
+        this.segmentSize = property.getJournalSegmentSize();
+        this.commitInterval = property.getJournalCommitInterval();
+        this.segmentName = Pattern.compile(Pattern.quote(serviceId) + "-\\d{19}" + Pattern.quote(SUFFIX));
+        this.rollLock = new Object();
+        this.segments = new ConcurrentLinkedQueue<JournalSegment>();
+        this.committer = new Thread(this::commit, "JournalCommitThread:" + serviceId);
+        this.committer.setDaemon(true);
+
+        directory.mkdirs();
+        File[] files = directory.listFiles((dir, name) -> segmentName.matcher(name).matches());
+        this.recoveredFiles = new ArrayList<File>();
+        if (files != null) {
+            // 일련번호가 고정 길이이므로 이름순이 기록순
+            Arrays.sort(files);
+            recoveredFiles.addAll(Arrays.asList(files));
+        }
+        this.nextSequence = recoveredFiles.isEmpty() ? 0 : sequenceOf(recoveredFiles.get(recoveredFiles.size() - 1)) + 1;
+    }
+
+    private long sequenceOf(File file) {
+        String name = file.getName();
+        return Long.parseLong(name.substring(serviceId.length() + 1, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * 저장장치 반영 쓰레드를 기동한다.
+     */
+    public void start() {
+        committer.start();
+        LOG.info("[Journal:{}] started [directory: {}, recovered segments: {}]", serviceId, directory, recoveredFiles.size());
+    }
+
+    /**
+     * 이전에 기록된 segment의 메시지 중 전달 완료가 표시되지 않은 메시지를 기록 순서대로 전달한다.<br>
+     * -consumer는 메시지를 큐에 추가한 수만큼 레코드의 {@link JournalRecord#retain(int)}을 호출하고, 전달 후 release해야 함
+     * &nbsp;(consumer가 retain하지 않은 레코드는 전달 완료로 표시)<br>
+     * -손상된 레코드를 만나면 해당 segment의 나머지 레코드는 무시
+     * @param consumer Push 메시지와 메시지 레코드를 전달받는 함수
+     * @return replay한 메시지 수
+     */
+    public int replay(BiConsumer<PushMessage, JournalRecord> consumer) {
+        int replayed = 0;
+        int skipped = 0;
+        CRC32 replayCrc = new CRC32();
+        for (File file : recoveredFiles) {
+            JournalSegment segment = null;
+            try {
+                segment = JournalSegment.open(file);
+            } catch (IOException e) {
+                LOG.error("[Journal:{}] failed to open {}", serviceId, file, e);
+                continue;
+            }
+
+            // replay 도중 전달 완료로 삭제되지 않도록 보호
+            segments.add(segment);
+            segment.retain(1);
+            try {
+                int offset = 0;
+                byte[] bytes = null;
+                while ((bytes = segment.read(offset, replayCrc)) != null) {
+                    int recordOffset = offset;
+                    offset += JournalSegment.HEADER_SIZE + bytes.length;
+                    if (segment.isDelivered(recordOffset)) {
+                        skipped++;
+                        continue;
+                    }
+
+                    PushMessage message = PushMessageJson.read(bytes);
+                    // consumer가 retain한 후에 전달 완료로 표시되도록 호출 동안 보호
+                    segment.retain(1);
+                    JournalRecord record = new JournalRecord(segment, recordOffset, 1);
+                    consumer.accept(message, record);
+                    record.release();
+                    replayed++;
+                }
+            } catch (IOException e) {
+                LOG.error("[Journal:{}] failed to replay {}", serviceId, file, e);
+            } finally {
+                segment.release();
+            }
+        }
+        recoveredFiles.clear();
+
+        LOG.info("[Journal:{}] replayed {} messages (skipped {} delivered messages)", serviceId, replayed, skipped);
+        return replayed;
+    }
+
+    /**
+     * 메시지를 현재 segment에 기록한다.<br>
+     * -직렬화와 CRC 계산 후 현재 segment의 기록 위치를 CAS로 예약하고, 공간이 부족하면 미리 생성된 다음 segment로 교체
+     * @param message Push 메시지
+     * @param count 메시지가 전달될 InboundQueueWorker 수 (각 worker는 전달 후 레코드를 release해야 함)
+     * @return 기록된 메시지 레코드
+     * @throws IOException 직렬화 또는 segment 생성 실패
+     */
+    public JournalRecord append(PushMessage message, int count) throws IOException {
+        if (closed) {
+            throw new IOException("The journal is closed");
+        }
+
+        byte[] bytes = PushMessageJson.writeBytes(message);
+        int recordSize = JournalSegment.HEADER_SIZE + bytes.length;
+        if (recordSize > segmentSize) {
+            throw new IOException("The message is larger than journal segment [" + recordSize + "]");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        while (true) {
+            JournalSegment segment = active;
+            if (segment != null) {
+                // 예약 전에 retain하여 기록 도중 segment가 삭제되지 않도록 하고, 이미 교체된 segment이면 다시 시도
+                segment.retain(1);
+                int offset = segment.isSealed() ? -1 : segment.reserve(recordSize);
+                if (offset >= 0) {
+                    segment.write(offset, bytes, (int) crc.getValue());
+                    return new JournalRecord(segment, offset, count);
+                }
+                segment.release();
+            }
+            roll(segment);
+        }
+    }
+
+    /**
+     * 공간이 부족한 segment를 다음 segment로 교체한다.<br>
+     * -다른 쓰레드가 이미 교체한 경우 아무것도 하지 않음
+     * @param full 공간이 부족한 segment (아직 생성된 segment가 없으면 null)
+     * @throws IOException journal 종료 또는 segment 생성 실패
+     */
+    private void roll(JournalSegment full) throws IOException {
+        synchronized (rollLock) {
+            if (closed) {
+                throw new IOException("The journal is closed");
+            }
+            if (active != full) {
+                return;
+            }
+            // 미리 생성된 segment가 없는 경우에만 호출 쓰레드에서 생성
+            active = next != null ? next : create();
+            next = null;
+        }
+        if (full != null) {
+            full.seal();
+        }
+    }
+
+    /**
+     * 다음 일련번호의 segment를 생성한다.<br>
+     * -파일 이름 순서가 기록 순서와 일치하도록 rollLock 안에서만 호출
+     * @return 생성한 segment
+     * @throws IOException segment 생성 실패
+     */
+    private JournalSegment create() throws IOException {
+        File file = new File(directory, serviceId + "-" + String.format("%019d", nextSequence++) + SUFFIX);
+        JournalSegment segment = JournalSegment.create(file, segmentSize);
+        segments.add(segment);
+        LOG.info("[Journal:{}] created {}", serviceId, file);
+        return segment;
+    }
+
+    /**
+     * 주기적으로 다음 segment를 미리 생성하고, 삭제되지 않은 segment에 기록된 내용을 저장장치에 반영한다.
+     */
+    private void commit() {
+        while (!closed) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(commitInterval);
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            preRoll();
+            force();
+        }
+    }
+
+    /**
+     * 기록이 시작된 후 다음 segment가 준비되어 있지 않으면 미리 생성한다.
+     */
+    private void preRoll() {
+        synchronized (rollLock) {
+            if (closed || active == null || next != null) {
+                return;
+            }
+            try {
+                next = create();
+            } catch (IOException e) {
+                LOG.error("[Journal:{}] failed to create next segment", serviceId, e);
+            }
+        }
+    }
+
+    /**
+     * 삭제되지 않은 모든 segment의 기록 내용과 전달 완료 표시를 저장장치에 반영하고, 삭제된 segment는 collection에서 제거한다.
+     */
+    private void force() {
+        Iterator<JournalSegment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            JournalSegment segment = iterator.next();
+            if (segment.isDeleted()) {
+                iterator.remove();
+            } else {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * journal을 종료한다.<br>
+     * -현재 segment를 닫고 모든 segment를 저장장치에 반영하며, 전달되지 않은 메시지가 남은 segment는 다음 기동시 replay<br>
+     * -미리 생성한 후 사용하지 않은 segment는 삭제
+     */
+    public void close() {
+        JournalSegment last = null;
+        synchronized (rollLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = active;
+            active = null;
+            if (next != null) {
+                next.delete();
+                next = null;
+            }
+        }
+        committer.interrupt();
+        if (last != null) {
+            last.seal();
+        }
+        force();
+
+        LOG.info("[Journal:{}] closed", serviceId);
+    }
+
+}
@@ -0,0 +1,54 @@
+package chess.push.server.journal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * journal segment에 기록된 하나의 메시지 레코드<br>
+ * -메시지가 전달될 InboundQueueWorker 수만큼 pending을 유지하고, 모든 worker가 전달(또는 폐기)하면
+ * &nbsp;레코드에 전달 완료를 표시한 후 segment에 반영<br>
+ * -전달 완료가 표시된 레코드는 다음 기동시 replay하지 않음
+ */
+public class JournalRecord {
+
+    private final JournalSegment segment;	// 레코드가 기록된 segment
+    private final int offset;				// segment 내 레코드 위치
+    private final AtomicInteger pending;	// 아직 전달되지 않은 worker 수
+
+    /**
+     * constructor with parameters<br>
+     * -segment는 레코드가 전달 완료될 때까지 삭제되지 않도록 호출자가 미리 retain해야 함
+     * @param segment 레코드가 기록된 segment
+     * @param offset segment 내 레코드 위치
+     * @param count 메시지가 전달될 InboundQueueWorker 수
+     */
+    JournalRecord(JournalSegment segment, int offset, int count) {
+        this.segment = segment;
+        this.offset = offset;
+        this.pending = new AtomicInteger(count);
+    }
+
+    /**
+     * 메시지가 전달될 worker 수를 증가시킨다.
+     * @param count 증가시킬 수
+     */
+    public void retain(int count) {
+        pending.addAndGet(count);
+    }
+
+    /**
+     * worker가 메시지를 전달(또는 폐기)했음을 반영하고, 모든 worker가 전달했으면 레코드에 전달 완료를 표시한다.
+     */
+    public void release() {
+        if (pending.decrementAndGet() == 0) {
+            // segment가 삭제되기 전에 표시하도록 segment release보다 먼저 처리
+            segment.delivered(offset);
+            segment.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return segment + "@" + offset;
+    }
+
+}
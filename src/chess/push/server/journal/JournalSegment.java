@@ -0,0 +1,235 @@
+package chess.push.server.journal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * 메모리 매핑된 journal segment 파일<br>
+ * -레코드는 [길이(int) + CRC32(int) + 전달 완료 표시(int) + JSON] 형태로 순서대로 기록되며, 길이가 0인 위치가 기록의 끝<br>
+ * -여러 쓰레드가 기록 위치를 CAS로 예약한 후 동시에 기록하므로, 기록 도중 종료된 레코드 이후의 레코드는 replay되지 않을 수 있음<br>
+ * -segment에 기록된 레코드 중 아직 OutboundQueue로 전달되지 않은 수(pending)를 유지하고,
+ * &nbsp;더 이상 기록하지 않는(sealed) segment의 pending이 0이 되면 파일을 삭제하고 메모리 매핑 해제<br>
+ * -전달 완료된 레코드는 표시를 남겨 segment가 삭제되기 전에 재기동되어도 replay하지 않음
+ * &nbsp;(표시도 journalCommitInterval 주기로 저장장치에 반영되므로, OS 장애시 마지막 주기 동안 전달된 메시지는 다시 전달될 수 있음)
+ */
+public class JournalSegment {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalSegment.class);
+
+    /**
+     * 레코드 헤더 크기 (길이 + CRC32 + 전달 완료 표시)
+     */
+    static final int HEADER_SIZE = 12;
+
+    private final File file;					// segment file
+    private final MappedByteBuffer buffer;		// 메모리 매핑된 파일 내용
+    private final AtomicInteger pending;		// 기록된 후 아직 전달되지 않은 레코드 수
+    private final AtomicBoolean deleted;		// 파일 삭제 여부
+    private final AtomicInteger position;		// 다음 레코드를 기록할 위치
+    private volatile boolean sealed;			// 더 이상 기록하지 않는 segment인지 여부
+    private volatile boolean dirty;				// 마지막 force 이후 기록된 레코드가 있는지 여부
+
+    private JournalSegment(File file, MappedByteBuffer buffer, boolean sealed) {
+        this.file = file;
+        this.buffer = buffer;
+        this.pending = new AtomicInteger();
+        this.deleted = new AtomicBoolean();
+        this.position = new AtomicInteger();
+        this.sealed = sealed;
+    }
+
+    /**
+     * 새 segment 파일을 지정된 크기로 생성하고 메모리 매핑한다.
+     * @param file segment file
+     * @param size segment 크기 (byte)
+     * @return 기록 가능한 segment
+     * @throws IOException 파일 생성 실패
+     */
+    static JournalSegment create(File file, int size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            return new JournalSegment(file, raf.getChannel().map(MapMode.READ_WRITE, 0, size), false);
+        }
+    }
+
+    /**
+     * 이전에 기록된 segment 파일을 메모리 매핑한다.<br>
+     * -replay한 레코드의 전달 완료를 표시할 수 있도록 읽기/쓰기로 매핑
+     * @param file segment file
+     * @return 기록이 끝난(sealed) segment
+     * @throws IOException 파일 조회 실패
+     */
+    static JournalSegment open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            return new JournalSegment(file, raf.getChannel().map(MapMode.READ_WRITE, 0, raf.length()), true);
+        }
+    }
+
+    /**
+     * 레코드를 기록할 공간을 CAS로 예약한다.<br>
+     * -호출자는 예약 전에 {@link #retain(int)}하여 기록 도중 segment가 삭제되지 않도록 해야 함
+     * @param size 레코드 크기 (헤더 포함)
+     * @return 예약한 레코드 위치 (공간이 부족하면 -1)
+     */
+    int reserve(int size) {
+        int offset = 0;
+        do {
+            offset = position.get();
+            if (offset + size > buffer.capacity()) {
+                return -1;
+            }
+        } while (!position.compareAndSet(offset, offset + size));
+        return offset;
+    }
+
+    /**
+     * 예약한 위치에 레코드를 기록한다.
+     * @param offset 예약한 레코드 위치
+     * @param bytes 직렬화된 메시지
+     * @param crc 메시지의 CRC32 값
+     */
+    void write(int offset, byte[] bytes, int crc) {
+        buffer.putInt(offset + 4, crc);
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + HEADER_SIZE);
+        target.put(bytes);
+        // 길이를 마지막에 기록하여 기록 도중 종료된 레코드는 길이가 0으로 남도록 함
+        buffer.putInt(offset, bytes.length);
+        dirty = true;
+    }
+
+    /**
+     * 지정 위치의 레코드에 전달 완료를 표시한다.
+     * @param offset 레코드 위치
+     */
+    void delivered(int offset) {
+        buffer.putInt(offset + 8, 1);
+        dirty = true;
+    }
+
+    /**
+     * 지정 위치의 레코드에 전달 완료가 표시되어 있는지 여부를 반환한다.
+     * @param offset 레코드 위치
+     * @return 전달 완료된 레코드이면 true
+     */
+    boolean isDelivered(int offset) {
+        return buffer.getInt(offset + 8) != 0;
+    }
+
+    /**
+     * 지정 위치의 레코드를 읽어 반환한다.
+     * @param offset 레코드 위치
+     * @param crc CRC32 계산에 사용할 인스턴스
+     * @return 직렬화된 메시지 (기록의 끝이거나 손상된 레코드이면 null)
+     */
+    byte[] read(int offset, CRC32 crc) {
+        if (offset + HEADER_SIZE > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + HEADER_SIZE);
+        source.get(bytes);
+        crc.reset();
+        crc.update(bytes, 0, length);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            LOG.warn("[JournalSegment] corrupted record at {} in {}", offset, file);
+            return null;
+        }
+        return bytes;
+    }
+
+    /**
+     * 마지막 force 이후 기록된 레코드나 전달 완료 표시가 있으면 저장장치에 반영한다.<br>
+     * -삭제되어 매핑이 해제된 segment에 접근하지 않도록 삭제와 동기화
+     */
+    synchronized void force() {
+        if (dirty && !deleted.get()) {
+            dirty = false;
+            buffer.force();
+        }
+    }
+
+    /**
+     * 더 이상 기록하지 않도록 segment를 닫고, 전달되지 않은 레코드가 없으면 파일을 삭제한다.<br>
+     * -이미 예약된 레코드의 기록과 이후의 전달 완료 표시는 Journal의 저장장치 반영 쓰레드가 반영
+     */
+    void seal() {
+        sealed = true;
+        if (pending.get() == 0) {
+            delete();
+        }
+    }
+
+    /**
+     * 더 이상 기록하지 않는 segment인지 여부를 반환한다.
+     * @return sealed segment이면 true
+     */
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * 파일이 삭제되었는지 여부를 반환한다.
+     * @return 삭제되었으면 true
+     */
+    boolean isDeleted() {
+        return deleted.get();
+    }
+
+    /**
+     * 전달되지 않은 레코드 수를 증가시킨다.
+     * @param count 증가시킬 수
+     */
+    void retain(int count) {
+        pending.addAndGet(count);
+    }
+
+    /**
+     * 레코드가 전달(또는 폐기)되었음을 반영하고, 기록이 끝난 segment의 모든 레코드가 전달되었으면 파일을 삭제한다.
+     */
+    void release() {
+        if (pending.decrementAndGet() == 0 && sealed) {
+            delete();
+        }
+    }
+
+    /**
+     * 파일을 삭제하고 메모리 매핑을 해제한다.<br>
+     * -GC 시점까지 매핑이 남지 않도록 즉시 해제하며, 이후에는 buffer에 접근하지 않아야 함
+     */
+    synchronized void delete() {
+        if (!deleted.compareAndSet(false, true)) {
+            return;
+        }
+        PlatformDependent.freeDirectBuffer(buffer);
+        if (file.delete()) {
+            LOG.info("[JournalSegment] deleted {}", file);
+        } else {
+            LOG.warn("[JournalSegment] failed to delete {}", file);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+
+}
@@ -3,16 +3,24 @@ package chess.push.server.outbound;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import chess.push.common.PushConstant;
+import chess.push.common.PushMessageCodec;
+import chess.push.server.EventLoopRegistry;
+import chess.push.server.Transport;
 import chess.push.server.property.PushServiceProperty;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.util.concurrent.GlobalEventExecutor;
 
 /**
  * 클라이언트 연결을 수용하는 Outbound Server의 abstract type<br>
@@ -22,40 +30,58 @@ public abstract class OutboundServer {
 
     private static final Logger LOG = LoggerFactory.getLogger(OutboundServer.class);
 
-    private final PushServiceProperty property;	// Push Service property
+    protected static final String FRAME_DECODER = "frameDecoder";	// stream frame 디코더 핸들러 이름
+    protected static final String FRAME_ENCODER = "frameEncoder";	// WebSocketFrame 인코더 핸들러 이름
+    protected static final String DECODER = "messageDecoder";		// PushMessage 디코더 핸들러 이름
+    protected static final String ENCODER = "messageEncoder";		// PushMessage 인코더 핸들러 이름
 
-    private EventLoopGroup bossGroup;		// EventLoopGroup that accepts an incoming connection
-    private EventLoopGroup workerGroup;	// EventLoopGroup that handles the traffic of the accepted connection
+    private final PushServiceProperty property;	// Push Service property
+    private final EventLoopRegistry eventLoopRegistry;	// 공유 EventLoopGroup 관리자
+    private final ChannelGroup channels;		// accept 채널과 클라이언트 채널 collection (종료시 일괄 close)
 
     /**
-     * constructor with a parameter
+     * constructor with parameters
      * @param property Push Service property
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
      */
-    public OutboundServer(PushServiceProperty property) {
+    public OutboundServer(PushServiceProperty property, EventLoopRegistry eventLoopRegistry) {
         this.property = property;
+        this.eventLoopRegistry = eventLoopRegistry;
+        this.channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     }
 
     /**
      * OutboundServer 인스턴스를 기동한다.<br>
      * -소켓채널에 대한 이벤트 핸들러 지정<br>
-     * -소켓옵션 지정
+     * -transport 설정에 따라 epoll 또는 NIO transport 사용 (epoll transport에서는 SO_REUSEPORT로 여러 accept 채널 bind 가능)<br>
+     * -공유 boss EventLoopGroup과, outboundWorkerThreads 설정에 따라 공유 또는 전용 worker EventLoopGroup 사용<br>
+     * -소켓옵션 지정 (클라이언트 채널의 writable 상태를 결정하는 write buffer water mark 포함)
      */
     public void startup() {
         LOG.info("[OutboundServer:{}] starting...", property.getServiceId());
 
-        bossGroup = new NioEventLoopGroup();
-        workerGroup = new NioEventLoopGroup();
+        Transport transport = eventLoopRegistry.transport();
+        ChannelInitializer<SocketChannel> channelInitializer = getChannelInitializer();
         try {
             ServerBootstrap bootstrap = new ServerBootstrap();
-            bootstrap.group(bossGroup, workerGroup)
-                     .channel(NioServerSocketChannel.class)
+            transport.configure(bootstrap)
+                     .group(eventLoopRegistry.bossGroup(),
+                            eventLoopRegistry.workerGroup("outbound:" + property.getServiceId(), property.getOutboundWorkerThreads()))
                      .handler(new LoggingHandler(LogLevel.INFO))
-                     .childHandler(getChannelInitializer())
+                     .childHandler(new ChannelInitializer<SocketChannel>() {
+                         @Override
+                         public void initChannel(SocketChannel socketChannel) {
+                             channels.add(socketChannel);
+                             socketChannel.pipeline().addLast(channelInitializer);
+                         }
+                     })
                      .option(ChannelOption.SO_REUSEADDR, true)
                      .childOption(ChannelOption.SO_KEEPALIVE, true)
-                     .childOption(ChannelOption.TCP_NODELAY, true);
+                     .childOption(ChannelOption.TCP_NODELAY, true)
+                     .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+                             new WriteBufferWaterMark(property.getOutboundWriteBufferLowWaterMark(), property.getOutboundWriteBufferHighWaterMark()));
 
-            bootstrap.bind(property.getOutboundServerPort()).sync();
+            transport.bind(bootstrap, property.getOutboundServerPort(), channels);
 
             LOG.info("[OutboundServer:{}] started, listening on port {}", property.getServiceId(), property.getOutboundServerPort());
 
@@ -67,24 +93,53 @@ public abstract class OutboundServer {
 
     /**
      * OutboundServer 인스턴스를 중지한다.<br>
-     * -shutdown worker EventLoopGroup<br>
-     * -shutdown boss EventLoopGroup
+     * -close accept 채널과 클라이언트 채널<br>
+     * -공유 EventLoopGroup은 {@link EventLoopRegistry}에서 종료
      */
     public void shutdown() {
-        if (workerGroup != null) {
-            workerGroup.shutdownGracefully();
-        }
-        if (bossGroup != null) {
-            bossGroup.shutdownGracefully();
-        }
+        channels.close();
 
         LOG.info("[OutboundServer:{}] shutdown", property.getServiceId());
     }
 
+    /**
+     * 채널에서 사용할 codec을 설정한다.<br>
+     * -codec에 해당하는 핸들러를 pipeline에 추가하거나, 이미 있으면 교체<br>
+     * -교체되는 frame 디코더에 남아 있는 수신 데이터는 새 frame 디코더로 전달됨<br>
+     * -채널의 EventLoop에서 호출해야 함
+     * @param channel 클라이언트 채널
+     * @param codec 사용할 codec
+     */
+    public void applyCodec(Channel channel, PushMessageCodec codec) {
+        channel.attr(PushConstant.CODEC).set(codec.name());
+        configureCodec(channel.pipeline(), codec);
+    }
+
+    /**
+     * pipeline에 이름에 해당하는 핸들러가 있으면 교체하고, 없으면 마지막에 추가한다.
+     * @param pipeline 채널 pipeline
+     * @param name 핸들러 이름
+     * @param handler 핸들러
+     */
+    protected static void setHandler(ChannelPipeline pipeline, String name, ChannelHandler handler) {
+        if (pipeline.get(name) != null) {
+            pipeline.replace(name, name, handler);
+        } else {
+            pipeline.addLast(name, handler);
+        }
+    }
+
     /**
      * 채널에 이벤트 핸들러를 설정하는 ChannelInitializer 인스턴스를 생성한다.
      * @return ChannelInitializer 인스턴스
      */
     protected abstract ChannelInitializer<SocketChannel> getChannelInitializer();
 
+    /**
+     * Outbound Server 유형에 맞게 codec에 해당하는 핸들러를 pipeline에 설정한다.
+     * @param pipeline 채널 pipeline
+     * @param codec 사용할 codec
+     */
+    protected abstract void configureCodec(ChannelPipeline pipeline, PushMessageCodec codec);
+
 }
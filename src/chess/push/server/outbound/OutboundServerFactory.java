@@ -1,5 +1,6 @@
 package chess.push.server.outbound;
 
+import chess.push.server.EventLoopRegistry;
 import chess.push.server.property.PushServiceProperty;
 import chess.push.server.property.ServerType;
 import chess.push.server.queue.OutboundQueueManager;
@@ -13,9 +14,10 @@ public class OutboundServerFactory {
      * Push 서비스 속성에 따른 Outbound Server 인스턴스를 생성한다.
      * @param property Push 서비스 속성 정보
      * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
      * @return Outbound Server 인스턴스
      */
-    public static OutboundServer getInstance(PushServiceProperty property, OutboundQueueManager outboundQueueManager) {
+    public static OutboundServer getInstance(PushServiceProperty property, OutboundQueueManager outboundQueueManager, EventLoopRegistry eventLoopRegistry) {
         if (property == null) {
             throw new IllegalArgumentException("The PushServiceProperty argument is null");
         }
@@ -27,9 +29,9 @@ public class OutboundServerFactory {
 
         switch (type) {
             case TCPSOCKET:
-                return new OutboundTcpSocketServer(property, outboundQueueManager);
+                return new OutboundTcpSocketServer(property, outboundQueueManager, eventLoopRegistry);
             case WEBSOCKET:
-                return new OutboundWebSocketServer(property, outboundQueueManager);
+                return new OutboundWebSocketServer(property, outboundQueueManager, eventLoopRegistry);
             default:
                 throw new IllegalArgumentException("Unknown server type [" + type + "]");
         }
@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 
 import chess.push.common.PushConstant;
 import chess.push.common.PushMessage;
+import chess.push.common.PushMessageCodec;
+import chess.push.common.PushMessageCodecs;
 import chess.push.server.property.PushServiceProperty;
 import chess.push.server.queue.OutboundQueueManager;
 import io.netty.channel.ChannelHandlerContext;
@@ -19,15 +21,18 @@ public class OutboundServerHandler extends SimpleChannelInboundHandler<PushMessa
 
     private final PushServiceProperty property;					// Push Service property
     private final OutboundQueueManager outboundQueueManager;	// OutboundQueue 인스턴스 관리자
+    private final OutboundServer outboundServer;				// 채널을 수용한 Outbound Server (codec 전환용)
 
     /**
      * constructor with parameters
      * @param property Push Service property
      * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     * @param outboundServer 채널을 수용한 Outbound Server
      */
-    public OutboundServerHandler(PushServiceProperty property, OutboundQueueManager outboundQueueManager) {
+    public OutboundServerHandler(PushServiceProperty property, OutboundQueueManager outboundQueueManager, OutboundServer outboundServer) {
         this.property = property;
         this.outboundQueueManager = outboundQueueManager;
+        this.outboundServer = outboundServer;
     }
 
     /**
@@ -41,32 +46,108 @@ public class OutboundServerHandler extends SimpleChannelInboundHandler<PushMessa
     public void channelActive(ChannelHandlerContext ctx) {
         LOG.info("[OutboundServerHandler:{}] connected {}", property.getServiceId(), ctx.channel());
 
-        outboundQueueManager.startOutboundQueue(property.getServiceId(), property.getOutboundQueueCapacity(), ctx.channel());
+        outboundQueueManager.startOutboundQueue(property.getServiceId(), ctx.channel());
 
         ctx.fireChannelActive();
     }
 
     /**
      * 클라이언트로부터 메시지 수신했을 때 동작<br>
-     * -클라이언트로부터의 메시지는 ID 전송으로 간주하여 채널에 그룹ID, 클라이언트ID 설정
+     * -클라이언트로부터의 메시지는 ID 전송으로 간주하여 채널에 그룹ID, 클라이언트ID 설정<br>
+     * -OutboundQueue 관리자를 통해 설정하여 라우팅 인덱스도 함께 갱신<br>
+     * -unsubscribe, subscribe가 포함된 경우 ID 설정 전에 순서대로 topic filter 구독 해제/구독<br>
+     * -마지막으로 수신한 sequence가 포함된 경우 이후의 누락 메시지(함께 구독한 topic의 메시지 포함)를 다시 전송<br>
+     * -codec이 포함된 경우 codec 협상 후 이후 메시지에 적용<br>
+     * -ackId가 포함된 경우 해당 메시지의 처리 완료 통지로 간주하여 ack 대기 목록에서 제거하고, ackId만 포함된 경우 이후 처리 생략
      * @param ctx ChannelHandlerContext object
      * @param msg 수신 메시지
      * @see io.netty.channel.SimpleChannelInboundHandler#channelRead0(io.netty.channel.ChannelHandlerContext, java.lang.Object)
      */
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, PushMessage msg) {
+        if (msg.getAckId() != null) {
+            if (outboundQueueManager.ack(property.getServiceId(), ctx.channel(), msg.getAckId())) {
+                LOG.debug("[OutboundServerHandler:{}] acked [{}] from {}", property.getServiceId(), msg.getAckId(), ctx.channel());
+            } else {
+                LOG.debug("[OutboundServerHandler:{}] unknown ack id [{}] from {}", property.getServiceId(), msg.getAckId(), ctx.channel());
+            }
+            // ack는 메시지마다 수신되므로 ack만 담은 메시지는 ID 등록으로 처리하지 않음
+            if (isAckOnly(msg)) {
+                return;
+            }
+        }
+
         LOG.info("[OutboundServerHandler:{}] received {} from {}", property.getServiceId(), msg, ctx.channel());
 
+        if (msg.getCodec() != null) {
+            negotiateCodec(ctx, msg.getCodec());
+        }
+
+        // 누락 메시지 재전송시 구독중인 topic의 메시지도 포함되도록 sequence 처리보다 먼저 구독 해제/구독
+        if (msg.getUnsubscribe() != null) {
+            for (String filter : msg.getUnsubscribe()) {
+                if (outboundQueueManager.unsubscribe(property.getServiceId(), ctx.channel(), filter)) {
+                    LOG.info("[OutboundServerHandler:{}] unsubscribed topic [{}] from {}", property.getServiceId(), filter, ctx.channel());
+                }
+            }
+        }
+        if (msg.getSubscribe() != null) {
+            for (String filter : msg.getSubscribe()) {
+                if (outboundQueueManager.subscribe(property.getServiceId(), ctx.channel(), filter)) {
+                    LOG.info("[OutboundServerHandler:{}] subscribed topic [{}] to {}", property.getServiceId(), filter, ctx.channel());
+                } else {
+                    LOG.warn("[OutboundServerHandler:{}] rejected topic [{}] from {}", property.getServiceId(), filter, ctx.channel());
+                }
+            }
+        }
+
         String groupId = msg.getGroupId();
         if (groupId != null) {
-            ctx.channel().attr(PushConstant.GROUP_ID).set(groupId);
+            outboundQueueManager.updateGroupId(property.getServiceId(), ctx.channel(), groupId);
             LOG.info("[OutboundServerHandler:{}] set group id [{}] to {}", property.getServiceId(), groupId, ctx.channel());
         }
 
         String clientId = msg.getClientId();
+        Long sequence = msg.getSequence();
         if (clientId != null) {
-            ctx.channel().attr(PushConstant.CLIENT_ID).set(clientId);
+            outboundQueueManager.updateClientId(property.getServiceId(), ctx.channel(), clientId, sequence);
             LOG.info("[OutboundServerHandler:{}] set client id [{}] to {}", property.getServiceId(), clientId, ctx.channel());
+        } else if (sequence != null) {
+            outboundQueueManager.resume(property.getServiceId(), ctx.channel(), sequence);
+        }
+        if (sequence != null) {
+            LOG.info("[OutboundServerHandler:{}] resumed after sequence [{}] to {}", property.getServiceId(), sequence, ctx.channel());
+        }
+    }
+
+    // ackId 외의 ID 등록, 구독, codec 협상 항목이 없는 메시지인지 여부
+    private static boolean isAckOnly(PushMessage msg) {
+        return msg.getGroupId() == null && msg.getClientId() == null && msg.getSequence() == null && msg.getCodec() == null
+                && msg.getSubscribe() == null && msg.getUnsubscribe() == null;
+    }
+
+    /**
+     * 클라이언트가 요청한 codec으로 채널의 codec을 전환한다.<br>
+     * -서비스의 기본 codec 또는 outboundCodecs에 포함된 codec만 허용<br>
+     * -전환 전 codec으로 이후 사용할 codec 이름을 담은 응답 메시지를 먼저 전송하여 클라이언트가 전환 시점을 알 수 있도록 함<br>
+     * -요청한 codec을 허용하지 않으면 현재 codec 이름으로 응답하고 전환하지 않음
+     * @param ctx ChannelHandlerContext object
+     * @param name 요청한 codec 이름
+     */
+    private void negotiateCodec(ChannelHandlerContext ctx, String name) {
+        String current = ctx.channel().attr(PushConstant.CODEC).get();
+        boolean allowed = name.equals(property.getOutboundCodec()) || property.getOutboundCodecs().contains(name);
+        PushMessageCodec codec = allowed ? PushMessageCodecs.get(name) : null;
+
+        PushMessage reply = new PushMessage(property.getServiceId(), null, null, null);
+        reply.setCodec(codec != null ? codec.name() : current);
+        ctx.writeAndFlush(reply);
+
+        if (codec == null) {
+            LOG.warn("[OutboundServerHandler:{}] rejected codec [{}] from {}", property.getServiceId(), name, ctx.channel());
+        } else if (!name.equals(current)) {
+            outboundServer.applyCodec(ctx.channel(), codec);
+            LOG.info("[OutboundServerHandler:{}] set codec [{}] to {}", property.getServiceId(), name, ctx.channel());
         }
     }
 
@@ -84,6 +165,24 @@ public class OutboundServerHandler extends SimpleChannelInboundHandler<PushMessa
         outboundQueueManager.shutdownOutboundQueue(property.getServiceId(), ctx.channel());
     }
 
+    /**
+     * 클라이언트 채널의 writable 상태가 변경되었을 때 동작<br>
+     * -writable 상태가 되면 OutboundQueue 관리자에게 중단된 전송 재개 요청
+     * @param ctx ChannelHandlerContext object
+     * @see io.netty.channel.ChannelInboundHandlerAdapter#channelWritabilityChanged(io.netty.channel.ChannelHandlerContext)
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable()) {
+            LOG.debug("[OutboundServerHandler:{}] writable {}", property.getServiceId(), ctx.channel());
+            outboundQueueManager.resumeOutboundQueue(property.getServiceId(), ctx.channel());
+        } else {
+            LOG.debug("[OutboundServerHandler:{}] not writable {}", property.getServiceId(), ctx.channel());
+        }
+
+        ctx.fireChannelWritabilityChanged();
+    }
+
     /**
      * 채널의 I/O 오퍼레이션 도중 예외가 발생했을 때 동작<br>
      * -예외 정보 로깅<br>
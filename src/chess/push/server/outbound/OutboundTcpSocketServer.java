@@ -1,17 +1,13 @@
 package chess.push.server.outbound;
 
-import chess.push.common.PushConstant;
-import chess.push.common.PushMessageDecoder;
-import chess.push.common.PushMessageEncoder;
+import chess.push.common.PushMessageCodec;
+import chess.push.common.PushMessageCodecs;
+import chess.push.server.EventLoopRegistry;
 import chess.push.server.property.PushServiceProperty;
 import chess.push.server.queue.OutboundQueueManager;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
 
 /**
  * TCP Socket 통신을 사용하는 Outbound Server 타입
@@ -25,9 +21,10 @@ public class OutboundTcpSocketServer extends OutboundServer {
      * constructor with parameters
      * @param property Push Service property
      * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
      */
-    public OutboundTcpSocketServer(PushServiceProperty property, OutboundQueueManager outboundQueueManager) {
-        super(property);
+    public OutboundTcpSocketServer(PushServiceProperty property, OutboundQueueManager outboundQueueManager, EventLoopRegistry eventLoopRegistry) {
+        super(property, eventLoopRegistry);
         this.property = property;
         this.outboundQueueManager = outboundQueueManager;
     }
@@ -43,12 +40,21 @@ public class OutboundTcpSocketServer extends OutboundServer {
             @Override
             public void initChannel(SocketChannel socketChannel) {
                 ChannelPipeline pipeline = socketChannel.pipeline();
-                pipeline.addLast(new DelimiterBasedFrameDecoder(Integer.MAX_VALUE, PushConstant.DEFAULT_DELIMITER));
-                pipeline.addLast(new StringDecoder(CharsetUtil.UTF_8), new StringEncoder(CharsetUtil.UTF_8));
-                pipeline.addLast(new PushMessageDecoder(), new PushMessageEncoder(PushConstant.DEFAULT_DELIMITER_STR));
-                pipeline.addLast(new OutboundServerHandler(property, outboundQueueManager));
+                applyCodec(socketChannel, PushMessageCodecs.get(property.getOutboundCodec()));
+                pipeline.addLast(new OutboundServerHandler(property, outboundQueueManager, OutboundTcpSocketServer.this));
             }
         };
     }
 
+    /**
+     * TCP Socket 통신용 frame 디코더와 codec 핸들러를 설정한다.
+     * @see chess.push.server.outbound.OutboundServer#configureCodec(io.netty.channel.ChannelPipeline, chess.push.common.PushMessageCodec)
+     */
+    @Override
+    protected void configureCodec(ChannelPipeline pipeline, PushMessageCodec codec) {
+        setHandler(pipeline, FRAME_DECODER, codec.newFrameDecoder(Integer.MAX_VALUE));
+        setHandler(pipeline, DECODER, codec.newDecoder());
+        setHandler(pipeline, ENCODER, codec.newEncoder(true));
+    }
+
 }
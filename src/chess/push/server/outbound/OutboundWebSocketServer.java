@@ -1,9 +1,10 @@
 package chess.push.server.outbound;
 
-import chess.push.common.PushMessageDecoder;
-import chess.push.common.PushMessageEncoder;
+import chess.push.common.PushMessageCodec;
+import chess.push.common.PushMessageCodecs;
 import chess.push.common.WebSocketFrameDecoder;
 import chess.push.common.WebSocketFrameEncoder;
+import chess.push.server.EventLoopRegistry;
 import chess.push.server.property.PushServiceProperty;
 import chess.push.server.queue.OutboundQueueManager;
 import io.netty.channel.ChannelInitializer;
@@ -26,9 +27,10 @@ public class OutboundWebSocketServer extends OutboundServer {
      * constructor with parameters
      * @param property Push Service property
      * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     * @param eventLoopRegistry 공유 EventLoopGroup 관리자
      */
-    public OutboundWebSocketServer(PushServiceProperty property, OutboundQueueManager outboundQueueManager) {
-        super(property);
+    public OutboundWebSocketServer(PushServiceProperty property, OutboundQueueManager outboundQueueManager, EventLoopRegistry eventLoopRegistry) {
+        super(property, eventLoopRegistry);
         this.property = property;
         this.outboundQueueManager = outboundQueueManager;
     }
@@ -50,11 +52,23 @@ public class OutboundWebSocketServer extends OutboundServer {
                 pipeline.addLast(new WebSocketServerProtocolHandler(property.getOutboundServerWsUri(), null, true));
                 // 필요시 HTTP 요청 핸들러 설정
                 // pipeline.addLast(???);
-                pipeline.addLast(new WebSocketFrameDecoder(), new WebSocketFrameEncoder());
-                pipeline.addLast(new PushMessageDecoder(), new PushMessageEncoder());
-                pipeline.addLast(new OutboundServerHandler(property, outboundQueueManager));
+                pipeline.addLast(new WebSocketFrameDecoder());
+                applyCodec(socketChannel, PushMessageCodecs.get(property.getOutboundCodec()));
+                pipeline.addLast(new OutboundServerHandler(property, outboundQueueManager, OutboundWebSocketServer.this));
             }
         };
     }
 
+    /**
+     * WebSocket 통신용 frame 인코더와 codec 핸들러를 설정한다.<br>
+     * -WebSocketFrame 단위로 메시지가 구분되므로 frame 디코더와 frame 구분 정보는 사용하지 않음
+     * @see chess.push.server.outbound.OutboundServer#configureCodec(io.netty.channel.ChannelPipeline, chess.push.common.PushMessageCodec)
+     */
+    @Override
+    protected void configureCodec(ChannelPipeline pipeline, PushMessageCodec codec) {
+        setHandler(pipeline, FRAME_ENCODER, new WebSocketFrameEncoder(codec.isBinary()));
+        setHandler(pipeline, DECODER, codec.newDecoder());
+        setHandler(pipeline, ENCODER, codec.newEncoder(false));
+    }
+
 }
@@ -0,0 +1,30 @@
+package chess.push.server.property;
+
+/**
+ * OutboundQueue가 가득 찼을 때 새 메시지를 처리하는 방식 정의
+ */
+public enum OverflowPolicy {
+
+    /**
+     * 새로 추가하려는 메시지를 버림
+     */
+    DROP_NEWEST,
+    /**
+     * 큐에서 가장 오래된 메시지를 버리고 새 메시지를 추가
+     */
+    DROP_OLDEST,
+    /**
+     * 큐에 공간이 생길 때까지 outboundOverflowBlockTimeout 동안 대기 후, 그래도 가득 차 있으면 새 메시지를 버림<br>
+     * -클라이언트 채널의 EventLoop에서 호출된 경우 대기하지 않고 새 메시지를 버림
+     */
+    BLOCK,
+    /**
+     * 처리 속도가 느린 클라이언트로 판단하여 새 메시지를 버리고 채널 연결을 종료
+     */
+    DISCONNECT,
+    /**
+     * 넘치는 메시지를 outboundSpillDirectory 하위 파일에 기록하고, 큐에 공간이 생기면 순서대로 다시 적재
+     */
+    SPILL_TO_DISK;
+
+}
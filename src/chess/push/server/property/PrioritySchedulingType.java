@@ -0,0 +1,17 @@
+package chess.push.server.property;
+
+/**
+ * 우선순위별 큐(lane)에서 메시지를 추출하는 순서 정의
+ */
+public enum PrioritySchedulingType {
+
+    /**
+     * 높은 우선순위의 lane이 비어 있을 때만 낮은 우선순위의 lane에서 추출 (높은 우선순위의 지연 최소, 낮은 우선순위는 기아 가능)
+     */
+    STRICT,
+    /**
+     * lane마다 priorityWeights에 지정된 수만큼 번갈아 추출 (모든 우선순위가 가중치에 비례하여 처리됨)
+     */
+    WEIGHTED;
+
+}
@@ -1,5 +1,8 @@
 package chess.push.server.property;
 
+import java.util.Collections;
+import java.util.List;
+
 import javax.annotation.PostConstruct;
 
 /**
@@ -7,21 +10,153 @@ import javax.annotation.PostConstruct;
  */
 public class PushBaseProperty {
 
+    private static final int MIN_CHUNK_SIZE = 8192;			// pooled allocator의 최소 chunk 크기 (page 크기)
+    private static final int MAX_CHUNK_SIZE = 8192 << 14;	// pooled allocator의 최대 chunk 크기 (page 크기 << 최대 order)
+
+    private TransportType transportType = TransportType.AUTO;	// Netty transport 종류
+    private int transportAcceptorCount = 1;		// listen port마다 SO_REUSEPORT로 bind하는 accept 채널 수 (epoll transport에서만 2 이상 사용 가능)
+    private boolean transportEdgeTriggered = true;	// epoll transport의 edge-triggered 모드 사용 여부 (false이면 level-triggered)
+    private int eventLoopBossThreads;			// 모든 서버가 공유하는 boss EventLoop 쓰레드 수 (0이면 transportAcceptorCount)
+    private int eventLoopWorkerThreads;			// 모든 서버가 공유하는 worker EventLoop 쓰레드 수 (0이면 Netty 기본값, CPU 코어 수 * 2)
+    private int inboundWorkerThreads;			// Inbound Server 전용 worker EventLoop 쓰레드 수 (0이면 공유 worker EventLoopGroup 사용)
+    private boolean allocatorPreferDirect = true;	// 채널 ByteBuf를 direct memory에서 할당할지 여부
+    private int allocatorArenas;				// pooled allocator의 arena 수 (0이면 Netty 기본값)
+    private int allocatorChunkSize;				// pooled allocator의 chunk 크기 (byte, 2의 거듭제곱, 0이면 Netty 기본값)
     private int inboundServerPort;				// Inbound Server listen port
+    private int inboundBinaryServerPort;		// 길이 기반 binary frame을 사용하는 Inbound Server listen port (0이면 사용하지 않음)
+    private int inboundMaxFrameSize = 1024 * 1024;	// Inbound Server가 수신하는 메시지의 최대 크기 (byte)
+    private boolean inboundEnvelope;			// 라우팅 header만 파싱하고 message 본문은 원문 그대로 전달하는 envelope 모드 사용 여부
     private int inboundQueueCheckInterval;		// InboundQueue 상태 모니터링 주기 (초)
     private int outboundQueueCheckInterval;		// OutboundQueue 상태 모니터링 주기 (초)
+    private String clusterAddress;				// 클러스터 모드에서 로컬 노드의 peer link 주소 (host:port, 노드 ID로도 사용, null이면 단독 모드)
+    private List<String> clusterMembers = Collections.emptyList();	// 클러스터를 구성하는 노드의 peer link 주소 목록 (로컬 노드 포함 가능)
+    private int clusterReconnectInterval = 1000;	// peer link 재연결 주기 (밀리초)
 
     @PostConstruct
     public void afterPropertiesSet() {
+        if (transportType == null) {
+            throw new IllegalArgumentException("The 'transportType' property is null");
+        }
+        if (transportAcceptorCount <= 0 || (transportType == TransportType.NIO && transportAcceptorCount > 1)) {
+            throw new IllegalArgumentException("The 'transportAcceptorCount' property is invalid [" + transportAcceptorCount + "]");
+        }
+        if (eventLoopBossThreads < 0) {
+            throw new IllegalArgumentException("The 'eventLoopBossThreads' property is invalid [" + eventLoopBossThreads + "]");
+        }
+        if (eventLoopWorkerThreads < 0) {
+            throw new IllegalArgumentException("The 'eventLoopWorkerThreads' property is invalid [" + eventLoopWorkerThreads + "]");
+        }
+        if (inboundWorkerThreads < 0) {
+            throw new IllegalArgumentException("The 'inboundWorkerThreads' property is invalid [" + inboundWorkerThreads + "]");
+        }
+        if (allocatorArenas < 0) {
+            throw new IllegalArgumentException("The 'allocatorArenas' property is invalid [" + allocatorArenas + "]");
+        }
+        if (allocatorChunkSize != 0 && (Integer.bitCount(allocatorChunkSize) != 1 || allocatorChunkSize < MIN_CHUNK_SIZE || allocatorChunkSize > MAX_CHUNK_SIZE)) {
+            throw new IllegalArgumentException("The 'allocatorChunkSize' property is invalid [" + allocatorChunkSize + "]");
+        }
         if (inboundServerPort <= 0) {
             throw new IllegalArgumentException("The 'inboundServerPort' property is invalid [" + inboundServerPort + "]");
         }
+        if (inboundBinaryServerPort < 0 || inboundBinaryServerPort == inboundServerPort) {
+            throw new IllegalArgumentException("The 'inboundBinaryServerPort' property is invalid [" + inboundBinaryServerPort + "]");
+        }
+        if (inboundMaxFrameSize <= 0) {
+            throw new IllegalArgumentException("The 'inboundMaxFrameSize' property is invalid [" + inboundMaxFrameSize + "]");
+        }
         if (inboundQueueCheckInterval <= 0) {
             throw new IllegalArgumentException("The 'inboundQueueCheckInterval' property is invalid [" + inboundQueueCheckInterval + "]");
         }
         if (outboundQueueCheckInterval <= 0) {
             throw new IllegalArgumentException("The 'outboundQueueCheckInterval' property is invalid [" + outboundQueueCheckInterval + "]");
         }
+        if (clusterAddress != null) {
+            if (!isValidAddress(clusterAddress)) {
+                throw new IllegalArgumentException("The 'clusterAddress' property is invalid [" + clusterAddress + "]");
+            }
+            if (clusterMembers == null || !clusterMembers.stream().allMatch(PushBaseProperty::isValidAddress)) {
+                throw new IllegalArgumentException("The 'clusterMembers' property is invalid [" + clusterMembers + "]");
+            }
+            if (clusterReconnectInterval <= 0) {
+                throw new IllegalArgumentException("The 'clusterReconnectInterval' property is invalid [" + clusterReconnectInterval + "]");
+            }
+        }
+    }
+
+    private static boolean isValidAddress(String address) {
+        int separator = address != null ? address.lastIndexOf(':') : -1;
+        if (separator <= 0) {
+            return false;
+        }
+        try {
+            int port = Integer.parseInt(address.substring(separator + 1));
+            return port > 0 && port <= 0xFFFF;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    public TransportType getTransportType() {
+        return transportType;
+    }
+    public void setTransportType(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
+    public int getTransportAcceptorCount() {
+        return transportAcceptorCount;
+    }
+    public void setTransportAcceptorCount(int transportAcceptorCount) {
+        this.transportAcceptorCount = transportAcceptorCount;
+    }
+
+    public boolean isTransportEdgeTriggered() {
+        return transportEdgeTriggered;
+    }
+    public void setTransportEdgeTriggered(boolean transportEdgeTriggered) {
+        this.transportEdgeTriggered = transportEdgeTriggered;
+    }
+
+    public int getEventLoopBossThreads() {
+        return eventLoopBossThreads;
+    }
+    public void setEventLoopBossThreads(int eventLoopBossThreads) {
+        this.eventLoopBossThreads = eventLoopBossThreads;
+    }
+
+    public int getEventLoopWorkerThreads() {
+        return eventLoopWorkerThreads;
+    }
+    public void setEventLoopWorkerThreads(int eventLoopWorkerThreads) {
+        this.eventLoopWorkerThreads = eventLoopWorkerThreads;
+    }
+
+    public int getInboundWorkerThreads() {
+        return inboundWorkerThreads;
+    }
+    public void setInboundWorkerThreads(int inboundWorkerThreads) {
+        this.inboundWorkerThreads = inboundWorkerThreads;
+    }
+
+    public boolean isAllocatorPreferDirect() {
+        return allocatorPreferDirect;
+    }
+    public void setAllocatorPreferDirect(boolean allocatorPreferDirect) {
+        this.allocatorPreferDirect = allocatorPreferDirect;
+    }
+
+    public int getAllocatorArenas() {
+        return allocatorArenas;
+    }
+    public void setAllocatorArenas(int allocatorArenas) {
+        this.allocatorArenas = allocatorArenas;
+    }
+
+    public int getAllocatorChunkSize() {
+        return allocatorChunkSize;
+    }
+    public void setAllocatorChunkSize(int allocatorChunkSize) {
+        this.allocatorChunkSize = allocatorChunkSize;
     }
 
     public int getInboundServerPort() {
@@ -31,6 +166,27 @@ public class PushBaseProperty {
         this.inboundServerPort = inboundServerPort;
     }
 
+    public int getInboundBinaryServerPort() {
+        return inboundBinaryServerPort;
+    }
+    public void setInboundBinaryServerPort(int inboundBinaryServerPort) {
+        this.inboundBinaryServerPort = inboundBinaryServerPort;
+    }
+
+    public int getInboundMaxFrameSize() {
+        return inboundMaxFrameSize;
+    }
+    public void setInboundMaxFrameSize(int inboundMaxFrameSize) {
+        this.inboundMaxFrameSize = inboundMaxFrameSize;
+    }
+
+    public boolean isInboundEnvelope() {
+        return inboundEnvelope;
+    }
+    public void setInboundEnvelope(boolean inboundEnvelope) {
+        this.inboundEnvelope = inboundEnvelope;
+    }
+
     public int getInboundQueueCheckInterval() {
         return inboundQueueCheckInterval;
     }
@@ -45,13 +201,49 @@ public class PushBaseProperty {
         this.outboundQueueCheckInterval = outboundQueueCheckInterval;
     }
 
+    public String getClusterAddress() {
+        return clusterAddress;
+    }
+    public void setClusterAddress(String clusterAddress) {
+        this.clusterAddress = clusterAddress;
+    }
+
+    public List<String> getClusterMembers() {
+        return clusterMembers;
+    }
+    public void setClusterMembers(List<String> clusterMembers) {
+        this.clusterMembers = clusterMembers;
+    }
+
+    public int getClusterReconnectInterval() {
+        return clusterReconnectInterval;
+    }
+    public void setClusterReconnectInterval(int clusterReconnectInterval) {
+        this.clusterReconnectInterval = clusterReconnectInterval;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append(getClass().getSimpleName()).append("[")
-               .append("inboundServerPort=").append(inboundServerPort)
+               .append("transportType=").append(transportType)
+               .append(", transportAcceptorCount=").append(transportAcceptorCount)
+               .append(", transportEdgeTriggered=").append(transportEdgeTriggered)
+               .append(", eventLoopBossThreads=").append(eventLoopBossThreads)
+               .append(", eventLoopWorkerThreads=").append(eventLoopWorkerThreads)
+               .append(", inboundWorkerThreads=").append(inboundWorkerThreads)
+               .append(", allocatorPreferDirect=").append(allocatorPreferDirect)
+               .append(", allocatorArenas=").append(allocatorArenas)
+               .append(", allocatorChunkSize=").append(allocatorChunkSize)
+               .append(", inboundServerPort=").append(inboundServerPort)
+               .append(", inboundBinaryServerPort=").append(inboundBinaryServerPort)
+               .append(", inboundMaxFrameSize=").append(inboundMaxFrameSize)
+               .append(", inboundEnvelope=").append(inboundEnvelope)
                .append(", inboundQueueCheckInterval=").append(inboundQueueCheckInterval)
                .append(", outboundQueueCheckInterval=").append(outboundQueueCheckInterval)
+               .append(", clusterAddress=").append(clusterAddress)
+               .append(", clusterMembers=").append(clusterMembers)
+               .append(", clusterReconnectInterval=").append(clusterReconnectInterval)
                .append("]");
         return builder.toString();
     }
@@ -1,18 +1,57 @@
 package chess.push.server.property;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import javax.annotation.PostConstruct;
 
+import chess.push.common.PushMessageCodecs;
+import chess.push.common.PushPriority;
+
 /**
  * 개별 Push 서비스 속성 정의
  */
 public class PushServiceProperty {
 
     private String serviceId;				// Push Service ID
-    private int inboundQueueCapacity;		// Inbound Message Queue capacity
-    private int outboundQueueCapacity;		// Outbound Message Queue capacity
+    private int inboundQueueCapacity;		// Inbound Message Queue capacity (worker 수로 나눈 값을 우선순위 lane마다 할당)
+    private WaitStrategyType inboundWaitStrategy = WaitStrategyType.BLOCKING;	// Inbound Message Queue 소비 쓰레드 대기 방식
+    private int inboundWorkerCount = 1;		// Inbound Message Queue를 파티션으로 나누어 처리하는 쓰레드 수
+    private int inboundQueueHighWaterMark = 90;	// 송신자 채널의 읽기를 중지하는 Inbound Message Queue 사용률 (%)
+    private int inboundQueueLowWaterMark = 50;	// 송신자 채널의 읽기를 재개하는 Inbound Message Queue 사용률 (%)
+    private String journalDirectory;		// Inbound Message Queue에 추가되는 메시지를 기록할 journal 디렉토리 (null이면 기록하지 않음)
+    private int journalSegmentSize = 64 * 1024 * 1024;	// journal segment 파일 크기 (byte)
+    private int journalCommitInterval = 100;	// journal에 기록된 내용을 저장장치에 반영하는 주기 (밀리초)
+    private PrioritySchedulingType priorityScheduling = PrioritySchedulingType.STRICT;	// 우선순위별 Inbound/Outbound Message Queue에서 메시지를 추출하는 순서
+    private int[] priorityWeights = {8, 4, 1};	// WEIGHTED 방식에서 우선순위(HIGH, NORMAL, LOW)별로 번갈아 추출하는 메시지 수
+    private int outboundQueueCapacity;		// Outbound Message Queue capacity (우선순위 lane마다 할당)
     private int outboundServerPort;			// Outbound Server listen port
     private ServerType outboundServerType;	// Outbound Server communication type
     private String outboundServerWsUri;		// Outbound Server WebSocket URI, if Outbound Server type is WEBSOCKET
+    private int outboundWorkerThreads;		// Outbound Server 전용 worker EventLoop 쓰레드 수 (0이면 공유 worker EventLoopGroup 사용)
+    private int outboundBatchSize = 64;		// Outbound Queue에서 한 번에 write 후 flush하는 최대 메시지 수
+    private int outboundFlushDelay;			// Outbound Queue에서 flush를 지연시켜 write를 모을 수 있는 최대 시간 (밀리초, 0이면 지연 없음)
+    private int outboundWriteBufferLowWaterMark = 32 * 1024;	// 클라이언트 채널이 다시 writable 상태가 되는 write buffer 크기 (byte)
+    private int outboundWriteBufferHighWaterMark = 64 * 1024;	// 클라이언트 채널이 writable 상태가 아니게 되는 write buffer 크기 (byte)
+    private OverflowPolicy outboundOverflowPolicy = OverflowPolicy.DROP_NEWEST;	// Outbound Message Queue가 가득 찼을 때 처리 방식
+    private int outboundOverflowBlockTimeout = 100;	// BLOCK 방식에서 큐에 공간이 생길 때까지 대기하는 최대 시간 (밀리초)
+    private String outboundSpillDirectory;	// SPILL_TO_DISK 방식에서 넘치는 메시지를 기록할 디렉토리
+    private int outboundSpillCapacity = 100000;	// SPILL_TO_DISK 방식에서 클라이언트 채널마다 파일에 기록할 수 있는 최대 메시지 수
+    private boolean outboundConflation;		// Outbound Queue에서 conflation key가 같은 전송 대기 메시지를 최신 메시지로 대체할지 여부
+    private long outboundMemoryBudget;		// 서비스의 모든 Outbound Queue에 보관되거나 전송 중인 메시지의 최대 byte 수 (0이면 제한 없음)
+    private String outboundCodec = PushMessageCodecs.DEFAULT_CODEC;	// 클라이언트 채널에서 기본으로 사용하는 codec 이름
+    private List<String> outboundCodecs = Collections.emptyList();	// 클라이언트가 ID 등록시 요청하여 전환할 수 있는 codec 이름 목록 (비어 있으면 전환하지 않음)
+    private int outboundMaxSubscriptions = 100;	// 클라이언트 채널마다 구독할 수 있는 최대 topic filter 수 (0이면 제한 없음)
+    private int outboundAckWindow;			// 클라이언트 채널마다 ack를 받지 않은 채 전송할 수 있는 최대 메시지 수 (0이면 ack를 사용하지 않음)
+    private int outboundAckTimeout = 5000;	// ack를 받지 못한 메시지를 재전송하기까지 대기하는 시간 (밀리초)
+    private int outboundAckRetries = 3;		// ack를 받지 못한 메시지의 최대 재전송 횟수 (넘으면 버림)
+    private int messageHistoryCapacity;		// sequence를 부여한 최근 메시지를 재연결 클라이언트에게 다시 전송하기 위해 보관할 메시지 수 (0이면 sequence를 부여하지 않음)
+    private int offlineMailboxCapacity;		// 연결되지 않은 클라이언트ID마다 메모리에 보관할 개별 메시지 수 (0이면 보관하지 않음)
+    private String offlineMailboxDirectory;	// 메모리 보관 수를 넘는 개별 메시지를 기록할 디렉토리 (null이면 기록하지 않음)
+    private int offlineMailboxSpillCapacity = 10000;	// 클라이언트ID마다 파일에 기록할 수 있는 최대 메시지 수
+    private int offlineMailboxIdleTimeout = 3600;	// 메시지가 추가되지 않은 우편함을 버리기까지 대기하는 시간 (초, 0이면 버리지 않음)
+    private int offlineMailboxMaxCount = 100000;	// 보관할 수 있는 최대 우편함(클라이언트ID) 수 (0이면 제한 없음)
 
     @PostConstruct
     public void afterPropertiesSet() {
@@ -22,6 +61,30 @@ public class PushServiceProperty {
         if (inboundQueueCapacity <= 0) {
             throw new IllegalArgumentException("The 'inboundQueueCapacity' property is invalid [" + inboundQueueCapacity + "]");
         }
+        if (inboundWaitStrategy == null) {
+            throw new IllegalArgumentException("The 'inboundWaitStrategy' property is null");
+        }
+        if (inboundWorkerCount <= 0) {
+            throw new IllegalArgumentException("The 'inboundWorkerCount' property is invalid [" + inboundWorkerCount + "]");
+        }
+        if (inboundQueueLowWaterMark <= 0 || inboundQueueLowWaterMark >= inboundQueueHighWaterMark || inboundQueueHighWaterMark > 100) {
+            throw new IllegalArgumentException("The 'inboundQueueLowWaterMark' and 'inboundQueueHighWaterMark' properties are invalid ["
+                    + inboundQueueLowWaterMark + ", " + inboundQueueHighWaterMark + "]");
+        }
+        if (journalDirectory != null) {
+            if (journalSegmentSize <= 0) {
+                throw new IllegalArgumentException("The 'journalSegmentSize' property is invalid [" + journalSegmentSize + "]");
+            }
+            if (journalCommitInterval <= 0) {
+                throw new IllegalArgumentException("The 'journalCommitInterval' property is invalid [" + journalCommitInterval + "]");
+            }
+        }
+        if (priorityScheduling == null) {
+            throw new IllegalArgumentException("The 'priorityScheduling' property is null");
+        }
+        if (priorityWeights == null || priorityWeights.length != PushPriority.values().length || Arrays.stream(priorityWeights).anyMatch(weight -> weight <= 0)) {
+            throw new IllegalArgumentException("The 'priorityWeights' property is invalid " + Arrays.toString(priorityWeights));
+        }
         if (outboundQueueCapacity <= 0) {
             throw new IllegalArgumentException("The 'inboundQueueCapacity' property is invalid [" + outboundQueueCapacity + "]");
         }
@@ -34,6 +97,71 @@ public class PushServiceProperty {
         if (outboundServerType == ServerType.WEBSOCKET && outboundServerWsUri == null) {
             throw new IllegalArgumentException("The 'outboundServerWsUri' property is null");
         }
+        if (outboundWorkerThreads < 0) {
+            throw new IllegalArgumentException("The 'outboundWorkerThreads' property is invalid [" + outboundWorkerThreads + "]");
+        }
+        if (outboundBatchSize <= 0) {
+            throw new IllegalArgumentException("The 'outboundBatchSize' property is invalid [" + outboundBatchSize + "]");
+        }
+        if (outboundFlushDelay < 0) {
+            throw new IllegalArgumentException("The 'outboundFlushDelay' property is invalid [" + outboundFlushDelay + "]");
+        }
+        if (outboundWriteBufferLowWaterMark <= 0 || outboundWriteBufferLowWaterMark > outboundWriteBufferHighWaterMark) {
+            throw new IllegalArgumentException("The 'outboundWriteBufferLowWaterMark' and 'outboundWriteBufferHighWaterMark' properties are invalid ["
+                    + outboundWriteBufferLowWaterMark + ", " + outboundWriteBufferHighWaterMark + "]");
+        }
+        if (outboundMaxSubscriptions < 0) {
+            throw new IllegalArgumentException("The 'outboundMaxSubscriptions' property is invalid [" + outboundMaxSubscriptions + "]");
+        }
+        if (outboundAckWindow < 0) {
+            throw new IllegalArgumentException("The 'outboundAckWindow' property is invalid [" + outboundAckWindow + "]");
+        }
+        if (outboundAckWindow > 0) {
+            if (outboundAckTimeout <= 0) {
+                throw new IllegalArgumentException("The 'outboundAckTimeout' property is invalid [" + outboundAckTimeout + "]");
+            }
+            if (outboundAckRetries < 0) {
+                throw new IllegalArgumentException("The 'outboundAckRetries' property is invalid [" + outboundAckRetries + "]");
+            }
+        }
+        if (messageHistoryCapacity < 0) {
+            throw new IllegalArgumentException("The 'messageHistoryCapacity' property is invalid [" + messageHistoryCapacity + "]");
+        }
+        if (offlineMailboxCapacity < 0) {
+            throw new IllegalArgumentException("The 'offlineMailboxCapacity' property is invalid [" + offlineMailboxCapacity + "]");
+        }
+        if (offlineMailboxDirectory != null && offlineMailboxSpillCapacity <= 0) {
+            throw new IllegalArgumentException("The 'offlineMailboxSpillCapacity' property is invalid [" + offlineMailboxSpillCapacity + "]");
+        }
+        if (offlineMailboxIdleTimeout < 0) {
+            throw new IllegalArgumentException("The 'offlineMailboxIdleTimeout' property is invalid [" + offlineMailboxIdleTimeout + "]");
+        }
+        if (offlineMailboxMaxCount < 0) {
+            throw new IllegalArgumentException("The 'offlineMailboxMaxCount' property is invalid [" + offlineMailboxMaxCount + "]");
+        }
+        if (PushMessageCodecs.get(outboundCodec) == null) {
+            throw new IllegalArgumentException("The 'outboundCodec' property is invalid [" + outboundCodec + "], available codecs " + PushMessageCodecs.names());
+        }
+        if (outboundCodecs == null || !outboundCodecs.stream().allMatch(codec -> PushMessageCodecs.get(codec) != null)) {
+            throw new IllegalArgumentException("The 'outboundCodecs' property is invalid " + outboundCodecs + ", available codecs " + PushMessageCodecs.names());
+        }
+        if (outboundOverflowPolicy == null) {
+            throw new IllegalArgumentException("The 'outboundOverflowPolicy' property is null");
+        }
+        if (outboundOverflowPolicy == OverflowPolicy.BLOCK && outboundOverflowBlockTimeout <= 0) {
+            throw new IllegalArgumentException("The 'outboundOverflowBlockTimeout' property is invalid [" + outboundOverflowBlockTimeout + "]");
+        }
+        if (outboundOverflowPolicy == OverflowPolicy.SPILL_TO_DISK) {
+            if (outboundSpillDirectory == null) {
+                throw new IllegalArgumentException("The 'outboundSpillDirectory' property is null");
+            }
+            if (outboundSpillCapacity <= 0) {
+                throw new IllegalArgumentException("The 'outboundSpillCapacity' property is invalid [" + outboundSpillCapacity + "]");
+            }
+        }
+        if (outboundMemoryBudget < 0) {
+            throw new IllegalArgumentException("The 'outboundMemoryBudget' property is invalid [" + outboundMemoryBudget + "]");
+        }
     }
 
     public String getServiceId() {
@@ -50,6 +178,69 @@ public class PushServiceProperty {
         this.inboundQueueCapacity = inboundQueueCapacity;
     }
 
+    public WaitStrategyType getInboundWaitStrategy() {
+        return inboundWaitStrategy;
+    }
+    public void setInboundWaitStrategy(WaitStrategyType inboundWaitStrategy) {
+        this.inboundWaitStrategy = inboundWaitStrategy;
+    }
+
+    public int getInboundWorkerCount() {
+        return inboundWorkerCount;
+    }
+    public void setInboundWorkerCount(int inboundWorkerCount) {
+        this.inboundWorkerCount = inboundWorkerCount;
+    }
+
+    public int getInboundQueueHighWaterMark() {
+        return inboundQueueHighWaterMark;
+    }
+    public void setInboundQueueHighWaterMark(int inboundQueueHighWaterMark) {
+        this.inboundQueueHighWaterMark = inboundQueueHighWaterMark;
+    }
+
+    public int getInboundQueueLowWaterMark() {
+        return inboundQueueLowWaterMark;
+    }
+    public void setInboundQueueLowWaterMark(int inboundQueueLowWaterMark) {
+        this.inboundQueueLowWaterMark = inboundQueueLowWaterMark;
+    }
+
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+    public void setJournalDirectory(String journalDirectory) {
+        this.journalDirectory = journalDirectory;
+    }
+
+    public int getJournalSegmentSize() {
+        return journalSegmentSize;
+    }
+    public void setJournalSegmentSize(int journalSegmentSize) {
+        this.journalSegmentSize = journalSegmentSize;
+    }
+
+    public int getJournalCommitInterval() {
+        return journalCommitInterval;
+    }
+    public void setJournalCommitInterval(int journalCommitInterval) {
+        this.journalCommitInterval = journalCommitInterval;
+    }
+
+    public PrioritySchedulingType getPriorityScheduling() {
+        return priorityScheduling;
+    }
+    public void setPriorityScheduling(PrioritySchedulingType priorityScheduling) {
+        this.priorityScheduling = priorityScheduling;
+    }
+
+    public int[] getPriorityWeights() {
+        return priorityWeights;
+    }
+    public void setPriorityWeights(int[] priorityWeights) {
+        this.priorityWeights = priorityWeights;
+    }
+
     public int getOutboundQueueCapacity() {
         return outboundQueueCapacity;
     }
@@ -82,16 +273,209 @@ public class PushServiceProperty {
         }
     }
 
+    public int getOutboundWorkerThreads() {
+        return outboundWorkerThreads;
+    }
+    public void setOutboundWorkerThreads(int outboundWorkerThreads) {
+        this.outboundWorkerThreads = outboundWorkerThreads;
+    }
+
+    public int getOutboundBatchSize() {
+        return outboundBatchSize;
+    }
+    public void setOutboundBatchSize(int outboundBatchSize) {
+        this.outboundBatchSize = outboundBatchSize;
+    }
+
+    public int getOutboundFlushDelay() {
+        return outboundFlushDelay;
+    }
+    public void setOutboundFlushDelay(int outboundFlushDelay) {
+        this.outboundFlushDelay = outboundFlushDelay;
+    }
+
+    public int getOutboundWriteBufferLowWaterMark() {
+        return outboundWriteBufferLowWaterMark;
+    }
+    public void setOutboundWriteBufferLowWaterMark(int outboundWriteBufferLowWaterMark) {
+        this.outboundWriteBufferLowWaterMark = outboundWriteBufferLowWaterMark;
+    }
+
+    public int getOutboundWriteBufferHighWaterMark() {
+        return outboundWriteBufferHighWaterMark;
+    }
+    public void setOutboundWriteBufferHighWaterMark(int outboundWriteBufferHighWaterMark) {
+        this.outboundWriteBufferHighWaterMark = outboundWriteBufferHighWaterMark;
+    }
+
+    public OverflowPolicy getOutboundOverflowPolicy() {
+        return outboundOverflowPolicy;
+    }
+    public void setOutboundOverflowPolicy(OverflowPolicy outboundOverflowPolicy) {
+        this.outboundOverflowPolicy = outboundOverflowPolicy;
+    }
+
+    public int getOutboundOverflowBlockTimeout() {
+        return outboundOverflowBlockTimeout;
+    }
+    public void setOutboundOverflowBlockTimeout(int outboundOverflowBlockTimeout) {
+        this.outboundOverflowBlockTimeout = outboundOverflowBlockTimeout;
+    }
+
+    public String getOutboundSpillDirectory() {
+        return outboundSpillDirectory;
+    }
+    public void setOutboundSpillDirectory(String outboundSpillDirectory) {
+        this.outboundSpillDirectory = outboundSpillDirectory;
+    }
+
+    public int getOutboundSpillCapacity() {
+        return outboundSpillCapacity;
+    }
+    public void setOutboundSpillCapacity(int outboundSpillCapacity) {
+        this.outboundSpillCapacity = outboundSpillCapacity;
+    }
+
+    public boolean isOutboundConflation() {
+        return outboundConflation;
+    }
+    public void setOutboundConflation(boolean outboundConflation) {
+        this.outboundConflation = outboundConflation;
+    }
+
+    public long getOutboundMemoryBudget() {
+        return outboundMemoryBudget;
+    }
+    public void setOutboundMemoryBudget(long outboundMemoryBudget) {
+        this.outboundMemoryBudget = outboundMemoryBudget;
+    }
+
+    public String getOutboundCodec() {
+        return outboundCodec;
+    }
+    public void setOutboundCodec(String outboundCodec) {
+        this.outboundCodec = outboundCodec;
+    }
+
+    public List<String> getOutboundCodecs() {
+        return outboundCodecs;
+    }
+    public void setOutboundCodecs(List<String> outboundCodecs) {
+        this.outboundCodecs = outboundCodecs;
+    }
+
+    public int getOutboundMaxSubscriptions() {
+        return outboundMaxSubscriptions;
+    }
+    public void setOutboundMaxSubscriptions(int outboundMaxSubscriptions) {
+        this.outboundMaxSubscriptions = outboundMaxSubscriptions;
+    }
+
+    public int getOutboundAckWindow() {
+        return outboundAckWindow;
+    }
+    public void setOutboundAckWindow(int outboundAckWindow) {
+        this.outboundAckWindow = outboundAckWindow;
+    }
+
+    public int getOutboundAckTimeout() {
+        return outboundAckTimeout;
+    }
+    public void setOutboundAckTimeout(int outboundAckTimeout) {
+        this.outboundAckTimeout = outboundAckTimeout;
+    }
+
+    public int getOutboundAckRetries() {
+        return outboundAckRetries;
+    }
+    public void setOutboundAckRetries(int outboundAckRetries) {
+        this.outboundAckRetries = outboundAckRetries;
+    }
+
+    public int getMessageHistoryCapacity() {
+        return messageHistoryCapacity;
+    }
+    public void setMessageHistoryCapacity(int messageHistoryCapacity) {
+        this.messageHistoryCapacity = messageHistoryCapacity;
+    }
+
+    public int getOfflineMailboxCapacity() {
+        return offlineMailboxCapacity;
+    }
+    public void setOfflineMailboxCapacity(int offlineMailboxCapacity) {
+        this.offlineMailboxCapacity = offlineMailboxCapacity;
+    }
+
+    public String getOfflineMailboxDirectory() {
+        return offlineMailboxDirectory;
+    }
+    public void setOfflineMailboxDirectory(String offlineMailboxDirectory) {
+        this.offlineMailboxDirectory = offlineMailboxDirectory;
+    }
+
+    public int getOfflineMailboxSpillCapacity() {
+        return offlineMailboxSpillCapacity;
+    }
+    public void setOfflineMailboxSpillCapacity(int offlineMailboxSpillCapacity) {
+        this.offlineMailboxSpillCapacity = offlineMailboxSpillCapacity;
+    }
+
+    public int getOfflineMailboxIdleTimeout() {
+        return offlineMailboxIdleTimeout;
+    }
+    public void setOfflineMailboxIdleTimeout(int offlineMailboxIdleTimeout) {
+        this.offlineMailboxIdleTimeout = offlineMailboxIdleTimeout;
+    }
+
+    public int getOfflineMailboxMaxCount() {
+        return offlineMailboxMaxCount;
+    }
+    public void setOfflineMailboxMaxCount(int offlineMailboxMaxCount) {
+        this.offlineMailboxMaxCount = offlineMailboxMaxCount;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append(getClass().getSimpleName()).append("[")
                .append("serviceId=").append(serviceId)
                .append(", inboundQueueCapacity=").append(inboundQueueCapacity)
+               .append(", inboundWaitStrategy=").append(inboundWaitStrategy)
+               .append(", inboundWorkerCount=").append(inboundWorkerCount)
+               .append(", inboundQueueHighWaterMark=").append(inboundQueueHighWaterMark)
+               .append(", inboundQueueLowWaterMark=").append(inboundQueueLowWaterMark)
+               .append(", journalDirectory=").append(journalDirectory)
+               .append(", journalSegmentSize=").append(journalSegmentSize)
+               .append(", journalCommitInterval=").append(journalCommitInterval)
+               .append(", priorityScheduling=").append(priorityScheduling)
+               .append(", priorityWeights=").append(Arrays.toString(priorityWeights))
                .append(", outboundQueueCapacity=").append(outboundQueueCapacity)
                .append(", outboundServerPort=").append(outboundServerPort)
                .append(", outboundServerType=").append(outboundServerType)
                .append(", outboundServerWsUri=").append(outboundServerWsUri)
+               .append(", outboundWorkerThreads=").append(outboundWorkerThreads)
+               .append(", outboundBatchSize=").append(outboundBatchSize)
+               .append(", outboundFlushDelay=").append(outboundFlushDelay)
+               .append(", outboundWriteBufferLowWaterMark=").append(outboundWriteBufferLowWaterMark)
+               .append(", outboundWriteBufferHighWaterMark=").append(outboundWriteBufferHighWaterMark)
+               .append(", outboundOverflowPolicy=").append(outboundOverflowPolicy)
+               .append(", outboundOverflowBlockTimeout=").append(outboundOverflowBlockTimeout)
+               .append(", outboundSpillDirectory=").append(outboundSpillDirectory)
+               .append(", outboundSpillCapacity=").append(outboundSpillCapacity)
+               .append(", outboundConflation=").append(outboundConflation)
+               .append(", outboundMemoryBudget=").append(outboundMemoryBudget)
+               .append(", outboundCodec=").append(outboundCodec)
+               .append(", outboundCodecs=").append(outboundCodecs)
+               .append(", outboundMaxSubscriptions=").append(outboundMaxSubscriptions)
+               .append(", outboundAckWindow=").append(outboundAckWindow)
+               .append(", outboundAckTimeout=").append(outboundAckTimeout)
+               .append(", outboundAckRetries=").append(outboundAckRetries)
+               .append(", messageHistoryCapacity=").append(messageHistoryCapacity)
+               .append(", offlineMailboxCapacity=").append(offlineMailboxCapacity)
+               .append(", offlineMailboxDirectory=").append(offlineMailboxDirectory)
+               .append(", offlineMailboxSpillCapacity=").append(offlineMailboxSpillCapacity)
+               .append(", offlineMailboxIdleTimeout=").append(offlineMailboxIdleTimeout)
+               .append(", offlineMailboxMaxCount=").append(offlineMailboxMaxCount)
                .append("]");
         return builder.toString();
     }
@@ -0,0 +1,21 @@
+package chess.push.server.property;
+
+/**
+ * Inbound/Outbound Server와 클러스터 peer link가 사용하는 Netty transport 정의
+ */
+public enum TransportType {
+
+    /**
+     * native epoll transport를 사용할 수 있으면 EPOLL, 아니면 NIO 사용
+     */
+    AUTO,
+    /**
+     * JDK NIO transport (모든 플랫폼에서 사용 가능)
+     */
+    NIO,
+    /**
+     * Linux native epoll transport (SO_REUSEPORT, edge-triggered 모드 지원, 사용할 수 없으면 NIO 사용)
+     */
+    EPOLL;
+
+}
@@ -0,0 +1,21 @@
+package chess.push.server.property;
+
+/**
+ * InboundQueue 소비 쓰레드가 큐가 비어 있을 때 대기하는 방식 정의
+ */
+public enum WaitStrategyType {
+
+    /**
+     * 메시지가 추가될 때까지 쓰레드를 park (CPU 사용 최소, 깨어나는 지연 존재)
+     */
+    BLOCKING,
+    /**
+     * 쓰레드를 양보하지 않고 계속 확인 (지연 최소, CPU 코어 하나를 점유)
+     */
+    SPINNING,
+    /**
+     * 일정 횟수 확인 후 Thread.yield()로 양보 (지연과 CPU 사용의 절충)
+     */
+    YIELDING;
+
+}
@@ -0,0 +1,42 @@
+package chess.push.server.queue;
+
+import chess.push.common.PushMessage;
+import chess.push.server.journal.JournalRecord;
+
+/**
+ * InboundQueueWorker의 큐에 보관되는 전달 단위<br>
+ * -Push 메시지와 함께, journal이 설정된 경우 메시지가 기록된 journal 레코드를 보관
+ */
+class InboundMessage {
+
+    private final PushMessage pushMessage;	// Push 메시지
+    private final JournalRecord record;		// 메시지가 기록된 journal 레코드 (journal을 사용하지 않으면 null)
+
+    /**
+     * constructor with parameters
+     * @param pushMessage Push 메시지
+     * @param record 메시지가 기록된 journal 레코드 (없으면 null)
+     */
+    InboundMessage(PushMessage pushMessage, JournalRecord record) {
+        this.pushMessage = pushMessage;
+        this.record = record;
+    }
+
+    /**
+     * Push 메시지를 반환한다.
+     * @return Push 메시지
+     */
+    PushMessage pushMessage() {
+        return pushMessage;
+    }
+
+    /**
+     * 메시지가 OutboundQueue로 전달(또는 폐기)되었음을 journal 레코드에 반영한다.
+     */
+    void dispatched() {
+        if (record != null) {
+            record.release();
+        }
+    }
+
+}
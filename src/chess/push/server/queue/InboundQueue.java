@@ -1,56 +1,392 @@
 package chess.push.server.queue;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import chess.push.common.PushMessage;
+import chess.push.server.cluster.ClusterNode;
+import chess.push.server.cluster.ForwardResult;
+import chess.push.server.journal.Journal;
+import chess.push.server.journal.JournalRecord;
+import chess.push.server.property.PushServiceProperty;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
 
 /**
  * Inbound Server가 수신하는 메시지를 Service ID에 따라 보관하는 큐<br>
  * -Service ID에 따라 개별 인스턴스 존재<br>
- * -큐에 담긴 메시지를 OutboundQueue로 전달하기 위한 쓰레드 동작
+ * -큐에 담긴 메시지를 OutboundQueue로 전달하기 위해 inboundWorkerCount개의 InboundQueueWorker 쓰레드 동작<br>
+ * -개별 메시지와 topic 메시지는 클라이언트ID, topic 순으로 정한 partition key의 hash에 따라 하나의 worker에 할당되므로 대상별 순서 보장<br>
+ * -worker는 우선순위별 lane을 두며, 같은 우선순위의 메시지 사이에서만 순서 보장<br>
+ * -전체 대상 메시지와 그룹 대상 메시지(클라이언트ID 없음)는 모든 worker에 추가되며, 각 worker는 자신의 파티션에 속한 채널에만 전달<br>
+ * -여러 대상 메시지(clientIds, groupIds)는 clientIds의 파티션에 해당하는 worker에 추가되고, groupIds가 있으면 모든 worker에 추가되며,
+ * &nbsp;각 worker는 자신의 파티션에 속한 대상 채널에만 전달<br>
+ * &nbsp;(채널의 partition key는 클라이언트ID, 그룹ID, 채널ID 순으로 정하므로 같은 클라이언트에 대한 개별/그룹/전체 메시지의 순서 유지,
+ * &nbsp;topic 메시지는 같은 topic의 메시지 사이에서만 순서 보장)<br>
+ * -worker lane 중 하나라도 high water mark를 넘으면 송신자 채널의 autoRead를 중지하여 TCP 흐름 제어로 송신 속도를 늦추고,
+ * &nbsp;모든 worker lane이 low water mark 아래로 내려가면 재개<br>
+ * -클러스터 모드에서 peer link의 전송이 밀리면 메시지를 다른 노드로 전달하는 송신자 채널의 autoRead도 중지하고, peer link가 다시 writable 상태가 되면 재개<br>
+ * -ttl이 지정된 메시지는 추가 시점에 만료 시각을 정하고, 추가 시점과 worker가 전달하기 직전에 만료된 메시지를 버림<br>
+ * -journalDirectory가 설정된 경우 추가되는 메시지를 journal에 기록하고, 기동시 전달되지 않은 메시지를 replay<br>
+ * -messageHistoryCapacity가 설정된 경우 추가되는 메시지에 서비스 단위 sequence를 부여하여 history에 보관하며,
+ * &nbsp;journal 기록은 lock 밖에서 처리하고, sequence 부여와 대기하지 않는 worker 큐 추가만 history 단위로 동기화하여
+ * &nbsp;worker 큐 내의 순서와 sequence 순서를 일치시킴<br>
+ * -클러스터 모드에서는 추가되는 메시지를 대상이 등록된 다른 노드에 전달하고, 다른 노드에서 전달받은 메시지는 다시 전달하지 않음
  */
-public class InboundQueue extends Thread {
+public class InboundQueue {
 
     private static final Logger LOG = LoggerFactory.getLogger(InboundQueue.class);
 
-    private final String serviceId;								// Push Service ID
-    private final BlockingQueue<PushMessage> queue;				// message queue
-    private final int capacity;									// message queue capacity
-    private final OutboundQueueManager outboundQueueManager;	// OutboundQueue 인스턴스 관리자
+    private final String serviceId;					// Push Service ID
+    private final InboundQueueWorker[] workers;		// 파티션별 전달 쓰레드
+    private final int highWaterMark;				// worker lane별 송신자 채널 읽기 중지 기준 메시지 수
+    private final int lowWaterMark;					// worker lane별 송신자 채널 읽기 재개 기준 메시지 수
+    private final Map<Channel, Boolean> suspendedChannels;	// autoRead가 중지된 송신자 채널과 peer link 전송을 기다리는지 여부
+    private final ChannelFutureListener closeListener;	// 중지된 송신자 채널이 닫히면 collection에서 제거하는 listener
+    private final LongAdder expired;				// 만료되어 버려진 메시지 수
+    private final Journal journal;					// write-ahead journal (journalDirectory가 설정되지 않으면 null)
+    private final MessageHistory history;			// sequence 부여 및 최근 메시지 보관 (messageHistoryCapacity가 0이면 null)
+    private final AtomicLong ackIds;				// ack 모드에서 메시지에 부여할 ackId (outboundAckWindow가 0이면 null)
+    private volatile ClusterNode clusterNode;		// 다른 노드로 메시지를 전달할 클러스터 노드 (단독 모드이면 null)
 
     /**
      * constructor with parameters
-     * @param serviceId Push Service ID
-     * @param capacity message queue capacity
+     * @param property Push Service property
      * @param outboundQueueManager OutboundQueue 인스턴스 관리자
      */
-    public InboundQueue(String serviceId, int capacity, OutboundQueueManager outboundQueueManager) {
-        this.serviceId = serviceId;
-        this.capacity = capacity;
-        this.queue = new LinkedBlockingQueue<PushMessage>(capacity);
-        this.outboundQueueManager = outboundQueueManager;
+    public InboundQueue(PushServiceProperty property, OutboundQueueManager outboundQueueManager) {
+        this.serviceId = property.getServiceId();
+
+        int workerCount = property.getInboundWorkerCount();
+        int workerCapacity = (property.getInboundQueueCapacity() + workerCount - 1) / workerCount;
+        this.workers = new InboundQueueWorker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new InboundQueueWorker(this, i, workerCount, workerCapacity, property, outboundQueueManager);
+        }
+
+        int actualCapacity = workers[0].laneCapacity();
+        this.highWaterMark = (int) ((long) actualCapacity * property.getInboundQueueHighWaterMark() / 100);
+        this.lowWaterMark = (int) ((long) actualCapacity * property.getInboundQueueLowWaterMark() / 100);
+        this.suspendedChannels = new ConcurrentHashMap<Channel, Boolean>();
+        this.closeListener = future -> suspendedChannels.remove(future.channel());
+        this.expired = new LongAdder();
+        this.journal = property.getJournalDirectory() != null ? new Journal(property) : null;
+        this.history = outboundQueueManager.history(serviceId);
+        // 재시작 이후에도 이전 ackId와 겹치지 않도록 현재 시각 기준으로 시작
+        this.ackIds = property.getOutboundAckWindow() > 0 ? new AtomicLong(System.currentTimeMillis() * 1000) : null;
     }
 
     /**
-     * 큐에 메시지를 추가한다.
+     * 큐의 서비스ID를 반환한다.
+     * @return 서비스ID
+     */
+    public String serviceId() {
+        return serviceId;
+    }
+
+    /**
+     * 다른 노드로 메시지를 전달할 클러스터 노드를 설정한다.
+     * @param clusterNode 클러스터 노드
+     */
+    public void setClusterNode(ClusterNode clusterNode) {
+        this.clusterNode = clusterNode;
+    }
+
+    /**
+     * 큐에 메시지를 추가한다.<br>
+     * -클러스터 모드이면 대상이 등록된 다른 노드에 전달하고, 로컬 노드에서 처리할 필요가 없으면 추가하지 않음<br>
+     * -partition key에 해당하는 worker의 큐에 추가하고, partition key가 없는 전체 대상 메시지는 모든 worker의 큐에 추가<br>
+     * -만료 시각 없이 ttl만 지정된 경우 현재 시각 기준으로 만료 시각을 설정하고, 이미 만료된 메시지는 추가하지 않음<br>
+     * -journal을 사용하는 경우 worker의 큐에 추가하기 전에 journal에 기록 (기록에 실패해도 전달은 계속)<br>
+     * -ack 모드이면 모든 대상 채널이 같은 값을 사용하도록 추가 전에 서비스 단위로 증가하는 ackId를 부여<br>
+     * &nbsp;(다른 노드에는 ackId 없이 전달하고, 메시지를 채널에 전송하는 노드가 부여하므로 노드간에 겹치지 않음)
+     * @param message Push 메시지
+     * @return 큐에 추가하지 못했거나 다른 노드에 전달하지 못한 경우 false
+     */
+    public boolean enqueue(PushMessage message) {
+        return enqueue(message, true);
+    }
+
+    /**
+     * 다른 노드에서 전달받은 메시지를 다시 전달하지 않고 큐에 추가한다.
      * @param message Push 메시지
+     * @return 큐에 추가하지 못한 경우 false
      */
-    public void enqueue(PushMessage message) {
+    public boolean enqueueForwarded(PushMessage message) {
+        return enqueue(message, false);
+    }
+
+    private boolean enqueue(PushMessage message, boolean forward) {
         if (message == null || !serviceId.equals(message.getServiceId())) {
             LOG.error("[InboundQueue:{}] invalid message {}", serviceId, message);
-            return;
+            return false;
+        }
+        if (message.isMultiTarget() && !isValidMultiTarget(message)) {
+            LOG.error("[InboundQueue:{}] invalid multi-target message {}", serviceId, message);
+            return false;
+        }
+        if (message.getTopic() != null && !isValidTopic(message)) {
+            LOG.error("[InboundQueue:{}] invalid topic message {}", serviceId, message);
+            return false;
         }
 
-        boolean result = queue.offer(message);
+        if (message.getExpireAt() != null || message.getTtl() != null) {
+            long now = System.currentTimeMillis();
+            if (message.getExpireAt() == null) {
+                message.setExpireAt(now + message.getTtl());
+            }
+            if (message.isExpired(now)) {
+                expired(message);
+                return false;
+            }
+        }
+
+        ClusterNode node = forward ? clusterNode : null;
+        ForwardResult forwardResult = node != null ? node.forward(message) : ForwardResult.LOCAL;
+        if (!forwardResult.isLocal()) {
+            if (forwardResult.isDropped()) {
+                LOG.error("[InboundQueue:{}] failed to forward {}", serviceId, message);
+                return false;
+            }
+            LOG.info("[InboundQueue:{}] forwarded {}", serviceId, message);
+            return true;
+        }
+        if (forwardResult.isDropped()) {
+            LOG.error("[InboundQueue:{}] failed to forward to some nodes {}", serviceId, message);
+        }
+
+        // 다른 노드에 전달한 메시지는 그 노드가 ackId를 부여하므로 로컬 노드에서 처리하는 경우에만 부여
+        message.setAckId(ackIds != null ? ackIds.incrementAndGet() : null);
+
+        boolean result = dispatch(message);
+
         if (result) {
             LOG.info("[InboundQueue:{}] enqueued {}", serviceId, message);
         } else {
             LOG.error("[InboundQueue:{}] failed to enqueue {}", serviceId, message);
         }
+        return result && !forwardResult.isDropped();
+    }
+
+    // 여러 대상 메시지는 clientId, groupId 없이 null이 아닌 대상을 하나 이상 지정해야 함
+    private static boolean isValidMultiTarget(PushMessage message) {
+        if (message.getClientId() != null || message.getGroupId() != null) {
+            return false;
+        }
+        int count = 0;
+        for (Set<String> targets : Arrays.asList(message.getClientIds(), message.getGroupIds())) {
+            if (targets != null) {
+                if (targets.contains(null)) {
+                    return false;
+                }
+                count += targets.size();
+            }
+        }
+        return count > 0;
+    }
+
+    // topic 메시지는 clientId, groupId, 여러 대상 없이 wildcard를 포함하지 않는 topic을 지정해야 함
+    private static boolean isValidTopic(PushMessage message) {
+        return message.getClientId() == null && message.getGroupId() == null && !message.isMultiTarget() && TopicTrie.isValidTopic(message.getTopic());
+    }
+
+    private boolean dispatch(PushMessage message) {
+        boolean[] partitions = targetPartitions(message);
+        InboundMessage inboundMessage = new InboundMessage(message, append(message, count(partitions)));
+        if (history == null) {
+            return offer(partitions, inboundMessage);
+        }
+
+        // journal 기록은 lock 밖에서 처리하고, worker 큐 추가는 대기하지 않으므로 sequence 부여와 같은 lock 안에서 처리하여 순서 일치
+        // (replay되는 메시지는 sequence를 다시 부여받으므로 journal에는 sequence 없이 기록되어도 무방)
+        synchronized (history) {
+            history.record(message);
+            return offer(partitions, inboundMessage);
+        }
+    }
+
+    private boolean offer(boolean[] partitions, InboundMessage message) {
+        boolean result = true;
+        for (int i = 0; i < workers.length; i++) {
+            if (partitions[i]) {
+                result &= offer(workers[i], message);
+            }
+        }
+        return result;
+    }
+
+    // 메시지를 추가할 worker의 파티션 번호를 index로 하여 추가 대상이면 true인 배열
+    private boolean[] targetPartitions(PushMessage message) {
+        if (message.isMultiTarget() && workers.length > 1) {
+            return partitions(message, workers.length);
+        }
+
+        String partitionKey = partitionKey(message);
+        boolean[] partitions = new boolean[workers.length];
+        if (partitionKey != null || workers.length == 1) {
+            partitions[partition(partitionKey, workers.length)] = true;
+        } else {
+            Arrays.fill(partitions, true);
+        }
+        return partitions;
+    }
+
+    private JournalRecord append(PushMessage message, int count) {
+        if (journal == null) {
+            return null;
+        }
+        try {
+            return journal.append(message, count);
+        } catch (IOException e) {
+            LOG.error("[InboundQueue:{}] failed to append to journal {}", serviceId, message, e);
+            return null;
+        }
+    }
+
+    private boolean offer(InboundQueueWorker worker, InboundMessage message) {
+        if (worker.offer(message)) {
+            return true;
+        }
+        // 큐에 추가하지 못한 메시지는 버려지므로 journal에 전달 완료로 반영
+        message.dispatched();
+        return false;
+    }
+
+    /**
+     * journal에 기록된 이전 기동시의 메시지 중 전달되지 않은 메시지를 기록 순서대로 worker의 큐에 다시 추가한다.<br>
+     * -worker 쓰레드가 기동된 후 Inbound Server 기동 전에 호출해야 함<br>
+     * -replay되는 메시지는 다시 기록하지 않고 원래 레코드에 전달 완료를 반영하며, worker의 큐가 가득 차면 공간이 생길 때까지 대기<br>
+     * -이전 기동시 부여된 ackId는 현재 기동의 ackId로 다시 부여하고, history를 사용하면 현재 기동의 sequence를 부여하여 history에 보관
+     */
+    public void replay() {
+        if (journal == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        journal.replay((message, record) -> {
+            if (message.isExpired(now)) {
+                expired(message);
+                return;
+            }
+
+            // Inbound Server와 ClusterNode 기동 전이므로 sequence 부여 후 lock 밖에서 worker 큐에 추가해도 sequence 순서 유지
+            // (journal은 sequence 부여 전에 기록되므로 history를 사용하지 않으면 송신자가 지정한 값 그대로 사용)
+            message.setAckId(ackIds != null ? ackIds.incrementAndGet() : null);
+            if (history != null) {
+                history.record(message);
+            }
+
+            boolean[] partitions = targetPartitions(message);
+            record.retain(count(partitions));
+            InboundMessage inboundMessage = new InboundMessage(message, record);
+            for (int i = 0; i < workers.length; i++) {
+                if (partitions[i]) {
+                    offerUntilAccepted(workers[i], inboundMessage);
+                }
+            }
+        });
+    }
+
+    private void offerUntilAccepted(InboundQueueWorker worker, InboundMessage message) {
+        while (!worker.offer(message)) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+        }
+    }
+
+    /**
+     * 만료된 메시지를 버린 것으로 집계한다.
+     * @param message 만료된 Push 메시지
+     */
+    void expired(PushMessage message) {
+        expired.increment();
+        LOG.info("[InboundQueue:{}] expired {}", serviceId, message);
+    }
+
+    /**
+     * worker lane 중 하나라도 high water mark를 넘었는지 여부를 반환한다.
+     * @return high water mark를 넘은 worker lane이 있으면 true
+     */
+    public boolean isAboveHighWaterMark() {
+        for (InboundQueueWorker worker : workers) {
+            if (worker.fullestLaneSize() >= highWaterMark) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBelowLowWaterMark() {
+        for (InboundQueueWorker worker : workers) {
+            if (worker.fullestLaneSize() > lowWaterMark) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 클러스터 모드에서 연결된 peer link 중 전송이 밀린 link가 있는지 여부를 반환한다.
+     * @return 다른 노드로 전달할 수 없는 상태이면 true
+     */
+    public boolean isForwardBlocked() {
+        ClusterNode node = clusterNode;
+        return node != null && node.isForwardBlocked();
+    }
+
+    /**
+     * 송신자 채널의 autoRead를 중지하여 큐가 비워질 때까지 더 이상 메시지를 읽지 않도록 한다.<br>
+     * -다른 노드에서 전달받은 메시지는 다시 전달하지 않으므로, peer link 채널은 peer link 전송을 기다리지 않음
+     * &nbsp;(기다리면 서로의 peer link를 읽지 않는 노드 사이에 교착이 생길 수 있음)
+     * @param channel Inbound Server에 연결된 송신자 채널 또는 다른 노드의 peer link 채널
+     * @param forwarding 채널에서 읽은 메시지를 다른 노드로 전달하면 true (peer link가 writable 상태가 될 때까지 재개하지 않음)
+     */
+    public void suspend(Channel channel, boolean forwarding) {
+        channel.config().setAutoRead(false);
+        if (suspendedChannels.putIfAbsent(channel, forwarding) == null) {
+            LOG.warn("[InboundQueue:{}] suspended reading from {}, {}", serviceId, channel, status());
+            // 재개 전에 채널이 닫히면 collection에 남지 않도록 제거
+            channel.closeFuture().addListener(closeListener);
+        }
+
+        // 중지 직전에 큐가 비워진 경우 재개 시점을 놓치지 않도록 다시 확인
+        resumeIfDrained();
+    }
+
+    /**
+     * 모든 worker lane이 low water mark 아래로 내려갔으면 중지된 송신자 채널의 autoRead를 재개한다.<br>
+     * -InboundQueueWorker가 메시지를 일괄 전달한 후, 또는 peer link가 다시 writable 상태가 되거나 해제되었을 때 호출<br>
+     * -다른 노드로 메시지를 전달하는 채널은 peer link의 전송이 밀려 있는 동안 재개하지 않음
+     */
+    public void resumeIfDrained() {
+        if (suspendedChannels.isEmpty() || !isBelowLowWaterMark()) {
+            return;
+        }
+
+        boolean forwardBlocked = isForwardBlocked();
+        Iterator<Map.Entry<Channel, Boolean>> iterator = suspendedChannels.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Channel, Boolean> entry = iterator.next();
+            if (entry.getValue() && forwardBlocked) {
+                continue;
+            }
+            Channel channel = entry.getKey();
+            iterator.remove();
+            channel.closeFuture().removeListener(closeListener);
+            channel.config().setAutoRead(true);
+            LOG.info("[InboundQueue:{}] resumed reading from {}", serviceId, channel);
+        }
     }
 
     /**
@@ -58,47 +394,90 @@ public class InboundQueue extends Thread {
      * @return 큐 상태 문자열
      */
     public String status() {
-        return "capacity: " + capacity + ", current: " + queue.size();
+        int capacity = 0;
+        int current = 0;
+        for (InboundQueueWorker worker : workers) {
+            capacity += worker.capacity();
+            current += worker.size();
+        }
+        return "workers: " + workers.length + ", capacity: " + capacity + ", current: " + current + ", suspended: " + suspendedChannels.size()
+                + ", expired: " + expired.sum();
     }
 
     /**
-     * InboundQueue 쓰레드가 종료되도록 한다.
+     * InboundQueueWorker 쓰레드들과 journal을 기동한다.
      */
-    public void shutdown() {
-        this.interrupt();
+    public void start() {
+        if (journal != null) {
+            journal.start();
+        }
+        for (InboundQueueWorker worker : workers) {
+            worker.start();
+        }
     }
 
     /**
-     * 큐에서 메시지를 추출하여 MessageBroker에 전달한다.
-     * @see java.lang.Thread#run()
+     * InboundQueueWorker 쓰레드들이 종료되도록 하고 journal을 닫는다.<br>
+     * -전달되지 않은 메시지는 journal에 남아 다음 기동시 replay
      */
-    @Override
-    public void run() {
-        setName("InboundQueueThread:" + serviceId);
+    public void shutdown() {
+        for (InboundQueueWorker worker : workers) {
+            worker.shutdown();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
 
-        LOG.info("[{}] started", getName());
+    /**
+     * 메시지의 partition key를 반환한다.<br>
+     * -그룹 대상 메시지는 그룹에 속한 채널마다 partition key가 다르므로 전체 대상 메시지와 같이 모든 worker에 추가
+     * @param message Push 메시지
+     * @return 클라이언트ID, topic 순으로 null이 아닌 값 (전체 또는 그룹 대상 메시지이면 null)
+     */
+    static String partitionKey(PushMessage message) {
+        return message.getClientId() != null ? message.getClientId() : message.getTopic();
+    }
 
-        PushMessage message = null;
-        while (!isInterrupted()) {
-            try {
-                message = queue.take();
-                LOG.info("[{}] take {}", getName(), message);
-            } catch (InterruptedException e) {
-                break;
-            }
+    /**
+     * 여러 대상 메시지의 대상이 속하는 파티션들을 반환한다.
+     * @param message 여러 대상 메시지
+     * @param partitionCount 전체 파티션 수
+     * @return 파티션 번호를 index로 하여 대상이 속하면 true인 배열 (groupIds가 있으면 모든 파티션)
+     */
+    static boolean[] partitions(PushMessage message, int partitionCount) {
+        boolean[] partitions = new boolean[partitionCount];
+        if (message.getGroupIds() != null && !message.getGroupIds().isEmpty()) {
+            Arrays.fill(partitions, true);
+            return partitions;
+        }
+        if (message.getClientIds() != null) {
+            message.getClientIds().forEach(clientId -> partitions[partition(clientId, partitionCount)] = true);
+        }
+        return partitions;
+    }
 
-            if (message != null) {
-                try {
-                    outboundQueueManager.transfer(message);
-                } catch (Exception e) {
-                    LOG.error("[" + getName() + "] failed to transfer " + message, e);
-                } finally {
-                    message = null;
-                }
+    private static int count(boolean[] partitions) {
+        int count = 0;
+        for (boolean partition : partitions) {
+            if (partition) {
+                count++;
             }
         }
+        return count;
+    }
 
-        LOG.info("[{}] shutdown", getName());
+    /**
+     * partition key에 해당하는 파티션 번호를 반환한다.
+     * @param partitionKey partition key
+     * @param partitionCount 전체 파티션 수
+     * @return 파티션 번호
+     */
+    static int partition(String partitionKey, int partitionCount) {
+        if (partitionKey == null || partitionCount == 1) {
+            return 0;
+        }
+        return Math.floorMod(partitionKey.hashCode(), partitionCount);
     }
 
 }
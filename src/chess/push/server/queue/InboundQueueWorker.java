@@ -0,0 +1,198 @@
+package chess.push.server.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushMessage;
+import chess.push.server.property.PushServiceProperty;
+
+/**
+ * InboundQueue의 파티션 하나를 담당하는 전달 쓰레드<br>
+ * -파티션마다 우선순위별 lock-free MPSC 링 버퍼(lane)를 두고, 추출한 메시지를 일괄로 OutboundQueue 관리자에게 전달<br>
+ * &nbsp;(inboundQueueCapacity를 worker 수로 나눈 용량이 lane마다 적용되므로 worker 전체에는 최대 lane 수만큼의 배수까지 보관)<br>
+ * -lane에서 메시지를 추출하는 순서는 priorityScheduling 설정에 따름<br>
+ * -전체 대상 메시지는 자신의 파티션에 속한 채널에만 전달<br>
+ * -추출한 메시지 중 만료된 메시지는 전달하지 않고 버림<br>
+ * -일괄 전달 후 InboundQueue에 중지된 송신자 채널의 재개 여부 확인을 요청
+ */
+public class InboundQueueWorker extends Thread {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InboundQueueWorker.class);
+
+    /**
+     * 한 번에 추출하여 전달하는 최대 메시지 수
+     */
+    public static final int DRAIN_BATCH_SIZE = 256;
+
+    private final InboundQueue inboundQueue;					// 소속 InboundQueue
+    private final String serviceId;								// Push Service ID
+    private final int partition;								// 담당 파티션 번호
+    private final int partitionCount;							// 전체 파티션 수
+    private final MpscRingBuffer<InboundMessage>[] lanes;		// 우선순위별 message queue
+    private final PriorityScheduler scheduler;					// 다음에 추출할 lane 결정
+    private final IntPredicate laneEmpty;						// lane이 비어 있는지 확인하는 함수
+    private final BooleanSupplier empty;						// 모든 lane이 비어 있는지 확인하는 함수
+    private final WaitStrategy waitStrategy;					// 큐가 비어 있을 때 대기 방식
+    private final OutboundQueueManager outboundQueueManager;	// OutboundQueue 인스턴스 관리자
+
+    /**
+     * constructor with parameters
+     * @param inboundQueue 소속 InboundQueue
+     * @param partition 담당 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     * @param capacity lane별 message queue capacity
+     * @param property Push Service property
+     * @param outboundQueueManager OutboundQueue 인스턴스 관리자
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public InboundQueueWorker(InboundQueue inboundQueue, int partition, int partitionCount, int capacity, PushServiceProperty property,
+            OutboundQueueManager outboundQueueManager) {
+        this.inboundQueue = inboundQueue;
+        this.serviceId = inboundQueue.serviceId();
+        this.partition = partition;
+        this.partitionCount = partitionCount;
+        this.lanes = new MpscRingBuffer[PriorityScheduler.LANE_COUNT];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new MpscRingBuffer<InboundMessage>(capacity);
+        }
+        this.scheduler = new PriorityScheduler(property.getPriorityScheduling(), property.getPriorityWeights());
+        this.laneEmpty = lane -> lanes[lane].isEmpty();
+        this.empty = this::isEmpty;
+        this.waitStrategy = WaitStrategy.newInstance(property.getInboundWaitStrategy());
+        this.outboundQueueManager = outboundQueueManager;
+    }
+
+    /**
+     * 메시지의 우선순위에 해당하는 lane에 메시지를 추가한다.
+     * @param message 전달 단위 메시지
+     * @return lane이 가득 차서 추가하지 못한 경우 false
+     */
+    boolean offer(InboundMessage message) {
+        if (!lanes[PriorityScheduler.lane(message.pushMessage())].offer(message)) {
+            return false;
+        }
+        waitStrategy.signal();
+        return true;
+    }
+
+    private boolean isEmpty() {
+        for (MpscRingBuffer<InboundMessage> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 모든 lane에 보관중인 메시지 수를 반환한다.
+     * @return 메시지 수
+     */
+    int size() {
+        int size = 0;
+        for (MpscRingBuffer<InboundMessage> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    /**
+     * 가장 많이 찬 lane에 보관중인 메시지 수를 반환한다.
+     * @return 메시지 수
+     */
+    int fullestLaneSize() {
+        int size = 0;
+        for (MpscRingBuffer<InboundMessage> lane : lanes) {
+            size = Math.max(size, lane.size());
+        }
+        return size;
+    }
+
+    /**
+     * 모든 lane의 용량 합계를 반환한다.
+     * @return 큐 용량
+     */
+    int capacity() {
+        return laneCapacity() * lanes.length;
+    }
+
+    /**
+     * lane별 용량을 반환한다.
+     * @return lane 용량
+     */
+    int laneCapacity() {
+        return lanes[0].capacity();
+    }
+
+    /**
+     * InboundQueueWorker 쓰레드가 종료되도록 한다.
+     */
+    public void shutdown() {
+        this.interrupt();
+    }
+
+    /**
+     * 우선순위에 따라 lane에서 메시지를 일괄 추출하여 OutboundQueue 관리자에게 전달한다.
+     * @see java.lang.Thread#run()
+     */
+    @Override
+    public void run() {
+        setName("InboundQueueThread:" + serviceId + ":" + partition);
+
+        LOG.info("[{}] started", getName());
+
+        List<InboundMessage> drained = new ArrayList<InboundMessage>(DRAIN_BATCH_SIZE);
+        List<PushMessage> batch = new ArrayList<PushMessage>(DRAIN_BATCH_SIZE);
+        while (!isInterrupted()) {
+            if (drainTo(drained, batch) == 0) {
+                try {
+                    waitStrategy.await(empty);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                continue;
+            }
+
+            LOG.debug("[{}] take {} messages", getName(), batch.size());
+            try {
+                if (!batch.isEmpty()) {
+                    outboundQueueManager.transfer(batch, partition, partitionCount);
+                }
+            } finally {
+                // 만료된 메시지를 포함하여 추출한 모든 메시지의 전달 완료를 journal에 반영
+                drained.forEach(InboundMessage::dispatched);
+                drained.clear();
+                batch.clear();
+            }
+
+            inboundQueue.resumeIfDrained();
+        }
+
+        LOG.info("[{}] shutdown", getName());
+    }
+
+    private int drainTo(List<InboundMessage> drained, List<PushMessage> batch) {
+        long now = System.currentTimeMillis();
+        int lane = -1;
+        while (drained.size() < DRAIN_BATCH_SIZE && (lane = scheduler.next(laneEmpty)) >= 0) {
+            InboundMessage message = lanes[lane].poll();
+            if (message == null) {
+                // 생산자가 슬롯을 확보했지만 아직 공개하지 않은 경우
+                break;
+            }
+            drained.add(message);
+            if (message.pushMessage().isExpired(now)) {
+                inboundQueue.expired(message.pushMessage());
+            } else {
+                batch.add(message.pushMessage());
+            }
+        }
+        return drained.size();
+    }
+
+}
@@ -0,0 +1,69 @@
+package chess.push.server.queue;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+import chess.push.common.PushMessage;
+import chess.push.server.property.PushServiceProperty;
+
+/**
+ * 서비스 단위로 메시지에 sequence를 부여하고 최근 메시지를 보관하는 history ring<br>
+ * -sequence는 기동 시각(밀리초) * 1000부터 시작하여 1씩 증가하므로 재기동 후에도 이전 sequence보다 큰 값으로 부여<br>
+ * -최근 messageHistoryCapacity개의 메시지만 보관하고 오래된 메시지는 덮어씀<br>
+ * -sequence 부여와 InboundQueueWorker 큐 추가, 재연결시 인덱스 갱신 및 조회가 같은 순서로 관찰되도록 인스턴스로 동기화<br>
+ * &nbsp;(lock 안에서는 대기하지 않는 worker 큐 추가만 처리하고 journal 기록은 lock 밖에서 처리)
+ */
+class MessageHistory {
+
+    private final PushMessage[] ring;	// 최근 메시지 보관 ring
+    private long sequence;				// 마지막으로 부여한 sequence
+
+    /**
+     * constructor with a parameter
+     * @param property Push Service property
+     */
+    MessageHistory(PushServiceProperty property) {
+        this.ring = new PushMessage[property.getMessageHistoryCapacity()];
+        this.sequence = System.currentTimeMillis() * 1000L;
+    }
+
+    /**
+     * 메시지에 다음 sequence를 부여하고 history에 보관한다.
+     * @param pushMessage Push 메시지
+     */
+    synchronized void record(PushMessage pushMessage) {
+        pushMessage.setSequence(++sequence);
+        ring[index(sequence)] = pushMessage;
+    }
+
+    /**
+     * 지정한 sequence 이후에 부여된 메시지 중 조건에 맞는 메시지를 sequence 순서대로 수집한다.
+     * @param after 클라이언트가 마지막으로 수신한 sequence
+     * @param filter 수집할 메시지 조건
+     * @param result 수집한 메시지를 담을 collection
+     * @return history에 보관된 범위를 벗어나 일부 메시지를 수집하지 못했으면 true
+     */
+    synchronized boolean collect(long after, Predicate<PushMessage> filter, Collection<PushMessage> result) {
+        long oldest = Math.max(sequence - ring.length + 1, after + 1);
+        for (long seq = oldest; seq <= sequence; seq++) {
+            PushMessage pushMessage = ring[index(seq)];
+            if (pushMessage != null && pushMessage.getSequence() == seq && filter.test(pushMessage)) {
+                result.add(pushMessage);
+            }
+        }
+        return oldest > after + 1;
+    }
+
+    /**
+     * 마지막으로 부여한 sequence를 반환한다.
+     * @return sequence
+     */
+    synchronized long sequence() {
+        return sequence;
+    }
+
+    private int index(long seq) {
+        return (int) (seq % ring.length);
+    }
+
+}
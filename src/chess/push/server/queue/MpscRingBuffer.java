@@ -0,0 +1,141 @@
+package chess.push.server.queue;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 다중 생산자/단일 소비자(MPSC)용 고정 크기 lock-free 링 버퍼<br>
+ * -생성 시점에 슬롯 배열을 미리 할당하므로 메시지마다 노드를 생성하지 않음<br>
+ * -슬롯마다 sequence 값을 두어 생산자는 CAS로 위치를 확보하고, 소비자는 lock 없이 순서대로 추출<br>
+ * -용량은 2의 거듭제곱으로 올림하여 사용
+ * @param <E> 보관할 요소 타입
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;							// 링 버퍼 용량 (2의 거듭제곱)
+    private final int mask;								// 인덱스 계산용 mask
+    private final AtomicReferenceArray<E> elements;		// 요소 슬롯 배열
+    private final AtomicLongArray sequences;			// 슬롯별 sequence 배열
+    private final AtomicLong producerIndex;				// 다음에 추가할 위치 (생산자간 CAS)
+    private final AtomicLong consumerIndex;				// 다음에 추출할 위치 (소비자 전용, size 계산을 위해 공개)
+
+    /**
+     * constructor with a parameter
+     * @param requestedCapacity 요청 용량 (2의 거듭제곱으로 올림)
+     */
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("The capacity is invalid [" + requestedCapacity + "]");
+        }
+
+        this.capacity = roundToPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<E>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.producerIndex = new AtomicLong();
+        this.consumerIndex = new AtomicLong();
+    }
+
+    /**
+     * 요소를 추가한다. (여러 쓰레드에서 동시 호출 가능)
+     * @param element 추가할 요소
+     * @return 버퍼가 가득 차서 추가하지 못한 경우 false
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+
+        for (;;) {
+            long index = producerIndex.get();
+            int offset = (int) index & mask;
+            long diff = sequences.get(offset) - index;
+            if (diff == 0) {
+                if (producerIndex.compareAndSet(index, index + 1)) {
+                    elements.lazySet(offset, element);
+                    // 대기중인 소비자가 바로 확인할 수 있도록 volatile write로 공개
+                    sequences.set(offset, index + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 요소를 하나 추출한다. (소비자 쓰레드 전용)
+     * @return 추출한 요소, 비어 있으면 null
+     */
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        if (sequences.get(offset) != index + 1) {
+            return null;
+        }
+
+        E element = elements.get(offset);
+        elements.lazySet(offset, null);
+        sequences.lazySet(offset, index + capacity);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * 최대 limit개의 요소를 추출하여 collection에 추가한다. (소비자 쓰레드 전용)
+     * @param collection 추출한 요소를 담을 collection
+     * @param limit 최대 추출 개수
+     * @return 추출한 요소 개수
+     */
+    public int drainTo(Collection<? super E> collection, int limit) {
+        int count = 0;
+        E element = null;
+        while (count < limit && (element = poll()) != null) {
+            collection.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 비어 있는지 여부를 반환한다.
+     * @return 비어 있으면 true
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 현재 보관중인 요소 개수를 반환한다. (동시 수정 중에는 근사값)
+     * @return 요소 개수
+     */
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0L, Math.min(size, capacity));
+    }
+
+    /**
+     * 링 버퍼 용량을 반환한다.
+     * @return 링 버퍼 용량
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        int rounded = Integer.highestOneBit(value);
+        if (rounded == value) {
+            return value;
+        }
+        if (rounded >= (1 << 30)) {
+            throw new IllegalArgumentException("The capacity is too large [" + value + "]");
+        }
+        return rounded << 1;
+    }
+
+}
@@ -0,0 +1,155 @@
+package chess.push.server.queue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushMessage;
+import chess.push.server.property.PushServiceProperty;
+
+/**
+ * 연결되지 않은 클라이언트ID에 대한 개별 메시지를 보관하는 우편함<br>
+ * -offlineMailboxCapacity개까지 메모리에 보관하고, 이후 메시지는 offlineMailboxDirectory 하위 파일에 기록<br>
+ * -파일에 기록된 메시지가 있는 동안에는 새 메시지도 파일에 기록하여 순서 보장<br>
+ * -offlineMailboxIdleTimeout 동안 메시지가 추가되지 않은 우편함은 OutboundQueueChecker에 의해 버려짐<br>
+ * -클라이언트ID 등록시 OutboundQueue에 넘겨져 큐에 공간이 생기는 만큼 조금씩 전달되며, 그 동안 도착하는 개별 메시지도 우편함에 추가<br>
+ * &nbsp;(메모리의 메시지는 EventLoop에서, 파일의 메시지는 I/O 쓰레드에서 조회하므로 메모리 보관 메시지에 대한 접근은 동기화됨)
+ */
+class OfflineMailbox {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OfflineMailbox.class);
+
+    private final String serviceId;				// Push Service ID
+    private final String clientId;				// 클라이언트ID
+    private final Deque<PushMessage> messages;	// 메모리에 보관중인 메시지
+    private final int capacity;					// 메모리에 보관할 수 있는 최대 메시지 수
+    private final OutboundSpillFile spillFile;	// 넘치는 메시지를 기록할 파일 (offlineMailboxDirectory가 설정되지 않으면 null)
+    private volatile long lastUpdated;			// 마지막으로 메시지가 추가된 시각 (밀리초)
+
+    /**
+     * constructor with parameters
+     * @param property Push Service property
+     * @param clientId 클라이언트ID
+     */
+    OfflineMailbox(PushServiceProperty property, String clientId) {
+        this.serviceId = property.getServiceId();
+        this.clientId = clientId;
+        this.messages = new ArrayDeque<PushMessage>();
+        this.capacity = property.getOfflineMailboxCapacity();
+        // 클라이언트ID를 파일 이름에 그대로 사용할 수 없으므로 UUID로 변환
+        this.spillFile = property.getOfflineMailboxDirectory() != null
+                ? new OutboundSpillFile(property.getOfflineMailboxDirectory(),
+                        serviceId + "-" + UUID.nameUUIDFromBytes(clientId.getBytes(StandardCharsets.UTF_8)) + ".mailbox",
+                        property.getOfflineMailboxSpillCapacity())
+                : null;
+        this.lastUpdated = System.currentTimeMillis();
+    }
+
+    /**
+     * 우편함에 메시지를 추가한다.
+     * @param pushMessage Push 메시지
+     * @return 메모리와 파일이 모두 가득 차서 추가하지 못하면 false
+     */
+    synchronized boolean add(PushMessage pushMessage) {
+        lastUpdated = System.currentTimeMillis();
+        if ((spillFile == null || spillFile.isEmpty()) && messages.size() < capacity) {
+            messages.add(pushMessage);
+            return true;
+        }
+        if (spillFile == null) {
+            return false;
+        }
+
+        try {
+            return spillFile.append(pushMessage);
+        } catch (IOException e) {
+            LOG.error("[OfflineMailbox:{}] [{}] failed to spill to {}", serviceId, clientId, spillFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * 메모리에 보관된 가장 오래된 메시지를 꺼낸다.<br>
+     * -메모리의 메시지가 모두 전달된 후에 {@link #pollSpilled(int)}로 파일의 메시지를 조회해야 함
+     * @return Push 메시지 (메모리에 보관된 메시지가 없으면 null)
+     */
+    synchronized PushMessage poll() {
+        return messages.poll();
+    }
+
+    /**
+     * 파일에 기록된 메시지를 최대 maxCount개까지 순서대로 조회한다.<br>
+     * -파일 조회는 EventLoop가 아닌 I/O 쓰레드에서 호출<br>
+     * -조회에 실패하면 파일의 나머지 메시지는 버림
+     * @param maxCount 조회할 최대 메시지 수
+     * @return Push 메시지 collection
+     */
+    List<PushMessage> pollSpilled(int maxCount) {
+        List<PushMessage> result = new ArrayList<PushMessage>();
+        if (spillFile == null) {
+            return result;
+        }
+        try {
+            PushMessage pushMessage = null;
+            while (result.size() < maxCount && (pushMessage = spillFile.poll()) != null) {
+                result.add(pushMessage);
+            }
+        } catch (IOException e) {
+            LOG.error("[OfflineMailbox:{}] [{}] failed to read spilled messages from {}", serviceId, clientId, spillFile, e);
+            spillFile.close();
+        }
+        return result;
+    }
+
+    /**
+     * 파일에 기록된 메시지가 있는지 여부를 반환한다.
+     * @return 파일에 기록된 메시지가 있으면 true
+     */
+    boolean hasSpilled() {
+        return spillFile != null && !spillFile.isEmpty();
+    }
+
+    /**
+     * 보관중인 메시지가 없는지 여부를 반환한다.
+     * @return 메모리와 파일에 메시지가 없으면 true
+     */
+    synchronized boolean isEmpty() {
+        return messages.isEmpty() && !hasSpilled();
+    }
+
+    /**
+     * 보관중인 메시지 수를 반환한다.
+     * @return 메시지 수
+     */
+    synchronized int size() {
+        return messages.size() + (spillFile != null ? spillFile.size() : 0);
+    }
+
+    /**
+     * 지정한 시간 동안 메시지가 추가되지 않았는지 여부를 반환한다.
+     * @param now 현재 시각 (밀리초)
+     * @param idleTimeout 유휴 시간 (밀리초)
+     * @return 유휴 시간이 지났으면 true
+     */
+    boolean isIdle(long now, long idleTimeout) {
+        return now - lastUpdated >= idleTimeout;
+    }
+
+    /**
+     * 보관중인 메시지를 버리고 파일을 삭제한다.
+     */
+    synchronized void close() {
+        messages.clear();
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+}
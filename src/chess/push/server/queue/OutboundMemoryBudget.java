@@ -0,0 +1,116 @@
+package chess.push.server.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서비스ID 단위로 OutboundQueue에 보관되었거나 채널에 write되어 전송 완료를 기다리는 메시지의 byte 수를 집계하고 상한을 적용하는 budget<br>
+ * -메시지 크기는 본문 길이로 추정하고, 여러 채널이 공유하는 인코딩 메시지는 인코딩된 크기를 한 번만 집계하여
+ * &nbsp;마지막 채널이 전송(또는 폐기)을 마치면 반환<br>
+ * -상한이 0이면 집계만 하고 제한하지 않음
+ */
+public class OutboundMemoryBudget {
+
+    private final long limit;			// 최대 byte 수 (0이면 제한 없음)
+    private final AtomicLong used;		// 현재 집계된 byte 수
+    private final Object lock;			// budget 반환을 기다리는 쓰레드의 대기 객체
+    private volatile int waiters;		// budget 반환을 기다리는 쓰레드 수
+
+    /**
+     * constructor with a parameter
+     * @param limit 최대 byte 수 (0이면 제한 없음)
+     */
+    public OutboundMemoryBudget(long limit) {
+        this.limit = limit;
+        this.used = new AtomicLong();
+        this.lock = new Object();
+    }
+
+    /**
+     * 상한을 넘지 않는 경우에만 budget을 할당한다.<br>
+     * -집계된 byte가 없으면 상한보다 큰 메시지도 할당하여 전송할 수 있도록 함
+     * @param bytes 할당할 byte 수
+     * @return 할당되었으면 true
+     */
+    boolean tryReserve(long bytes) {
+        if (limit <= 0) {
+            used.addAndGet(bytes);
+            return true;
+        }
+        long current;
+        do {
+            current = used.get();
+            if (current > 0 && current + bytes > limit) {
+                return false;
+            }
+        } while (!used.compareAndSet(current, current + bytes));
+        return true;
+    }
+
+    /**
+     * 지정 시간 동안 budget이 반환되기를 기다리며 할당을 시도한다.
+     * @param bytes 할당할 byte 수
+     * @param timeout 최대 대기 시간 (밀리초)
+     * @return 할당되었으면 true
+     */
+    boolean tryReserve(long bytes, long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        synchronized (lock) {
+            waiters++;
+            try {
+                while (!tryReserve(bytes)) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    lock.wait(remaining);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waiters--;
+            }
+        }
+    }
+
+    /**
+     * 상한과 관계없이 budget을 할당한다.<br>
+     * -spill file에서 다시 읽어온 메시지처럼 이미 전송하기로 한 메시지에 사용
+     * @param bytes 할당할 byte 수
+     */
+    void reserve(long bytes) {
+        used.addAndGet(bytes);
+    }
+
+    /**
+     * 전송이 완료되었거나 버려진 메시지의 budget을 반환한다.
+     * @param bytes 반환할 byte 수
+     */
+    void release(long bytes) {
+        used.addAndGet(-bytes);
+        if (waiters > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 집계된 byte 수가 상한에 도달했는지 여부를 반환한다.
+     * @return 상한에 도달했으면 true
+     */
+    boolean isExhausted() {
+        return limit > 0 && used.get() >= limit;
+    }
+
+    /**
+     * budget의 현재 상태를 문자열로 반환한다.
+     * @return budget 상태 문자열
+     */
+    public String status() {
+        return "memory: " + used.get() + (limit > 0 ? "/" + limit : "") + " bytes";
+    }
+
+}
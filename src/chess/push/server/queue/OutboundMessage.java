@@ -0,0 +1,158 @@
+package chess.push.server.queue;
+
+import chess.push.common.PushMessage;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * OutboundQueue에 보관되는 전송 단위<br>
+ * -Push 메시지와 함께, 여러 채널이 공유하도록 미리 인코딩된 메시지(ByteBuf 또는 WebSocketFrame)의 복제본을 선택적으로 보관<br>
+ * &nbsp;(공유 인코딩 메시지의 메모리 budget은 SharedEncoding 단위로 한 번만 집계하므로 채널마다 집계하지 않음)<br>
+ * -conflation 모드에서는 Push 메시지 대신 conflation key만 갖는 marker로 큐에서의 위치를 표시
+ */
+public class OutboundMessage {
+
+    private static final int HEADER_SIZE = 64;	// 인코딩되지 않은 메시지의 크기 추정시 본문 외 필드의 크기
+
+    private final PushMessage pushMessage;	// Push 메시지
+    private final Object encoded;			// 미리 인코딩된 공유 메시지의 복제본 (없으면 null)
+    private SharedEncoding shared;			// 복제본의 원본 공유 메시지 (없거나 이미 해제했으면 null)
+    private final String conflationKey;	// marker인 경우 conflation key (아니면 null)
+    private final int lane;					// 우선순위에 해당하는 lane 번호
+    private final int size;					// 메모리 budget에 집계하는 메시지 크기 (byte)
+
+    /**
+     * constructor with a parameter
+     * @param pushMessage Push 메시지
+     */
+    public OutboundMessage(PushMessage pushMessage) {
+        this(pushMessage, null);
+    }
+
+    /**
+     * constructor with parameters
+     * @param pushMessage Push 메시지
+     * @param shared 미리 인코딩된 공유 메시지 (retained duplicate를 생성하여 보관)
+     */
+    OutboundMessage(PushMessage pushMessage, SharedEncoding shared) {
+        this(pushMessage, shared, null, PriorityScheduler.lane(pushMessage));
+    }
+
+    private OutboundMessage(PushMessage pushMessage, SharedEncoding shared, String conflationKey, int lane) {
+        this.pushMessage = pushMessage;
+        this.encoded = shared != null ? shared.retainedDuplicate() : null;
+        this.shared = shared;
+        this.conflationKey = conflationKey;
+        this.lane = lane;
+        this.size = shared != null ? 0 : sizeOf(pushMessage);
+    }
+
+    /**
+     * 인코딩되지 않은 Push 메시지의 크기를 본문 길이로 추정한다.
+     * @param pushMessage Push 메시지
+     * @return 추정한 크기 (byte)
+     */
+    static int sizeOf(PushMessage pushMessage) {
+        if (pushMessage == null) {
+            return 0;
+        }
+        if (pushMessage.getPayload() != null) {
+            return HEADER_SIZE + pushMessage.getPayload().length;
+        }
+        return HEADER_SIZE + (pushMessage.getMessage() != null ? pushMessage.getMessage().length() : 0);
+    }
+
+    /**
+     * 큐에서 conflation key에 해당하는 최신 메시지의 위치를 표시하는 marker를 생성한다.
+     * @param conflationKey conflation key
+     * @param lane marker를 추가할 lane 번호
+     * @return marker
+     */
+    public static OutboundMessage conflationMarker(String conflationKey, int lane) {
+        return new OutboundMessage(null, null, conflationKey, lane);
+    }
+
+    /**
+     * conflation marker인지 여부를 반환한다.
+     * @return marker이면 true
+     */
+    public boolean isConflationMarker() {
+        return conflationKey != null;
+    }
+
+    /**
+     * marker의 conflation key를 반환한다.
+     * @return conflation key (marker가 아니면 null)
+     */
+    public String conflationKey() {
+        return conflationKey;
+    }
+
+    /**
+     * Push 메시지를 반환한다.
+     * @return Push 메시지
+     */
+    public PushMessage pushMessage() {
+        return pushMessage;
+    }
+
+    /**
+     * 우선순위에 해당하는 lane 번호를 반환한다.
+     * @return lane 번호
+     */
+    public int lane() {
+        return lane;
+    }
+
+    /**
+     * 메모리 budget에 집계하는 메시지 크기를 반환한다.<br>
+     * -본문 길이로 추정한 크기 (공유 인코딩 메시지를 보관하거나 marker이면 0)
+     * @return 메시지 크기 (byte)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 채널에 write할 객체를 반환한다.<br>
+     * -미리 인코딩된 메시지가 있으면 이를, 없으면 채널 파이프라인에서 인코딩할 Push 메시지를 반환
+     * @return 채널에 write할 객체
+     */
+    public Object content() {
+        return encoded != null ? encoded : pushMessage;
+    }
+
+    /**
+     * 공유 인코딩 메시지를 보관하고 있는지 여부를 반환한다.
+     * @return 공유 인코딩 메시지의 budget 참조를 아직 해제하지 않았으면 true
+     */
+    public boolean isShared() {
+        return shared != null;
+    }
+
+    /**
+     * 전송하지 않고 폐기하는 경우 미리 인코딩된 메시지와 공유 budget 참조를 해제한다.
+     */
+    public void release() {
+        if (encoded != null && shared != null) {
+            ReferenceCountUtil.release(encoded);
+        }
+        sent();
+    }
+
+    /**
+     * 채널에 write한 공유 인코딩 메시지의 전송이 완료되었을 때 공유 budget 참조를 해제한다.<br>
+     * -복제본은 채널이 write 후 해제하므로 참조만 해제
+     */
+    public void sent() {
+        if (shared != null) {
+            shared.release();
+            shared = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isConflationMarker() ? "ConflationMarker[" + conflationKey + "]" : pushMessage.toString();
+    }
+
+}
@@ -1,39 +1,147 @@
 package chess.push.server.queue;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import chess.push.common.PushConstant;
 import chess.push.common.PushMessage;
+import chess.push.server.property.OverflowPolicy;
+import chess.push.server.property.PushServiceProperty;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 
 /**
  * Outbound Server에 연결된 클라이언트 채널에 따라 생성되는 큐<br>
- * -큐에 담긴 메시지를 클라이언트 채널로 전송하기 위한 쓰레드 동작
+ * -클라이언트마다 별도 쓰레드를 두지 않고, 채널의 EventLoop에서 큐에 담긴 메시지를 클라이언트 채널로 전송<br>
+ * -채널당 전송 작업은 동시에 하나만 스케줄되므로 클라이언트별 메시지 순서 보장<br>
+ * -전송 작업마다 최대 outboundBatchSize개의 메시지를 write한 후 한 번만 flush하여 시스템 콜 횟수 절감<br>
+ * -채널이 writable 상태가 아니면 전송을 중단하고 큐에 보관하며, 다시 writable 상태가 되면 전송 재개<br>
+ * -큐가 가득 차면 outboundOverflowPolicy에 따라 처리하고 결과를 서비스 단위 통계에 집계<br>
+ * -conflation 모드에서는 conflation key가 같은 전송 대기 메시지를 큐에서의 위치를 유지한 채 최신 메시지로 대체<br>
+ * -우선순위별로 별도의 큐(lane)를 두고 priorityScheduling 설정에 따라 추출하므로, 메시지 순서는 같은 우선순위 사이에서만 보장<br>
+ * &nbsp;(outboundQueueCapacity는 lane마다 적용되므로 큐 전체에는 최대 lane 수만큼의 배수까지 보관)<br>
+ * -전송 직전에 만료된 메시지는 인코딩/write하지 않고 버림<br>
+ * -클라이언트가 서비스 기본 codec이 아닌 codec을 협상한 경우 공유 인코딩 메시지를 사용하지 않고 채널의 encoder로 인코딩<br>
+ * -큐에 보관되거나 전송 중인 메시지 크기를 서비스 단위 메모리 budget에 집계하며, budget을 초과하면 큐가 가득 찬 경우와 같이 outboundOverflowPolicy에 따라 처리<br>
+ * -재연결 클라이언트에게 history의 메시지를 다시 전송한 경우, 이후 전달되는 메시지 중 이미 전송한 sequence 이하의 메시지는 버림<br>
+ * &nbsp;(클라이언트ID 등록 전에 전달된 전체/그룹 대상 메시지보다 늦게 전송될 수 있으므로 클라이언트는 sequence로 중복 판단)<br>
+ * -ack 모드에서는 ack를 받지 못한 메시지가 outboundAckWindow개에 도달하면 전송을 중단하고 큐에 보관하므로, 느린 클라이언트는 큐 용량까지만 밀린 후 overflowPolicy에 따라 처리<br>
+ * &nbsp;(outboundAckTimeout 내에 ack를 받지 못한 메시지는 최대 outboundAckRetries회 다시 전송하며, 클라이언트는 ackId로 중복 판단)<br>
+ * -클라이언트ID 등록시 넘겨받은 우편함은 큐에 공간이 생기는 만큼 조금씩 전달하며, 모두 전달될 때까지 이후의 개별 메시지도 우편함에 추가
  */
-public class OutboundQueue extends Thread {
+public class OutboundQueue {
 
     private static final Logger LOG = LoggerFactory.getLogger(OutboundQueue.class);
 
-    private String serviceId;					// Push Service ID
-    private BlockingQueue<PushMessage> queue;	// message queue
-    private final int capacity;				// message queue capacity
-    private Channel channel;					// Client Channel instance
+    private final String serviceId;					// Push Service ID
+    private final String defaultCodec;				// 서비스 기본 codec 이름 (공유 인코딩 메시지의 codec)
+    private final BlockingQueue<OutboundMessage>[] lanes;	// 우선순위별 message queue
+    private final int capacity;						// lane별 message queue capacity
+    private final PriorityScheduler scheduler;		// 다음에 추출할 lane 결정 (EventLoop에서만 접근)
+    private final IntPredicate laneEmpty;			// lane이 비어 있는지 확인하는 함수
+    private final int batchSize;					// 한 번에 write 후 flush하는 최대 메시지 수
+    private final long flushDelay;					// flush 지연 최대 시간 (밀리초)
+    private final OverflowPolicy overflowPolicy;	// 큐가 가득 찼을 때 처리 방식
+    private final long blockTimeout;				// BLOCK 방식에서 대기하는 최대 시간 (밀리초)
+    private final OutboundSpillFile spillFile;		// SPILL_TO_DISK 방식에서 넘치는 메시지를 기록할 파일 (그 외 방식이면 null)
+    private final Executor ioExecutor;				// spill file과 우편함 파일 조회를 실행할 I/O 쓰레드 (파일을 사용하지 않으면 null)
+    private final int[] prefetched;					// lane별 spill file에서 조회되어 큐 추가를 기다리는 메시지 수 (spillFile lock으로 보호)
+    private boolean prefetching;					// spill file 조회 작업이 요청되어 있는지 여부 (EventLoop에서만 접근)
+    private final OutboundQueueStatistics statistics;	// 서비스 단위 통계
+    private final OutboundMemoryBudget budget;		// 서비스 단위 메모리 budget
+    private final AtomicLong pendingBytes;			// 큐에 보관되거나 전송 중인 메시지 크기 합계
+    private final Map<String, OutboundMessage> conflated;	// conflation key를 key로 하는 전송 대기중인 최신 메시지 (conflation 모드가 아니면 null)
+    private final Channel channel;					// Client Channel instance
+    private final AtomicBoolean scheduled;			// 전송 작업이 EventLoop에 스케줄되어 있는지 여부
+    private final Runnable drainTask;				// EventLoop에서 실행할 전송 작업
+    private final Runnable flushTask;				// EventLoop에서 지연 실행할 flush 작업
+
+    private volatile boolean shutdown;				// 큐 종료 여부
+    private volatile long resumedSequence;			// 재연결시 history에서 다시 전송한 마지막 sequence (이하의 메시지는 중복이므로 버림)
+    private final AtomicLong firstSharedSequence;	// 큐에 전달된 클라이언트ID 미지정 메시지의 최소 sequence
+    private final AtomicLong lastSharedSequence;	// 큐에 전달된 클라이언트ID 미지정 메시지의 최대 sequence
+    private final Set<String> topics;				// 채널이 구독중인 topic filter collection
+    private final int maxSubscriptions;				// 구독할 수 있는 최대 topic filter 수 (0이면 제한 없음)
+    private boolean flushScheduled;					// 지연 flush 작업이 스케줄되어 있는지 여부 (EventLoop에서만 접근)
+    private final int ackWindow;					// ack를 받지 않은 채 전송할 수 있는 최대 메시지 수 (0이면 ack를 사용하지 않음)
+    private final long ackTimeout;					// ack를 받지 못한 메시지를 재전송하기까지 대기하는 시간 (밀리초)
+    private final int ackRetries;					// ack를 받지 못한 메시지의 최대 재전송 횟수
+    private final Map<Long, InFlightMessage> inFlight;	// ackId를 key로 하는 ack 대기 메시지 (마지막 전송 순서, EventLoop에서만 접근)
+    private final Runnable ackTimeoutTask;			// EventLoop에서 지연 실행할 ack 시간 초과 확인 작업
+    private boolean ackTimeoutScheduled;			// ack 시간 초과 확인 작업이 스케줄되어 있는지 여부 (EventLoop에서만 접근)
+    private volatile long acked;					// 클라이언트가 ack를 보낸 메시지 수 (EventLoop에서만 갱신)
+    private volatile long ackLatencyTotal;			// 최초 전송부터 ack까지 걸린 시간 합계 (밀리초, EventLoop에서만 갱신)
+    private volatile long ackLatencyMax;			// 최초 전송부터 ack까지 걸린 최대 시간 (밀리초, EventLoop에서만 갱신)
+    private final Object mailboxLock;				// 우편함 추가와 분리 lock
+    private volatile OfflineMailbox mailbox;		// 클라이언트ID 등록시 넘겨받아 전달중인 우편함 (모두 전달되면 null)
+    private boolean mailboxPrefetching;				// 우편함 파일 조회 작업이 요청되어 있는지 여부 (EventLoop에서만 접근)
 
     /**
      * constructor with parameters
-     * @param serviceId Push Service ID
-     * @param capacity message queue capacity
+     * @param property Push Service property
      * @param channel Netty Channel instance
+     * @param statistics 서비스 단위 통계
+     * @param budget 서비스 단위 메모리 budget
+     * @param ioExecutor spill file과 우편함 파일 조회를 실행할 I/O 쓰레드 (파일을 사용하지 않으면 null)
      */
-    public OutboundQueue(String serviceId, int capacity, Channel channel) {
-        this.serviceId = serviceId;
-        this.capacity = capacity;
-        this.queue = new LinkedBlockingQueue<PushMessage>(capacity);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public OutboundQueue(PushServiceProperty property, Channel channel, OutboundQueueStatistics statistics, OutboundMemoryBudget budget, Executor ioExecutor) {
+        this.serviceId = property.getServiceId();
+        this.defaultCodec = property.getOutboundCodec();
+        this.capacity = property.getOutboundQueueCapacity();
+        this.batchSize = property.getOutboundBatchSize();
+        this.flushDelay = property.getOutboundFlushDelay();
+        this.overflowPolicy = property.getOutboundOverflowPolicy();
+        this.blockTimeout = property.getOutboundOverflowBlockTimeout();
+        this.spillFile = overflowPolicy == OverflowPolicy.SPILL_TO_DISK
+                ? new OutboundSpillFile(property.getOutboundSpillDirectory(), serviceId + "-" + channel.id().asLongText() + ".spill", property.getOutboundSpillCapacity())
+                : null;
+        this.ioExecutor = ioExecutor;
+        this.prefetched = new int[PriorityScheduler.LANE_COUNT];
+        this.statistics = statistics;
+        this.budget = budget;
+        this.pendingBytes = new AtomicLong();
+        this.conflated = property.isOutboundConflation() ? new ConcurrentHashMap<String, OutboundMessage>() : null;
+        this.lanes = new BlockingQueue[PriorityScheduler.LANE_COUNT];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new LinkedBlockingQueue<OutboundMessage>(capacity);
+        }
+        this.scheduler = new PriorityScheduler(property.getPriorityScheduling(), property.getPriorityWeights());
+        this.laneEmpty = lane -> lanes[lane].isEmpty();
         this.channel = channel;
+        this.scheduled = new AtomicBoolean();
+        this.firstSharedSequence = new AtomicLong();
+        this.lastSharedSequence = new AtomicLong();
+        this.topics = ConcurrentHashMap.newKeySet();
+        this.maxSubscriptions = property.getOutboundMaxSubscriptions();
+        this.drainTask = this::drain;
+        this.flushTask = this::flush;
+        this.ackWindow = property.getOutboundAckWindow();
+        this.ackTimeout = property.getOutboundAckTimeout();
+        this.ackRetries = property.getOutboundAckRetries();
+        this.inFlight = new LinkedHashMap<Long, InFlightMessage>();
+        this.ackTimeoutTask = this::checkAckTimeout;
+        this.mailboxLock = new Object();
     }
 
     /**
@@ -55,22 +163,698 @@ public class OutboundQueue extends Thread {
     }
 
     /**
-     * 큐에 메시지를 추가한다.
+     * 큐와 연관된 클라이언트 채널이 구독중인 topic filter collection을 반환한다.
+     * @return topic filter collection (read-only)
+     */
+    public Set<String> topics() {
+        return Collections.unmodifiableSet(topics);
+    }
+
+    /**
+     * topic filter를 구독 목록에 추가한다.
+     * @param filter topic filter
+     * @return 추가되었거나 이미 구독중이면 true, 최대 구독 수를 넘으면 false
+     */
+    boolean subscribe(String filter) {
+        if (topics.contains(filter)) {
+            return true;
+        }
+        if (maxSubscriptions > 0 && topics.size() >= maxSubscriptions) {
+            return false;
+        }
+        return topics.add(filter);
+    }
+
+    /**
+     * topic filter를 구독 목록에서 제거한다.
+     * @param filter topic filter
+     * @return 구독중이었으면 true
+     */
+    boolean unsubscribe(String filter) {
+        return topics.remove(filter);
+    }
+
+    /**
+     * 클라이언트 채널의 codec이 서비스 기본 codec인지 여부를 반환한다.
+     * @return 공유 인코딩 메시지를 그대로 전송할 수 있으면 true
+     */
+    private boolean isDefaultCodec() {
+        // codec은 클라이언트 협상에 의해 런타임에 변경될 수 있으므로 항상 채널에서 조회 필요
+        return defaultCodec.equals(channel.attr(PushConstant.CODEC).get());
+    }
+
+    /**
+     * 전체 대상 메시지를 InboundQueueWorker 파티션으로 나누기 위한 채널의 partition key를 반환한다.<br>
+     * -클라이언트ID, 그룹ID, 채널ID 순으로 null이 아닌 값 사용
+     * @return partition key
+     */
+    public String partitionKey() {
+        String clientId = clientId();
+        if (clientId != null) {
+            return clientId;
+        }
+        String groupId = groupId();
+        if (groupId != null) {
+            return groupId;
+        }
+        return channel.id().asLongText();
+    }
+
+    /**
+     * 큐에 메시지를 추가하고 EventLoop에 전송 작업을 요청한다.
      * @param pushMessage Push 메시지
      */
     public void enqueue(PushMessage pushMessage) {
+        enqueue(pushMessage, null);
+    }
+
+    /**
+     * 여러 채널이 공유하는 인코딩 메시지와 함께 큐에 메시지를 추가하고 EventLoop에 전송 작업을 요청한다.<br>
+     * -공유 인코딩 메시지는 큐에 추가되는 경우에만 retained duplicate를 생성하므로 호출자는 원본의 reference count를 직접 관리
+     * @param pushMessage Push 메시지
+     * @param sharedEncoded 미리 인코딩된 공유 메시지 (없으면 null)
+     */
+    void enqueue(PushMessage pushMessage, SharedEncoding sharedEncoded) {
         if (!isValid(pushMessage)) {
             LOG.error("[OutboundQueue:{}] [{}] [{}] invalid message {}", serviceId, groupId(), clientId(), pushMessage);
             return;
         }
+        if (pushMessage.getSequence() != null && pushMessage.getSequence() <= resumedSequence) {
+            LOG.debug("[OutboundQueue:{}] [{}] [{}] already resumed {}", serviceId, groupId(), clientId(), pushMessage);
+            return;
+        }
+        if (pushMessage.getSequence() != null && pushMessage.getClientId() == null && pushMessage.getClientIds() == null && pushMessage.getTopic() == null) {
+            firstSharedSequence.compareAndSet(0L, pushMessage.getSequence());
+            lastSharedSequence.accumulateAndGet(pushMessage.getSequence(), Math::max);
+        }
+        if (pushMessage.getClientId() != null && storeInMailbox(pushMessage)) {
+            return;
+        }
+
+        add(pushMessage, sharedEncoded);
+    }
 
-        if (!queue.offer(pushMessage)) {
+    /**
+     * 클라이언트ID 등록시 우편함을 넘겨받아 큐에 공간이 생기는 만큼 보관된 순서대로 전달한다.<br>
+     * -채널의 EventLoop에서 호출되므로, 같은 작업에서 추가되는 history의 메시지보다 우편함의 메시지가 먼저 전달되지 않음
+     * @param mailbox 클라이언트ID의 우편함
+     */
+    void attach(OfflineMailbox mailbox) {
+        synchronized (mailboxLock) {
+            if (this.mailbox != null) {
+                // 이전 클라이언트ID의 우편함 메시지는 더 이상 채널이 대상이 아니므로 버림
+                this.mailbox.close();
+            }
+            this.mailbox = mailbox;
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * 전달중인 우편함이 있으면 개별 메시지를 우편함의 마지막에 추가한다.
+     * @param pushMessage 클라이언트ID가 지정된 Push 메시지
+     * @return 우편함에 추가했거나 우편함이 가득 차서 버렸으면 true, 전달중인 우편함이 없으면 false
+     */
+    private boolean storeInMailbox(PushMessage pushMessage) {
+        if (mailbox == null) {
+            return false;
+        }
+        synchronized (mailboxLock) {
+            OfflineMailbox current = mailbox;
+            if (current == null) {
+                return false;
+            }
+            if (current.add(pushMessage)) {
+                statistics.storedOffline();
+            } else {
+                statistics.offlineDropped();
+                LOG.error("[OutboundQueue:{}] [{}] [{}] mailbox is full {}", serviceId, groupId(), clientId(), pushMessage);
+            }
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * 전달중인 우편함에서 큐에 공간이 있는 만큼 메시지를 꺼내 큐에 추가한다.<br>
+     * -채널의 EventLoop에서만 실행됨<br>
+     * -메모리의 메시지를 모두 꺼낸 후 파일의 메시지는 I/O 쓰레드에서 조회하도록 요청하고, 조회한 메시지를 추가할 때까지 메모리의 메시지를 꺼내지 않음
+     * &nbsp;(조회 도중 파일이 비워진 후 추가되는 메시지는 메모리에 보관되므로 순서 보장)<br>
+     * -우편함이 모두 비워지면 분리하여 이후 개별 메시지는 큐에 바로 추가
+     * @return 파일 조회 작업이 진행중이면 true
+     */
+    private boolean refillFromMailbox() {
+        OfflineMailbox current = mailbox;
+        if (current == null) {
+            return false;
+        }
+        if (mailboxPrefetching) {
+            return true;
+        }
+
+        int moved = 0;
+        PushMessage pushMessage = null;
+        while (moved < batchSize && hasRemainingCapacity() && (pushMessage = current.poll()) != null) {
+            deliverFromMailbox(pushMessage);
+            moved++;
+        }
+        if (moved < batchSize && hasRemainingCapacity() && current.hasSpilled()) {
+            // 조회한 메시지의 우선순위를 미리 알 수 없으므로 모든 lane의 남은 공간 중 최소값까지만 조회
+            int count = Math.min(batchSize - moved, remainingCapacity());
+            mailboxPrefetching = true;
+            try {
+                ioExecutor.execute(() -> prefetchMailbox(current, count));
+            } catch (RejectedExecutionException e) {
+                LOG.error("[OutboundQueue:{}] [{}] [{}] failed to schedule reading mailbox messages", serviceId, groupId(), clientId());
+            }
+            return true;
+        }
+
+        synchronized (mailboxLock) {
+            if (mailbox == current && current.isEmpty()) {
+                mailbox = null;
+                current.close();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 우편함 파일에 기록된 메시지를 조회하여 EventLoop에서 큐에 추가하도록 전달한다.<br>
+     * -I/O 쓰레드에서 실행됨
+     * @param current 전달중인 우편함
+     * @param count 조회할 최대 메시지 수
+     */
+    private void prefetchMailbox(OfflineMailbox current, int count) {
+        List<PushMessage> batch = current.pollSpilled(count);
+        try {
+            channel.eventLoop().execute(() -> {
+                mailboxPrefetching = false;
+                batch.forEach(this::deliverFromMailbox);
+                scheduleDrain();
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.error("[OutboundQueue:{}] [{}] [{}] failed to schedule refill task", serviceId, groupId(), clientId());
+        }
+    }
+
+    /**
+     * 우편함에서 꺼낸 메시지를 큐에 추가한다.<br>
+     * -history에서 이미 다시 전달한 메시지와 더 이상 채널이 대상이 아닌 메시지는 버림
+     * @param pushMessage 우편함에서 꺼낸 Push 메시지
+     */
+    private void deliverFromMailbox(PushMessage pushMessage) {
+        statistics.offlineDelivered(1);
+        if (pushMessage.getSequence() != null && pushMessage.getSequence() <= resumedSequence) {
+            LOG.debug("[OutboundQueue:{}] [{}] [{}] already resumed {}", serviceId, groupId(), clientId(), pushMessage);
+            return;
+        }
+        if (isValid(pushMessage)) {
+            add(pushMessage, null);
+        }
+    }
+
+    /**
+     * 재연결 클라이언트가 수신하지 못한 history의 메시지를 큐에 추가한다.<br>
+     * -이후 전달되는 메시지 중 sequence가 lastSequence 이하인 메시지는 이미 추가된 것으로 간주하여 버림<br>
+     * -누락분에 overflowPolicy를 적용하면 재연결 직후 메시지를 버리거나 연결을 종료하게 되므로,
+     * &nbsp;lane별 남은 공간만큼 최근 메시지를 골라 overflowPolicy와 budget 한도를 적용하지 않고 추가
+     * @param pushMessages sequence 순서로 정렬된 history의 메시지
+     * @param lastSequence history 조회 시점에 마지막으로 부여된 sequence
+     * @return 큐에 추가한 메시지 수 (공간이 부족하여 오래된 메시지를 제외했으면 pushMessages 수보다 작음)
+     */
+    int resume(List<PushMessage> pushMessages, long lastSequence) {
+        resumedSequence = lastSequence;
+
+        int[] remaining = new int[lanes.length];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            remaining[lane] = Math.max(lanes[lane].remainingCapacity() - prefetched[lane], 0);
+        }
+        boolean[] selected = new boolean[pushMessages.size()];
+        for (int i = pushMessages.size() - 1; i >= 0; i--) {
+            int lane = PriorityScheduler.lane(pushMessages.get(i));
+            if (remaining[lane] > 0) {
+                remaining[lane]--;
+                selected[i] = true;
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < selected.length; i++) {
+            if (!selected[i]) {
+                continue;
+            }
+            OutboundMessage message = new OutboundMessage(pushMessages.get(i));
+            // 이미 전송하기로 한 메시지이므로 budget과 관계없이 할당
+            budget.reserve(message.size());
+            pendingBytes.addAndGet(message.size());
+            if (lanes[message.lane()].offer(message)) {
+                count++;
+            } else {
+                discard(message);
+            }
+        }
+
+        if (shutdown) {
+            // shutdown과 경합하여 추가된 경우 남은 메시지 해제
+            releaseAll();
+        } else if (count > 0) {
+            scheduleDrain();
+        }
+        return count;
+    }
+
+    /**
+     * 재연결 클라이언트에게 history의 메시지를 다시 전송할 때, 클라이언트ID 등록 전에 이미 큐에 전달된 메시지인지 여부를 반환한다.<br>
+     * -등록 전 채널은 하나의 worker로부터 sequence 순서대로 전체/그룹 대상 메시지를 전달받으므로 범위로 판단
+     * @param pushMessage history의 메시지
+     * @return 클라이언트ID 미지정 메시지이고 큐에 전달된 sequence 범위에 속하면 true
+     */
+    boolean isEnqueued(PushMessage pushMessage) {
+        long sequence = pushMessage.getSequence();
+        return pushMessage.getClientId() == null && pushMessage.getClientIds() == null && pushMessage.getTopic() == null
+                && firstSharedSequence.get() != 0L && sequence >= firstSharedSequence.get() && sequence <= lastSharedSequence.get();
+    }
+
+    private void add(PushMessage pushMessage, SharedEncoding sharedEncoded) {
+        OutboundMessage message = new OutboundMessage(pushMessage, isDefaultCodec() ? sharedEncoded : null);
+        if (!reserve(message)) {
+            message.release();
+            return;
+        }
+        String conflationKey = conflated != null ? pushMessage.getConflationKey() : null;
+        if (conflationKey != null ? offerConflated(conflationKey, message) : offer(message)) {
+            if (shutdown) {
+                // shutdown과 경합하여 추가된 경우 남은 메시지 해제
+                releaseAll();
+            } else {
+                scheduleDrain();
+            }
+        } else {
+            discard(message);
             LOG.error("[OutboundQueue:{}] [{}] [{}] failed to enqueue {}", serviceId, groupId(), clientId(), pushMessage);
         }
     }
 
-    private boolean isValid(PushMessage pushMessage) {
-        if (pushMessage == null) {
+    /**
+     * conflation key가 같은 전송 대기 메시지가 있으면 최신 메시지로 대체하고, 없으면 큐에 marker를 추가한다.<br>
+     * -대체된 메시지는 큐에서의 위치를 유지하므로 marker는 key마다 하나만 존재<br>
+     * -EventLoop는 marker를 추출할 때 key에 해당하는 최신 메시지를 가져가므로 동기화 없이 대체와 경합 가능
+     * @param conflationKey conflation key
+     * @param message 전송 단위 메시지
+     * @return 대체 또는 큐에 추가되었으면 true, 새 메시지를 버려야 하면 false
+     */
+    private boolean offerConflated(String conflationKey, OutboundMessage message) {
+        // marker 추가에 실패했을 때 다른 쓰레드가 같은 key의 메시지를 대체하지 못하도록 추가 쓰레드간에만 동기화
+        synchronized (conflated) {
+            OutboundMessage previous = conflated.put(conflationKey, message);
+            if (previous != null) {
+                discard(previous);
+                statistics.conflated();
+                return true;
+            }
+            if (offer(OutboundMessage.conflationMarker(conflationKey, message.lane()))) {
+                return true;
+            }
+            conflated.remove(conflationKey);
+            return false;
+        }
+    }
+
+    /**
+     * 우선순위에 따라 다음 lane에서 전송할 메시지를 하나 추출한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     * @return 전송 단위 메시지 (없으면 null)
+     */
+    private OutboundMessage poll() {
+        OutboundMessage message = null;
+        int lane = -1;
+        while (message == null && (lane = scheduler.next(laneEmpty)) >= 0) {
+            message = poll(lane);
+        }
+        return message;
+    }
+
+    /**
+     * lane에서 전송할 메시지를 하나 추출한다.<br>
+     * -conflation marker인 경우 key에 해당하는 최신 메시지를 반환
+     * @param lane lane 번호
+     * @return 전송 단위 메시지 (없으면 null)
+     */
+    private OutboundMessage poll(int lane) {
+        OutboundMessage message = null;
+        while ((message = lanes[lane].poll()) != null && message.isConflationMarker()) {
+            OutboundMessage latest = conflated.remove(message.conflationKey());
+            if (latest != null) {
+                return latest;
+            }
+        }
+        return message;
+    }
+
+    /**
+     * 큐에 메시지를 추가하고, 큐가 가득 찬 경우 overflowPolicy에 따라 처리한다.
+     * @param message 전송 단위 메시지
+     * @return 큐 또는 spill file에 추가되었으면 true, 새 메시지를 버려야 하면 false
+     */
+    private boolean offer(OutboundMessage message) {
+        if (spillFile != null) {
+            return offerOrSpill(message);
+        }
+        BlockingQueue<OutboundMessage> queue = lanes[message.lane()];
+        if (queue.offer(message)) {
+            return true;
+        }
+
+        switch (overflowPolicy) {
+        case DROP_OLDEST:
+            // 같은 우선순위의 lane에서 가장 오래된 메시지를 버림
+            do {
+                OutboundMessage oldest = poll(message.lane());
+                if (oldest != null) {
+                    discard(oldest);
+                    statistics.droppedOldest();
+                    LOG.warn("[OutboundQueue:{}] [{}] [{}] dropped oldest {}", serviceId, groupId(), clientId(), oldest);
+                }
+            } while (!queue.offer(message));
+            return true;
+        case BLOCK:
+            // EventLoop에서 대기하면 큐를 비울 수 없으므로 대기하지 않음
+            if (!channel.eventLoop().inEventLoop() && offerWithTimeout(message)) {
+                statistics.blocked();
+                return true;
+            }
+            statistics.blockTimedOut();
+            return false;
+        case DISCONNECT:
+            if (!shutdown) {
+                statistics.disconnected();
+                LOG.warn("[OutboundQueue:{}] [{}] [{}] disconnect slow consumer {}", serviceId, groupId(), clientId(), channel);
+                // 연결 종료 전에 큐를 먼저 정리하여 남은 메시지가 메모리를 점유하지 않도록 함
+                shutdown();
+                channel.close();
+            }
+            return false;
+        default:
+            statistics.droppedNewest();
+            return false;
+        }
+    }
+
+    private boolean offerWithTimeout(OutboundMessage message) {
+        try {
+            return lanes[message.lane()].offer(message, blockTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 메시지 크기만큼 서비스 메모리 budget을 할당하고, budget을 초과한 경우 overflowPolicy에 따라 처리한다.<br>
+     * -DROP_OLDEST: 같은 우선순위의 lane에서 오래된 메시지를 버려 budget을 확보<br>
+     * -BLOCK: 다른 큐의 전송이 완료되어 budget이 반환되기를 대기<br>
+     * -DISCONNECT: 채널의 write buffer가 가득 찬 느린 클라이언트인 경우에만 연결 종료 (아니면 새 메시지를 버림)<br>
+     * -SPILL_TO_DISK: 메모리에 보관하지 않고 spill file에 기록<br>
+     * -공유 인코딩 메시지는 인코딩시 budget을 이미 할당하였으므로(크기 0) budget 초과 여부와 관계없이 추가
+     * @param message 전송 단위 메시지
+     * @return budget이 할당되었으면 true, 메시지를 큐에 추가하지 않아야 하면 false
+     */
+    private boolean reserve(OutboundMessage message) {
+        int size = message.size();
+        if (size == 0) {
+            return true;
+        }
+        if (budget.tryReserve(size)) {
+            pendingBytes.addAndGet(size);
+            return true;
+        }
+        statistics.budgetExceeded();
+
+        switch (overflowPolicy) {
+        case DROP_OLDEST:
+            OutboundMessage oldest = null;
+            while ((oldest = poll(message.lane())) != null) {
+                discard(oldest);
+                statistics.droppedOldest();
+                LOG.warn("[OutboundQueue:{}] [{}] [{}] dropped oldest {}", serviceId, groupId(), clientId(), oldest);
+                if (budget.tryReserve(size)) {
+                    pendingBytes.addAndGet(size);
+                    return true;
+                }
+            }
+            statistics.droppedNewest();
+            return false;
+        case BLOCK:
+            // EventLoop에서 대기하면 전송 완료 통지를 처리할 수 없으므로 대기하지 않음
+            if (!channel.eventLoop().inEventLoop() && budget.tryReserve(size, blockTimeout)) {
+                pendingBytes.addAndGet(size);
+                statistics.blocked();
+                return true;
+            }
+            statistics.blockTimedOut();
+            return false;
+        case DISCONNECT:
+            // 메시지가 몰리는 동안에는 모든 큐에 전송 대기 메시지가 있으므로 전송이 밀린 채널만 종료
+            if (!channel.isWritable()) {
+                if (!shutdown) {
+                    statistics.disconnected();
+                    LOG.warn("[OutboundQueue:{}] [{}] [{}] disconnect slow consumer over memory budget {}", serviceId, groupId(), clientId(), channel);
+                    shutdown();
+                    channel.close();
+                }
+            } else {
+                statistics.droppedNewest();
+            }
+            return false;
+        case SPILL_TO_DISK:
+            spill(message);
+            return false;
+        default:
+            statistics.droppedNewest();
+            return false;
+        }
+    }
+
+    /**
+     * 메시지를 큐에서 제거하여 버리고, 미리 인코딩된 메시지와 메모리 budget을 해제한다.
+     * @param message 전송 단위 메시지
+     */
+    private void discard(OutboundMessage message) {
+        message.release();
+        release(message.size());
+    }
+
+    private void release(long bytes) {
+        pendingBytes.addAndGet(-bytes);
+        budget.release(bytes);
+    }
+
+    /**
+     * 메모리 budget을 할당하지 못한 메시지를 큐를 거치지 않고 spill file에 기록한다.<br>
+     * -이후 같은 lane의 메시지는 spill file이 빌 때까지 spill file에 기록되므로 메시지 순서 보장
+     * @param message 전송 단위 메시지 (budget이 할당되지 않은 상태)
+     */
+    private void spill(OutboundMessage message) {
+        synchronized (spillFile) {
+            try {
+                if (spillFile.append(message.pushMessage())) {
+                    statistics.spilled();
+                    scheduleDrain();
+                    return;
+                }
+            } catch (IOException e) {
+                LOG.error("[OutboundQueue:{}] [{}] [{}] failed to spill to {}", serviceId, groupId(), clientId(), spillFile, e);
+            }
+        }
+        statistics.spillFailed();
+    }
+
+    /**
+     * 큐에 메시지를 추가하고, 큐가 가득 찼거나 spill file에 같은 lane의 메시지가 남아 있으면 spill file에 기록한다.<br>
+     * -spill file에 같은 lane의 메시지가 있거나 조회된 메시지가 아직 큐에 추가되지 않은 동안에는 큐에 공간이 있어도 spill file에 기록하여 메시지 순서 보장<br>
+     * &nbsp;(다른 lane의 메시지는 spill file과 무관하게 큐에 추가되므로, 높은 우선순위의 메시지가 기록된 낮은 우선순위 메시지를 기다리지 않음)<br>
+     * -spill file에는 Push 메시지만 기록하므로 미리 인코딩된 공유 메시지는 해제
+     * @param message 전송 단위 메시지
+     * @return 큐 또는 spill file에 추가되었으면 true
+     */
+    private boolean offerOrSpill(OutboundMessage message) {
+        synchronized (spillFile) {
+            if (spillFile.isEmpty(message.lane()) && prefetched[message.lane()] == 0 && lanes[message.lane()].offer(message)) {
+                return true;
+            }
+            // marker인 경우 key에 해당하는 메시지를 기록 (이후 같은 key의 메시지는 다시 marker부터 시작)
+            OutboundMessage spilled = message.isConflationMarker() ? conflated.get(message.conflationKey()) : message;
+            try {
+                if (spillFile.append(spilled.pushMessage())) {
+                    statistics.spilled();
+                    if (message.isConflationMarker()) {
+                        conflated.remove(message.conflationKey());
+                    }
+                    discard(spilled);
+                    return true;
+                }
+            } catch (IOException e) {
+                LOG.error("[OutboundQueue:{}] [{}] [{}] failed to spill to {}", serviceId, groupId(), clientId(), spillFile, e);
+            }
+        }
+        statistics.spillFailed();
+        return false;
+    }
+
+    /**
+     * spill file에 기록된 메시지를 최대 batchSize개까지 조회하도록 I/O 쓰레드에 요청한다.<br>
+     * -채널의 EventLoop에서만 실행됨<br>
+     * -EventLoop에서 파일을 읽지 않도록 조회는 I/O 쓰레드에서 실행하고, 조회한 메시지는 {@link #refill(List)}에서 EventLoop가 큐에 추가<br>
+     * -메모리 budget을 초과한 상태에서는 이 큐의 메시지가 모두 전송된 후에만 추가 (전송 완료시 {@link #drained(long)}에서 재개)
+     * @return 조회 작업이 진행중이거나 budget 초과로 추가를 미루었으면 true
+     */
+    private boolean refill() {
+        if (spillFile == null) {
+            return false;
+        }
+        if (prefetching || budget.isExhausted() && pendingBytes.get() > 0) {
+            return true;
+        }
+        if (spillFile.isEmpty()) {
+            return false;
+        }
+
+        prefetching = true;
+        try {
+            ioExecutor.execute(this::prefetch);
+        } catch (RejectedExecutionException e) {
+            LOG.error("[OutboundQueue:{}] [{}] [{}] failed to schedule reading spilled messages from {}", serviceId, groupId(), clientId(), spillFile);
+        }
+        return true;
+    }
+
+    /**
+     * spill file에 기록된 메시지를 최대 batchSize개까지 순서대로 조회하여 EventLoop에 전달한다.<br>
+     * -I/O 쓰레드에서 실행됨<br>
+     * -조회한 메시지는 큐에 추가될 때까지 lane별로 집계하여, 그 사이 추가되는 같은 lane의 메시지가 먼저 큐에 추가되지 않도록 함
+     */
+    private void prefetch() {
+        List<PushMessage> batch = new ArrayList<PushMessage>();
+        synchronized (spillFile) {
+            try {
+                PushMessage pushMessage = null;
+                // 조회한 메시지의 우선순위를 미리 알 수 없으므로 모든 lane에 공간이 있을 때만 조회
+                while (!shutdown && batch.size() < batchSize && hasRemainingCapacity() && (pushMessage = spillFile.poll()) != null) {
+                    prefetched[PriorityScheduler.lane(pushMessage)]++;
+                    batch.add(pushMessage);
+                }
+            } catch (IOException e) {
+                LOG.error("[OutboundQueue:{}] [{}] [{}] failed to read spilled messages from {}", serviceId, groupId(), clientId(), spillFile, e);
+                statistics.spillFailed(spillFile.size());
+                spillFile.close();
+            }
+        }
+
+        try {
+            channel.eventLoop().execute(() -> refill(batch));
+        } catch (RejectedExecutionException e) {
+            LOG.error("[OutboundQueue:{}] [{}] [{}] failed to schedule refill task", serviceId, groupId(), clientId());
+            synchronized (spillFile) {
+                Arrays.fill(prefetched, 0);
+            }
+        }
+    }
+
+    /**
+     * spill file에서 조회한 메시지를 순서대로 큐에 다시 추가하고 전송을 재개한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     * @param batch spill file에서 조회한 메시지
+     */
+    private void refill(List<PushMessage> batch) {
+        prefetching = false;
+        long now = System.currentTimeMillis();
+        synchronized (spillFile) {
+            for (PushMessage pushMessage : batch) {
+                prefetched[PriorityScheduler.lane(pushMessage)]--;
+                if (shutdown) {
+                    continue;
+                }
+                if (pushMessage.isExpired(now)) {
+                    statistics.expired();
+                    continue;
+                }
+                OutboundMessage message = new OutboundMessage(pushMessage);
+                // 이미 전송하기로 한 메시지이므로 budget과 관계없이 할당
+                budget.reserve(message.size());
+                pendingBytes.addAndGet(message.size());
+                lanes[message.lane()].offer(message);
+            }
+        }
+
+        if (shutdown) {
+            // shutdown과 경합하여 추가된 경우 남은 메시지 해제
+            releaseAll();
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * lane별로 남은 공간 중 최소값을 반환한다.<br>
+     * -spill file에서 조회 후 큐 추가를 기다리는 메시지 수만큼 공간을 제외
+     * @return 모든 lane에 추가할 수 있는 메시지 수
+     */
+    private int remainingCapacity() {
+        int remaining = Integer.MAX_VALUE;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            remaining = Math.min(remaining, lanes[lane].remainingCapacity() - prefetched[lane]);
+        }
+        return Math.max(remaining, 0);
+    }
+
+    /**
+     * 모든 lane에 spill file에서 조회한 메시지를 추가할 공간이 남아 있는지 여부를 반환한다.<br>
+     * -spillFile lock 안에서 호출되며, 조회 후 큐 추가를 기다리는 메시지 수만큼 공간을 제외
+     * @return 모든 lane에 공간이 있으면 true
+     */
+    private boolean hasRemainingCapacity() {
+        for (int lane = 0; lane < lanes.length; lane++) {
+            if (lanes[lane].remainingCapacity() <= prefetched[lane]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 큐, spill file 또는 전달중인 우편함에 전송할 메시지가 남아 있는지 여부를 반환한다.
+     * @return 전송할 메시지가 있으면 true
+     */
+    private boolean hasPending() {
+        return hasQueued() || spillFile != null && !spillFile.isEmpty() || mailbox != null;
+    }
+
+    private boolean hasQueued() {
+        for (BlockingQueue<OutboundMessage> lane : lanes) {
+            if (!lane.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int size() {
+        int size = 0;
+        for (BlockingQueue<OutboundMessage> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    /**
+     * 메시지가 큐와 연관된 클라이언트 채널에 전송할 대상인지 여부를 반환한다.
+     * @param pushMessage Push 메시지
+     * @return 서비스ID, 그룹ID, 클라이언트ID가 채널과 일치하고 큐가 종료되지 않았으면 true
+     *         (여러 대상 메시지는 채널의 클라이언트ID 또는 그룹ID가 대상 목록에 포함되면 true, topic 메시지는 구독중인 filter가 일치하면 true)
+     */
+    boolean isValid(PushMessage pushMessage) {
+        if (pushMessage == null || shutdown) {
             return false;
         }
 
@@ -81,6 +865,15 @@ public class OutboundQueue extends Thread {
         if (msgServiceId == null || !msgServiceId.equals(serviceId)) {
             return false;
         }
+        if (pushMessage.isMultiTarget()) {
+            Set<String> clientIds = pushMessage.getClientIds();
+            Set<String> groupIds = pushMessage.getGroupIds();
+            return (clientIds != null && clientIds.contains(clientId())) || (groupIds != null && groupIds.contains(groupId()));
+        }
+        String msgTopic = pushMessage.getTopic();
+        if (msgTopic != null) {
+            return topics.stream().anyMatch(filter -> TopicTrie.matches(filter, msgTopic));
+        }
         if (msgGroupId != null && !msgGroupId.equals(groupId())) {
             return false;
         }
@@ -91,47 +884,357 @@ public class OutboundQueue extends Thread {
         return true;
     }
 
+    /**
+     * 전송 작업이 스케줄되어 있지 않은 경우에만 채널의 EventLoop에 전송 작업을 요청한다.
+     */
+    private void scheduleDrain() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            channel.eventLoop().execute(drainTask);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+            LOG.error("[OutboundQueue:{}] [{}] [{}] failed to schedule drain task", serviceId, groupId(), clientId());
+        }
+    }
+
+    /**
+     * 큐에서 최대 batchSize개의 메시지를 추출하여 클라이언트 채널에 write하고 한 번만 flush한다.<br>
+     * -채널의 EventLoop에서만 실행됨<br>
+     * -batchSize를 채우지 못했고 flushDelay가 지정된 경우, 이후 추가되는 메시지와 모아서 전송하도록 flush를 지연<br>
+     * -채널이 writable 상태가 아니게 되면 즉시 flush하고 중단 ({@link #resume()} 호출시 재개)<br>
+     * -write한 메시지의 메모리 budget은 마지막 write가 완료된 후 반환
+     */
+    private void drain() {
+        boolean refillDeferred = !shutdown && refill();
+        refillDeferred |= !shutdown && refillFromMailbox();
+
+        long now = System.currentTimeMillis();
+        int written = 0;
+        long writtenBytes = 0;
+        List<OutboundMessage> sharedWritten = null;
+        ChannelFuture lastWrite = null;
+        OutboundMessage message = null;
+        while (!shutdown && written < batchSize && channel.isWritable() && hasAckWindow() && (message = poll()) != null) {
+            if (message.pushMessage().isExpired(now)) {
+                discard(message);
+                statistics.expired();
+                LOG.info("[OutboundQueue:{}] [{}] [{}] expired {}", serviceId, groupId(), clientId(), message);
+                continue;
+            }
+            LOG.info("[OutboundQueue:{}] [{}] [{}] take {}", serviceId, groupId(), clientId(), message);
+            Object content = message.content();
+            int size = message.size();
+            if (content != message.pushMessage() && !isDefaultCodec()) {
+                // 큐에 추가된 이후 codec이 변경된 경우 공유 인코딩 메시지 대신 채널의 encoder로 인코딩
+                // (채널별로 인코딩되므로 공유 budget 대신 추정 크기만큼 할당하여 전송 완료시 반환)
+                message.release();
+                content = message.pushMessage();
+                size = OutboundMessage.sizeOf(message.pushMessage());
+                budget.reserve(size);
+                pendingBytes.addAndGet(size);
+            }
+            if (message.isShared()) {
+                if (sharedWritten == null) {
+                    sharedWritten = new ArrayList<OutboundMessage>();
+                }
+                sharedWritten.add(message);
+            }
+            if (content == message.pushMessage() && message.pushMessage().isMultiTarget()) {
+                // 여러 대상 메시지의 대상 목록은 클라이언트에 전송하지 않음
+                content = message.pushMessage().retarget(null, null, null, null);
+            }
+            lastWrite = channel.write(content);
+            writtenBytes += size;
+            written++;
+            if (ackWindow > 0 && message.pushMessage().getAckId() != null) {
+                inFlight.put(message.pushMessage().getAckId(), new InFlightMessage(message.pushMessage(), now));
+            }
+        }
+        scheduleAckTimeout();
+
+        if (lastWrite != null) {
+            // 채널의 write 완료 통지는 write 순서대로 발생하므로 마지막 write 완료시 batch 전체를 반환
+            long bytes = writtenBytes;
+            List<OutboundMessage> shared = sharedWritten;
+            lastWrite.addListener((ChannelFutureListener) future -> drained(bytes, shared));
+        }
+
+        if (written > 0) {
+            if (written < batchSize && flushDelay > 0 && channel.isWritable()) {
+                scheduleFlush();
+            } else {
+                flush();
+            }
+        }
+
+        scheduled.set(false);
+
+        // 스케줄 해제 직전에 추가된 메시지가 있으면 다시 스케줄 (writable 상태가 아니면 resume 시점까지 대기)
+        // (budget 초과로 spill file의 메시지 추가를 미룬 경우 전송 완료 시점까지, 파일 조회중인 경우 조회 완료 시점까지, ack window가 가득 찬 경우 ack 수신 시점까지 대기)
+        if (!shutdown && (refillDeferred ? hasQueued() : hasPending()) && channel.isWritable() && hasAckWindow()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 채널에 write한 메시지의 전송이 완료되었을 때 메모리 budget을 반환한다.<br>
+     * -공유 인코딩 메시지는 공유 budget 참조를 해제하여 모든 채널이 전송을 마치면 반환<br>
+     * -spill file에 메시지가 남아 있으면 전송을 재개
+     * @param bytes 전송이 완료된 메시지 크기 합계
+     * @param shared 전송이 완료된 공유 인코딩 메시지 (없으면 null)
+     */
+    private void drained(long bytes, List<OutboundMessage> shared) {
+        release(bytes);
+        if (shared != null) {
+            shared.forEach(OutboundMessage::sent);
+        }
+        if (spillFile != null && channel.isWritable()) {
+            resume();
+        }
+    }
+
+    /**
+     * ack를 받지 않은 메시지를 더 전송할 수 있는지 여부를 반환한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     * @return ack 모드가 아니거나 ack 대기 메시지가 outboundAckWindow개 미만이면 true
+     */
+    private boolean hasAckWindow() {
+        return ackWindow <= 0 || inFlight.size() < ackWindow;
+    }
+
+    /**
+     * 클라이언트가 처리를 완료한 메시지를 ack 대기 목록에서 제거하고 ack 지연 시간을 집계한다.<br>
+     * -채널의 EventLoop에서만 실행됨<br>
+     * -ack window에 여유가 생기므로 전송 대기 메시지가 있으면 전송을 재개
+     * @param ackId 클라이언트가 ack를 보낸 메시지의 ackId
+     * @return ack 대기 메시지였으면 true
+     */
+    boolean ack(long ackId) {
+        InFlightMessage message = inFlight.remove(ackId);
+        if (message == null) {
+            return false;
+        }
+
+        long latency = System.currentTimeMillis() - message.firstSentAt();
+        acked++;
+        ackLatencyTotal += latency;
+        ackLatencyMax = Math.max(ackLatencyMax, latency);
+        statistics.acked(latency);
+        LOG.debug("[OutboundQueue:{}] [{}] [{}] acked {} in {} ms", serviceId, groupId(), clientId(), ackId, latency);
+
+        resume();
+        return true;
+    }
+
+    /**
+     * ack 시간 초과 확인 작업이 스케줄되어 있지 않고 ack 대기 메시지가 있으면, 가장 오래된 메시지의 시간 초과 시점에 실행하도록 스케줄한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     */
+    private void scheduleAckTimeout() {
+        if (ackTimeoutScheduled || inFlight.isEmpty() || shutdown) {
+            return;
+        }
+        long delay = inFlight.values().iterator().next().sentAt() + ackTimeout - System.currentTimeMillis();
+        ackTimeoutScheduled = true;
+        channel.eventLoop().schedule(ackTimeoutTask, Math.max(delay, 1L), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ack 시간 초과된 메시지를 다시 전송하고, 만료되었거나 재전송 횟수를 넘은 메시지는 버린다.<br>
+     * -채널의 EventLoop에서만 실행됨<br>
+     * -다시 전송한 메시지는 ack 대기 목록의 마지막으로 이동하므로 목록은 항상 마지막 전송 순서로 유지
+     */
+    private void checkAckTimeout() {
+        ackTimeoutScheduled = false;
+        if (shutdown) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<InFlightMessage> timedOut = new ArrayList<InFlightMessage>();
+        Iterator<InFlightMessage> iterator = inFlight.values().iterator();
+        while (iterator.hasNext()) {
+            InFlightMessage message = iterator.next();
+            if (message.sentAt() + ackTimeout > now) {
+                break;
+            }
+            iterator.remove();
+            timedOut.add(message);
+        }
+
+        int redelivered = 0;
+        for (InFlightMessage message : timedOut) {
+            PushMessage pushMessage = message.pushMessage();
+            if (pushMessage.isExpired(now)) {
+                statistics.expired();
+                LOG.info("[OutboundQueue:{}] [{}] [{}] expired while waiting for ack {}", serviceId, groupId(), clientId(), pushMessage);
+            } else if (message.retries() >= ackRetries) {
+                statistics.ackTimedOut();
+                LOG.warn("[OutboundQueue:{}] [{}] [{}] ack timed out {}", serviceId, groupId(), clientId(), pushMessage);
+            } else {
+                message.redelivered(now);
+                inFlight.put(pushMessage.getAckId(), message);
+                // 여러 대상 메시지의 대상 목록은 클라이언트에 전송하지 않음
+                channel.write(pushMessage.isMultiTarget() ? pushMessage.retarget(null, null, null, null) : pushMessage);
+                statistics.redelivered();
+                redelivered++;
+                LOG.info("[OutboundQueue:{}] [{}] [{}] redeliver {}", serviceId, groupId(), clientId(), pushMessage);
+            }
+        }
+        if (redelivered > 0) {
+            flush();
+        }
+
+        scheduleAckTimeout();
+        if (redelivered < timedOut.size()) {
+            // 버려진 메시지만큼 ack window에 여유가 생김
+            resume();
+        }
+    }
+
+    /**
+     * ack 대기 목록을 비우고 ack를 받지 못한 메시지 수를 집계한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     */
+    private void clearInFlight() {
+        if (!inFlight.isEmpty()) {
+            statistics.unacked(inFlight.size());
+            LOG.info("[OutboundQueue:{}] [{}] [{}] {} message(s) not acked", serviceId, groupId(), clientId(), inFlight.size());
+            inFlight.clear();
+        }
+    }
+
+    /**
+     * 채널이 다시 writable 상태가 되었을 때 중단된 전송을 재개한다.
+     */
+    public void resume() {
+        if (!shutdown && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * 지연 flush 작업이 스케줄되어 있지 않은 경우에만 flushDelay 후 flush하도록 스케줄한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     */
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            channel.eventLoop().schedule(flushTask, flushDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 채널에 write된 메시지를 flush한다.<br>
+     * -채널의 EventLoop에서만 실행됨
+     */
+    private void flush() {
+        flushScheduled = false;
+        channel.flush();
+    }
+
     /**
      * 큐의 현재 상태를 문자열로 반환한다.
      * @return 큐 상태 문자열
      */
     public String status() {
-        return "groupId: " + groupId() + ", clientId: " + clientId() + ", channel: " + channel + ", capacity: " + capacity + ", current: " + queue.size();
+        return "groupId: " + groupId() + ", clientId: " + clientId() + ", channel: " + channel + ", capacity: " + capacity + ", current: " + size()
+                + (spillFile != null ? ", spilled: " + spillFile.size() : "")
+                + (conflated != null ? ", conflated keys: " + conflated.size() : "")
+                + (!topics.isEmpty() ? ", topics: " + topics.size() : "")
+                + (ackWindow > 0 ? ", in-flight: " + inFlight.size() + "/" + ackWindow + ", acked: " + acked
+                        + ", ack latency avg/max: " + (acked > 0 ? ackLatencyTotal / acked : 0) + "/" + ackLatencyMax + " ms" : "")
+                + ", pending bytes: " + pendingBytes.get();
     }
 
     /**
-     * OutboundQueue 쓰레드가 종료되도록 한다.
+     * OutboundQueue를 종료하고 남은 메시지를 제거한다.
      */
     public void shutdown() {
-        this.interrupt();
+        shutdown = true;
+        releaseAll();
+        synchronized (mailboxLock) {
+            if (mailbox != null) {
+                mailbox.close();
+                mailbox = null;
+            }
+        }
+        if (ackWindow > 0) {
+            if (channel.eventLoop().inEventLoop()) {
+                clearInFlight();
+            } else {
+                try {
+                    channel.eventLoop().execute(this::clearInFlight);
+                } catch (RejectedExecutionException e) {
+                    LOG.error("[OutboundQueue:{}] [{}] [{}] failed to clear in-flight messages", serviceId, groupId(), clientId());
+                }
+            }
+        }
+
+        LOG.info("[OutboundQueue:{}] [{}] [{}] shutdown", serviceId, groupId(), clientId());
+    }
+
+    private void releaseAll() {
+        OutboundMessage message = null;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            while ((message = poll(lane)) != null) {
+                discard(message);
+            }
+        }
+        if (conflated != null) {
+            // marker 추출과 경합하여 남은 메시지 해제
+            conflated.keySet().forEach(conflationKey -> {
+                OutboundMessage remaining = conflated.remove(conflationKey);
+                if (remaining != null) {
+                    discard(remaining);
+                }
+            });
+        }
+        if (spillFile != null) {
+            spillFile.close();
+        }
     }
 
     /**
-     * 큐에서 메시지를 추출하여 클라이언트 채널에 전송한다.
-     * @see java.lang.Thread#run()
+     * 클라이언트 채널에 전송한 후 ack를 기다리는 메시지
      */
-    @Override
-    public void run() {
-        setName("OutboundQueueThread:" + serviceId);
+    private static class InFlightMessage {
 
-        LOG.info("[{}] [{}] [{}] started", getName(), groupId(), clientId());
+        private final PushMessage pushMessage;	// Push 메시지
+        private final long firstSentAt;			// 최초 전송 시각
+        private long sentAt;					// 마지막 전송 시각
+        private int retries;					// 재전송 횟수
 
-        PushMessage message = null;
-        while (!isInterrupted()) {
-            try {
-                message = queue.take();
-                LOG.info("[{}] [{}] [{}] take {}", getName(), groupId(), clientId(), message);
-            } catch (InterruptedException e) {
-                break;
-            }
+        InFlightMessage(PushMessage pushMessage, long sentAt) {
+            this.pushMessage = pushMessage;
+            this.firstSentAt = sentAt;
+            this.sentAt = sentAt;
+        }
 
-            if (message != null) {
-                channel.writeAndFlush(message);
-                message = null;
-            }
+        PushMessage pushMessage() {
+            return pushMessage;
+        }
+
+        long firstSentAt() {
+            return firstSentAt;
+        }
+
+        long sentAt() {
+            return sentAt;
+        }
+
+        int retries() {
+            return retries;
+        }
+
+        void redelivered(long now) {
+            sentAt = now;
+            retries++;
         }
 
-        LOG.info("[{}] [{}] [{}] shutdown", getName(), groupId(), clientId());
     }
 
 }
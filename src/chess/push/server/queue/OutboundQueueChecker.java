@@ -6,10 +6,9 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.netty.channel.ChannelId;
-
 /**
- * OutboundQueue 상태 모니터링 쓰레드
+ * OutboundQueue 상태 모니터링 쓰레드<br>
+ * -모니터링 주기마다 유휴 시간이 지난 우편함도 정리
  */
 public class OutboundQueueChecker extends Thread {
 
@@ -36,7 +35,7 @@ public class OutboundQueueChecker extends Thread {
     }
 
     /**
-     * 주기적으로 OutboundQueue 상태정보를 로깅한다.
+     * 주기적으로 유휴 우편함을 정리하고 OutboundQueue 상태정보를 로깅한다.
      * @see java.lang.Thread#run()
      */
     @Override
@@ -47,13 +46,17 @@ public class OutboundQueueChecker extends Thread {
 
         while (!isInterrupted()) {
             StringBuilder builder = new StringBuilder();
-            Map<String, Map<ChannelId, OutboundQueue>> outboundQueueGroups = outboundQueueManager.outboundQueueGroups();
+            Map<String, OutboundQueueGroup> outboundQueueGroups = outboundQueueManager.outboundQueueGroups();
             outboundQueueGroups.forEach((serviceId, outboundQueueGroup) -> {
-                builder.append("[").append(serviceId).append("]\n");
+                outboundQueueGroup.expireMailboxes();
+                builder.append("[").append(serviceId).append("] ").append(outboundQueueGroup.statistics().status())
+                       .append(", mailboxes: ").append(outboundQueueGroup.mailboxCount())
+                       .append(", topics: ").append(outboundQueueGroup.topicCount())
+                       .append(", ").append(outboundQueueGroup.memoryBudget().status()).append("\n");
                 if (outboundQueueGroup.isEmpty()) {
                     builder.append("\tNo Outbound Queue\n");
                 } else {
-                    outboundQueueGroup.forEach((channelId, outboundQueue) -> {
+                    outboundQueueGroup.queues().forEach(outboundQueue -> {
                         builder.append("\t").append(outboundQueue.status()).append("\n");
                     });
                 }
@@ -0,0 +1,567 @@
+package chess.push.server.queue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushConstant;
+import chess.push.common.PushMessage;
+import chess.push.common.PushMessageCodec;
+import chess.push.common.PushMessageCodecs;
+import chess.push.server.cluster.RouteListener;
+import chess.push.server.cluster.RouteType;
+import chess.push.server.property.OverflowPolicy;
+import chess.push.server.property.PushServiceProperty;
+import chess.push.server.property.ServerType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelId;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+
+/**
+ * 서비스ID 단위로 OutboundQueue 인스턴스를 보관하는 그룹<br>
+ * -Netty Channel 인스턴스의 ChannelId를 key로 하여 OutboundQueue 보관<br>
+ * -클라이언트ID, 그룹ID를 key로 하는 보조 인덱스를 유지하여 대상 OutboundQueue를 O(대상 수)로 조회<br>
+ * -채널이 구독한 topic filter를 wildcard를 지원하는 trie로 유지하여 topic 메시지의 구독자를 일치하는 filter 수에 비례하는 비용으로 조회<br>
+ * -offlineMailboxCapacity가 설정된 경우 연결되지 않은 클라이언트ID에 대한 개별 메시지를 우편함에 보관하고, 클라이언트ID 등록시 순서대로 전달<br>
+ * -messageHistoryCapacity가 설정된 경우 재연결 클라이언트가 ID 등록시 전송한 sequence 이후의 메시지를 history에서 다시 전달<br>
+ * -그룹에 속한 OutboundQueue는 outboundMemoryBudget으로 생성한 메모리 budget을 공유<br>
+ * -SPILL_TO_DISK 방식이나 우편함 파일을 사용하는 경우 EventLoop가 파일을 읽지 않도록 그룹 단위 I/O 쓰레드에서 조회
+ */
+public class OutboundQueueGroup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboundQueueGroup.class);
+
+    private final PushServiceProperty property;						// Push Service property
+    private final String serviceId;									// Push Service ID
+    private final ServerType serverType;							// Outbound Server communication type
+    private final PushMessageCodec codec;							// 서비스 기본 codec (공유 인코딩에 사용)
+    private final ByteBufAllocator allocator;						// 공유 인코딩 메시지를 할당할 allocator
+    private final Map<ChannelId, OutboundQueue> queues;				// ChannelId를 key로 하는 OutboundQueue collection
+    private final Map<String, Set<OutboundQueue>> clientIdIndex;	// 클라이언트ID를 key로 하는 OutboundQueue 인덱스
+    private final Map<String, Set<OutboundQueue>> groupIdIndex;		// 그룹ID를 key로 하는 OutboundQueue 인덱스
+    private final TopicTrie<OutboundQueue> topicIndex;				// topic filter를 구독한 OutboundQueue 인덱스
+    private final OutboundQueueStatistics statistics;				// 그룹에 속한 OutboundQueue 처리 통계
+    private final OutboundMemoryBudget memoryBudget;				// 그룹에 속한 OutboundQueue가 공유하는 메모리 budget
+    private final Map<String, OfflineMailbox> mailboxes;			// 클라이언트ID를 key로 하는 우편함 collection
+    private final MessageHistory history;							// sequence 부여 및 최근 메시지 보관 (messageHistoryCapacity가 0이면 null)
+    private final ExecutorService ioExecutor;						// spill file과 우편함 파일 조회를 실행할 I/O 쓰레드 (파일을 사용하지 않으면 null)
+    private volatile RouteListener routeListener;					// 인덱스 변경 통지 대상 (클러스터 모드가 아니면 null)
+
+    /**
+     * constructor with parameters
+     * @param property Push Service property
+     * @param allocator 공유 인코딩 메시지를 할당할 allocator
+     */
+    public OutboundQueueGroup(PushServiceProperty property, ByteBufAllocator allocator) {
+        this.property = property;
+        this.serviceId = property.getServiceId();
+        this.serverType = property.getOutboundServerType();
+        this.codec = PushMessageCodecs.get(property.getOutboundCodec());
+        this.allocator = allocator;
+        this.queues = new ConcurrentHashMap<ChannelId, OutboundQueue>();
+        this.clientIdIndex = new ConcurrentHashMap<String, Set<OutboundQueue>>();
+        this.groupIdIndex = new ConcurrentHashMap<String, Set<OutboundQueue>>();
+        this.topicIndex = new TopicTrie<OutboundQueue>();
+        this.statistics = new OutboundQueueStatistics();
+        this.memoryBudget = new OutboundMemoryBudget(property.getOutboundMemoryBudget());
+        this.mailboxes = new ConcurrentHashMap<String, OfflineMailbox>();
+        this.history = property.getMessageHistoryCapacity() > 0 ? new MessageHistory(property) : null;
+        this.ioExecutor = property.getOutboundOverflowPolicy() == OverflowPolicy.SPILL_TO_DISK
+                || property.getOfflineMailboxCapacity() > 0 && property.getOfflineMailboxDirectory() != null
+                ? Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "OutboundIoThread:" + serviceId);
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * 그룹의 서비스ID를 반환한다.
+     * @return 서비스ID
+     */
+    public String serviceId() {
+        return serviceId;
+    }
+
+    /**
+     * 그룹에 속한 OutboundQueue 처리 통계를 반환한다.
+     * @return OutboundQueue 처리 통계
+     */
+    public OutboundQueueStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * 그룹에 속한 OutboundQueue가 공유하는 메모리 budget을 반환한다.
+     * @return 메모리 budget
+     */
+    public OutboundMemoryBudget memoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * 클라이언트ID/그룹ID 인덱스에 첫 채널이 등록되거나 마지막 채널이 해제될 때 통지받을 listener를 설정한다.
+     * @param routeListener 인덱스 변경 listener
+     */
+    void setRouteListener(RouteListener routeListener) {
+        this.routeListener = routeListener;
+    }
+
+    /**
+     * 채널이 등록된 클라이언트ID collection을 반환한다.
+     * @return 클라이언트ID collection (read-only)
+     */
+    public Set<String> clientIds() {
+        return Collections.unmodifiableSet(clientIdIndex.keySet());
+    }
+
+    /**
+     * 채널이 등록된 그룹ID collection을 반환한다.
+     * @return 그룹ID collection (read-only)
+     */
+    public Set<String> groupIds() {
+        return Collections.unmodifiableSet(groupIdIndex.keySet());
+    }
+
+    /**
+     * 채널이 구독중인 topic filter collection을 반환한다.
+     * @return topic filter collection
+     */
+    public Set<String> topics() {
+        Set<String> topics = new HashSet<String>();
+        queues.values().forEach(queue -> topics.addAll(queue.topics()));
+        return topics;
+    }
+
+    /**
+     * 구독자가 있는 topic filter 수를 반환한다.
+     * @return topic filter 수
+     */
+    public int topicCount() {
+        return topicIndex.size();
+    }
+
+    /**
+     * 그룹의 메시지 history를 반환한다.
+     * @return 메시지 history (messageHistoryCapacity가 0이면 null)
+     */
+    MessageHistory history() {
+        return history;
+    }
+
+    /**
+     * 클라이언트 채널의 OutboundQueue를 생성하여 그룹에 추가한다.
+     * @param channel 클라이언트 채널
+     */
+    void add(Channel channel) {
+        OutboundQueue queue = new OutboundQueue(property, channel, statistics, memoryBudget, ioExecutor);
+        queues.put(channel.id(), queue);
+        addIndex(RouteType.CLIENT, queue.clientId(), queue);
+        addIndex(RouteType.GROUP, queue.groupId(), queue);
+    }
+
+    /**
+     * 클라이언트 채널의 OutboundQueue를 그룹과 인덱스에서 제거한다.
+     * @param channel 클라이언트 채널
+     * @return 제거된 OutboundQueue 인스턴스 (없으면 null)
+     */
+    OutboundQueue remove(Channel channel) {
+        OutboundQueue queue = queues.remove(channel.id());
+        if (queue != null) {
+            removeIndex(RouteType.CLIENT, queue.clientId(), queue);
+            removeIndex(RouteType.GROUP, queue.groupId(), queue);
+            queue.topics().forEach(filter -> unsubscribe(queue, filter));
+        }
+        return queue;
+    }
+
+    /**
+     * 클라이언트 채널의 OutboundQueue를 반환한다.
+     * @param channel 클라이언트 채널
+     * @return OutboundQueue 인스턴스 (없으면 null)
+     */
+    OutboundQueue find(Channel channel) {
+        return queues.get(channel.id());
+    }
+
+    /**
+     * 클라이언트 채널에 클라이언트ID 속성을 설정하고 인덱스를 갱신한다.<br>
+     * -클라이언트ID의 우편함이 있으면 클라이언트 채널의 OutboundQueue에 넘겨, 큐에 공간이 생기는 만큼 순서대로 전달<br>
+     * -인덱스 추가 전에 우편함을 넘기고 이를 클라이언트ID 단위로 원자적으로 처리하여, 이후 전달되는 메시지가 우편함의 메시지보다 먼저 추가되지 않도록 함<br>
+     * -sequence가 지정된 경우 history의 누락 메시지를 우편함의 메시지보다 먼저 추가하고, 우편함의 메시지 중 중복은 버림
+     * &nbsp;(채널의 EventLoop에서 호출되므로 우편함 전달은 이 작업이 끝난 후 시작)
+     * @param channel 클라이언트 채널
+     * @param clientId 클라이언트ID
+     * @param sequence 클라이언트가 마지막으로 수신한 sequence (없으면 null)
+     */
+    void updateClientId(Channel channel, String clientId, Long sequence) {
+        String oldClientId = channel.attr(PushConstant.CLIENT_ID).getAndSet(clientId);
+        OutboundQueue queue = queues.get(channel.id());
+        if (queue == null) {
+            return;
+        }
+
+        removeIndex(RouteType.CLIENT, oldClientId, queue);
+        if (clientId == null || property.getOfflineMailboxCapacity() == 0) {
+            resume(queue, sequence, () -> addIndex(RouteType.CLIENT, clientId, queue));
+            return;
+        }
+
+        mailboxes.compute(clientId, (key, mailbox) -> {
+            if (mailbox != null) {
+                queue.attach(mailbox);
+            }
+            resume(queue, sequence, () -> addIndex(RouteType.CLIENT, key, queue));
+            return null;
+        });
+    }
+
+    /**
+     * 클라이언트 채널이 마지막으로 수신한 sequence 이후의 메시지 중 채널이 대상인 메시지를 history에서 다시 전달한다.
+     * @param channel 클라이언트 채널
+     * @param sequence 클라이언트가 마지막으로 수신한 sequence
+     */
+    void resume(Channel channel, long sequence) {
+        OutboundQueue queue = queues.get(channel.id());
+        if (queue != null) {
+            resume(queue, sequence, () -> {});
+        }
+    }
+
+    /**
+     * 인덱스를 갱신하고 history의 누락 메시지를 OutboundQueue에 추가한다.<br>
+     * -sequence 부여와 같은 lock 안에서 인덱스 갱신과 조회를 처리하면 조회 이후 부여된 메시지는 모두 갱신된 인덱스로 전달되고,
+     * &nbsp;조회 이전에 부여되어 아직 worker가 전달하지 않은 메시지는 OutboundQueue에서 중복으로 버려짐<br>
+     * &nbsp;(lock은 sequence 부여와 대기하지 않는 worker 큐 추가하고만 경합)
+     * @param queue 클라이언트 채널의 OutboundQueue
+     * @param sequence 클라이언트가 마지막으로 수신한 sequence (없거나 history를 사용하지 않으면 인덱스만 갱신)
+     * @param updateIndex 인덱스 갱신 작업
+     */
+    private void resume(OutboundQueue queue, Long sequence, Runnable updateIndex) {
+        if (sequence == null || history == null) {
+            updateIndex.run();
+            return;
+        }
+
+        List<PushMessage> missed = new ArrayList<PushMessage>();
+        int resumed;
+        synchronized (history) {
+            updateIndex.run();
+            boolean truncated = history.collect(sequence, message -> queue.isValid(message) && !queue.isEnqueued(message), missed);
+            resumed = queue.resume(missed, history.sequence());
+            if (truncated || resumed < missed.size()) {
+                statistics.resumeTruncated();
+            }
+        }
+        statistics.resumed(resumed);
+    }
+
+    /**
+     * 클라이언트ID에 해당하는 채널이 연결되어 있지 않으면 개별 메시지를 우편함에 보관한다.<br>
+     * -우편함이 가득 차거나, 새 우편함이 필요하지만 우편함 수가 offlineMailboxMaxCount에 도달했으면 메시지를 버림<br>
+     * &nbsp;(우편함 수는 클라이언트ID 단위 lock 밖에서 확인하므로 동시에 생성되는 만큼 잠시 넘을 수 있음)
+     * @param pushMessage 클라이언트ID가 지정된 Push 메시지
+     * @return 우편함에 보관했거나 우편함이 가득 차서 버렸으면 true, 우편함을 사용하지 않거나 채널이 연결되어 있으면 false
+     */
+    boolean storeOffline(PushMessage pushMessage) {
+        if (property.getOfflineMailboxCapacity() == 0) {
+            return false;
+        }
+
+        boolean[] stored = {true};
+        mailboxes.compute(pushMessage.getClientId(), (key, mailbox) -> {
+            // 우편함 전달과 경합하지 않도록 클라이언트ID 단위 lock 안에서 다시 확인
+            if (!find(clientIdIndex, key).isEmpty()) {
+                stored[0] = false;
+                return mailbox;
+            }
+
+            if (mailbox == null && property.getOfflineMailboxMaxCount() > 0 && mailboxes.size() >= property.getOfflineMailboxMaxCount()) {
+                statistics.offlineDropped();
+                return null;
+            }
+
+            OfflineMailbox result = mailbox != null ? mailbox : new OfflineMailbox(property, key);
+            if (result.add(pushMessage)) {
+                statistics.storedOffline();
+            } else {
+                statistics.offlineDropped();
+            }
+            return result;
+        });
+        return stored[0];
+    }
+
+    /**
+     * offlineMailboxIdleTimeout 동안 메시지가 추가되지 않은 우편함을 버린다.<br>
+     * -클라이언트ID 등록으로 OutboundQueue에 넘겨진 우편함은 collection에 없으므로 대상이 아님
+     */
+    public void expireMailboxes() {
+        if (property.getOfflineMailboxIdleTimeout() == 0 || mailboxes.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long idleTimeout = TimeUnit.SECONDS.toMillis(property.getOfflineMailboxIdleTimeout());
+        int[] expired = {0};
+        mailboxes.forEach((clientId, mailbox) -> {
+            if (!mailbox.isIdle(now, idleTimeout)) {
+                return;
+            }
+            // 조회 이후 메시지가 추가되었거나 클라이언트ID가 등록되었을 수 있으므로 클라이언트ID 단위 lock 안에서 다시 확인
+            mailboxes.computeIfPresent(clientId, (key, current) -> {
+                if (current != mailbox || !current.isIdle(now, idleTimeout)) {
+                    return current;
+                }
+                statistics.offlineExpired(current.size());
+                current.close();
+                expired[0]++;
+                return null;
+            });
+        });
+        if (expired[0] > 0) {
+            LOG.info("[OutboundQueueGroup:{}] expired {} idle mailboxes", serviceId, expired[0]);
+        }
+    }
+
+    /**
+     * 메시지를 보관중인 우편함 수를 반환한다.
+     * @return 우편함 수
+     */
+    public int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * 클라이언트 채널에 그룹ID 속성을 설정하고 인덱스를 갱신한다.
+     * @param channel 클라이언트 채널
+     * @param groupId 그룹ID
+     */
+    void updateGroupId(Channel channel, String groupId) {
+        String oldGroupId = channel.attr(PushConstant.GROUP_ID).getAndSet(groupId);
+        OutboundQueue queue = queues.get(channel.id());
+        if (queue != null) {
+            removeIndex(RouteType.GROUP, oldGroupId, queue);
+            addIndex(RouteType.GROUP, groupId, queue);
+        }
+    }
+
+    /**
+     * 클라이언트 채널의 구독 목록과 topic 인덱스에 topic filter를 추가한다.<br>
+     * -topic 인덱스 변경 통지가 구독 순서대로 처리되도록 인덱스 단위로 동기화
+     * @param channel 클라이언트 채널
+     * @param filter topic filter
+     * @return 구독했거나 이미 구독중이면 true, filter 형식이 잘못되었거나 최대 구독 수를 넘으면 false
+     */
+    boolean subscribe(Channel channel, String filter) {
+        OutboundQueue queue = queues.get(channel.id());
+        if (queue == null || !TopicTrie.isValidFilter(filter)) {
+            return false;
+        }
+
+        synchronized (topicIndex) {
+            // 채널 종료로 그룹에서 제거된 큐는 인덱스에 추가하지 않음
+            if (queues.get(channel.id()) != queue || !queue.subscribe(filter)) {
+                return false;
+            }
+            RouteListener listener = routeListener;
+            if (topicIndex.add(filter, queue) && listener != null) {
+                listener.routeAdded(serviceId, RouteType.TOPIC, filter);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 클라이언트 채널의 구독 목록과 topic 인덱스에서 topic filter를 제거한다.
+     * @param channel 클라이언트 채널
+     * @param filter topic filter
+     * @return 구독중이었으면 true
+     */
+    boolean unsubscribe(Channel channel, String filter) {
+        OutboundQueue queue = queues.get(channel.id());
+        return queue != null && unsubscribe(queue, filter);
+    }
+
+    private boolean unsubscribe(OutboundQueue queue, String filter) {
+        synchronized (topicIndex) {
+            if (!queue.unsubscribe(filter)) {
+                return false;
+            }
+            RouteListener listener = routeListener;
+            if (topicIndex.remove(filter, queue) && listener != null) {
+                listener.routeRemoved(serviceId, RouteType.TOPIC, filter);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * topic에 일치하는 filter를 구독한 OutboundQueue collection을 반환한다.<br>
+     * -여러 filter에 일치하는 OutboundQueue는 한 번만 포함
+     * @param topic topic
+     * @return OutboundQueue collection (read-only)
+     */
+    public Set<OutboundQueue> findByTopic(String topic) {
+        return topicIndex.match(topic);
+    }
+
+    /**
+     * 클라이언트ID에 해당하는 OutboundQueue collection을 반환한다.
+     * @param clientId 클라이언트ID
+     * @return OutboundQueue collection (read-only)
+     */
+    public Set<OutboundQueue> findByClientId(String clientId) {
+        return find(clientIdIndex, clientId);
+    }
+
+    /**
+     * 그룹ID에 해당하는 OutboundQueue collection을 반환한다.
+     * @param groupId 그룹ID
+     * @return OutboundQueue collection (read-only)
+     */
+    public Set<OutboundQueue> findByGroupId(String groupId) {
+        return find(groupIdIndex, groupId);
+    }
+
+    /**
+     * 그룹ID에 해당하는 OutboundQueue 중 partition key가 지정 파티션에 속하는 collection을 반환한다.
+     * @param groupId 그룹ID
+     * @param partition 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     * @return OutboundQueue collection
+     */
+    public Collection<OutboundQueue> findByGroupId(String groupId, int partition, int partitionCount) {
+        Set<OutboundQueue> found = find(groupIdIndex, groupId);
+        if (partitionCount == 1 || found.isEmpty()) {
+            return found;
+        }
+        Collection<OutboundQueue> result = new ArrayList<OutboundQueue>();
+        found.forEach(queue -> {
+            if (InboundQueue.partition(queue.partitionKey(), partitionCount) == partition) {
+                result.add(queue);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 그룹에 속한 전체 OutboundQueue collection을 반환한다.
+     * @return OutboundQueue collection (read-only)
+     */
+    public Collection<OutboundQueue> queues() {
+        return Collections.unmodifiableCollection(queues.values());
+    }
+
+    /**
+     * 그룹에 속한 OutboundQueue 중 partition key가 지정 파티션에 속하는 collection을 반환한다.
+     * @param partition 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     * @return OutboundQueue collection
+     */
+    public Collection<OutboundQueue> queues(int partition, int partitionCount) {
+        Collection<OutboundQueue> result = new ArrayList<OutboundQueue>();
+        queues.values().forEach(queue -> {
+            if (InboundQueue.partition(queue.partitionKey(), partitionCount) == partition) {
+                result.add(queue);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 그룹에 속한 OutboundQueue가 없는지 여부를 반환한다.
+     * @return OutboundQueue가 없으면 true
+     */
+    public boolean isEmpty() {
+        return queues.isEmpty();
+    }
+
+    /**
+     * 여러 채널에 공유할 수 있도록 Push 메시지를 서비스 기본 codec과 Outbound Server 유형에 맞는 형태로 한 번만 인코딩한다.<br>
+     * -TCPSOCKET: 스트림 구분(delimiter 또는 length field)이 추가된 ByteBuf<br>
+     * -WEBSOCKET: ByteBuf를 content로 갖는 TextWebSocketFrame (binary codec이면 BinaryWebSocketFrame)<br>
+     * -인코딩된 크기는 채널 수와 관계없이 그룹의 메모리 budget에 한 번만 집계
+     * @param pushMessage Push 메시지
+     * @return 인코딩된 공유 메시지 (모든 대상에 추가한 후 close 필요), 실패시 null
+     */
+    SharedEncoding encodeShared(PushMessage pushMessage) {
+        boolean stream = serverType == ServerType.TCPSOCKET;
+        // 여러 대상 메시지의 대상 목록은 클라이언트에 전송하지 않음
+        ByteBuf encoded = codec.encode(allocator, pushMessage.isMultiTarget() ? pushMessage.retarget(null, null, null, null) : pushMessage, stream);
+        if (encoded == null) {
+            return null;
+        }
+        if (stream) {
+            return new SharedEncoding(encoded, memoryBudget);
+        }
+        return new SharedEncoding(codec.isBinary() ? new BinaryWebSocketFrame(encoded) : new TextWebSocketFrame(encoded), memoryBudget);
+    }
+
+    private static Set<OutboundQueue> find(Map<String, Set<OutboundQueue>> index, String key) {
+        Set<OutboundQueue> found = index.get(key);
+        return found == null ? Collections.<OutboundQueue>emptySet() : Collections.unmodifiableSet(found);
+    }
+
+    /**
+     * 그룹의 I/O 쓰레드를 종료한다.
+     */
+    void shutdown() {
+        if (ioExecutor != null) {
+            ioExecutor.shutdownNow();
+        }
+    }
+
+    private Map<String, Set<OutboundQueue>> index(RouteType type) {
+        return type == RouteType.CLIENT ? clientIdIndex : groupIdIndex;
+    }
+
+    private void addIndex(RouteType type, String key, OutboundQueue queue) {
+        if (key == null) {
+            return;
+        }
+        // 빈 Set 제거와 경합하지 않도록 compute로 원자적으로 처리하고, 변경 통지도 같은 lock 안에서 순서대로 처리
+        index(type).compute(key, (k, set) -> {
+            Set<OutboundQueue> result = set != null ? set : ConcurrentHashMap.<OutboundQueue>newKeySet();
+            result.add(queue);
+            RouteListener listener = routeListener;
+            if (set == null && listener != null) {
+                listener.routeAdded(serviceId, type, k);
+            }
+            return result;
+        });
+    }
+
+    private void removeIndex(RouteType type, String key, OutboundQueue queue) {
+        if (key == null) {
+            return;
+        }
+        index(type).computeIfPresent(key, (k, set) -> {
+            set.remove(queue);
+            if (!set.isEmpty()) {
+                return set;
+            }
+            RouteListener listener = routeListener;
+            if (listener != null) {
+                listener.routeRemoved(serviceId, type, k);
+            }
+            return null;
+        });
+    }
+
+}
@@ -1,12 +1,19 @@
 package chess.push.server.queue;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import chess.push.common.PushMessage;
+import chess.push.server.cluster.RouteListener;
+import chess.push.server.property.PushServiceProperty;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelId;
 
 /**
  * 클라이언트 채널에 전송할 메시지를 보관하는 OutboundQueue 인스턴스 라이프사이클 관리자<br>
@@ -14,99 +21,331 @@ import io.netty.channel.ChannelId;
  */
 public class OutboundQueueManager {
 
+    private static final Logger LOG = LoggerFactory.getLogger(OutboundQueueManager.class);
+
     // 서비스ID에 따른 OutboundQueue 그룹을 보관하는 collection
-    // -OutboundQueue 그룹 내부에서는 Netty Channel 인스턴스의 ChannelId를 key로 하여 관리
-    private final Map<String, Map<ChannelId, OutboundQueue>> outboundQueueGroups;
+    // -OutboundQueue 그룹 내부에서는 Netty Channel 인스턴스의 ChannelId를 key로 하여 관리하고, 클라이언트ID/그룹ID 인덱스 유지
+    private final Map<String, OutboundQueueGroup> outboundQueueGroups;
 
     public OutboundQueueManager() {
-        outboundQueueGroups = new HashMap<String, Map<ChannelId, OutboundQueue>>();
+        outboundQueueGroups = new ConcurrentHashMap<String, OutboundQueueGroup>();
     }
 
     /**
      * 서비스ID에 대한 OutboundQueue 그룹을 생성한다.
+     * @param property Push 서비스 속성
+     * @param allocator 공유 인코딩 메시지를 할당할 allocator
+     */
+    public void addOutboundQueueGroup(PushServiceProperty property, ByteBufAllocator allocator) {
+        outboundQueueGroups.putIfAbsent(property.getServiceId(), new OutboundQueueGroup(property, allocator));
+    }
+
+    /**
+     * 모든 OutboundQueue 그룹의 클라이언트ID/그룹ID 인덱스 변경을 통지받을 listener를 설정한다.<br>
+     * -클러스터 모드에서 다른 노드에 라우팅 정보를 전달하는 용도
+     * @param routeListener 인덱스 변경 listener
+     */
+    public void setRouteListener(RouteListener routeListener) {
+        outboundQueueGroups.values().forEach(queueGroup -> queueGroup.setRouteListener(routeListener));
+    }
+
+    /**
+     * 클라이언트ID에 해당하는 채널이 로컬 노드에 연결되어 있는지 여부를 반환한다.
      * @param serviceId 서비스ID
+     * @param clientId 클라이언트ID
+     * @return 연결되어 있으면 true
      */
-    public void addOutboundQueueGroup(String serviceId) {
-        synchronized (outboundQueueGroups) {
-            if (!outboundQueueGroups.containsKey(serviceId)) {
-                outboundQueueGroups.put(serviceId, new HashMap<ChannelId, OutboundQueue>());
-            }
-        }
+    public boolean isRegistered(String serviceId, String clientId) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        return queueGroup != null && !queueGroup.findByClientId(clientId).isEmpty();
     }
 
     /**
-     * 신규 클라이언트 채널에 대한 OutboundQueue 인스턴스를 생성하여 쓰레드를 기동하고 OutboundQueue 그룹에 보관한다.
+     * 모든 OutboundQueue 그룹의 I/O 쓰레드를 종료한다.<br>
+     * -Outbound Server 종료 후 호출
+     */
+    public void shutdown() {
+        outboundQueueGroups.values().forEach(OutboundQueueGroup::shutdown);
+    }
+
+    /**
+     * 신규 클라이언트 채널에 대한 OutboundQueue 인스턴스를 생성하여 OutboundQueue 그룹에 보관한다.<br>
+     * -OutboundQueue는 별도 쓰레드 없이 클라이언트 채널의 EventLoop에서 메시지를 전송
      * @param serviceId 서비스ID
-     * @param capacity queue capacity
      * @param channel 클라이언트 채널
      */
-    public void startOutboundQueue(String serviceId, int capacity, Channel channel) {
-        if (!outboundQueueGroups.containsKey(serviceId)) {
+    public void startOutboundQueue(String serviceId, Channel channel) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup == null) {
             return;
         }
 
-        OutboundQueue newQueue = new OutboundQueue(serviceId, capacity, channel);
-        newQueue.start();
-
-        Map<ChannelId, OutboundQueue> queueGroup = outboundQueueGroups.get(serviceId);
-        synchronized (queueGroup) {
-            queueGroup.put(channel.id(), newQueue);
-        }
+        queueGroup.add(channel);
     }
 
     /**
-     * 기존 클라이언트 채널에 대한 OutboundQueue 쓰레드를 종료하고 OutboundQueue 그룹에서 제거한다.
+     * 기존 클라이언트 채널에 대한 OutboundQueue를 종료하고 OutboundQueue 그룹에서 제거한다.
      * @param serviceId 서비스ID
      * @param channel 클라이언트 채널
      */
     public void shutdownOutboundQueue(String serviceId, Channel channel) {
-        if (!outboundQueueGroups.containsKey(serviceId)) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup == null) {
             return;
         }
 
-        Map<ChannelId, OutboundQueue> queueGroup = outboundQueueGroups.get(serviceId);
-        if (queueGroup.containsKey(channel.id())) {
-            OutboundQueue queue = queueGroup.get(channel.id());
+        OutboundQueue queue = queueGroup.remove(channel);
+        if (queue != null) {
             queue.shutdown();
-            synchronized (queueGroup) {
-                queueGroup.remove(channel.id());
-            }
         }
     }
 
+    /**
+     * 클라이언트 채널이 다시 writable 상태가 되었을 때 OutboundQueue의 전송을 재개한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     */
+    public void resumeOutboundQueue(String serviceId, Channel channel) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup == null) {
+            return;
+        }
+
+        OutboundQueue queue = queueGroup.find(channel);
+        if (queue != null) {
+            queue.resume();
+        }
+    }
+
+    /**
+     * 클라이언트 채널이 처리를 완료한 메시지를 OutboundQueue의 ack 대기 목록에서 제거한다.<br>
+     * -클라이언트 채널의 EventLoop에서 호출
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param ackId 클라이언트가 ack를 보낸 메시지의 ackId
+     * @return ack 대기 메시지였으면 true
+     */
+    public boolean ack(String serviceId, Channel channel, long ackId) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup == null) {
+            return false;
+        }
+
+        OutboundQueue queue = queueGroup.find(channel);
+        return queue != null && queue.ack(ackId);
+    }
+
+    /**
+     * 클라이언트 채널에 클라이언트ID를 설정하고 라우팅 인덱스를 갱신한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param clientId 클라이언트ID
+     * @param sequence 클라이언트가 마지막으로 수신한 sequence (없으면 null)
+     */
+    public void updateClientId(String serviceId, Channel channel, String clientId, Long sequence) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup != null) {
+            queueGroup.updateClientId(channel, clientId, sequence);
+        }
+    }
+
+    /**
+     * 클라이언트 채널이 마지막으로 수신한 sequence 이후의 메시지를 history에서 다시 전달한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param sequence 클라이언트가 마지막으로 수신한 sequence
+     */
+    public void resume(String serviceId, Channel channel, long sequence) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup != null) {
+            queueGroup.resume(channel, sequence);
+        }
+    }
+
+    /**
+     * 서비스의 메시지 history를 반환한다.
+     * @param serviceId 서비스ID
+     * @return 메시지 history (서비스가 없거나 messageHistoryCapacity가 0이면 null)
+     */
+    MessageHistory history(String serviceId) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        return queueGroup != null ? queueGroup.history() : null;
+    }
+
+    /**
+     * 클라이언트 채널에 그룹ID를 설정하고 라우팅 인덱스를 갱신한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param groupId 그룹ID
+     */
+    public void updateGroupId(String serviceId, Channel channel, String groupId) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        if (queueGroup != null) {
+            queueGroup.updateGroupId(channel, groupId);
+        }
+    }
+
+    /**
+     * 클라이언트 채널이 topic filter를 구독하도록 한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param filter topic filter
+     * @return 구독했거나 이미 구독중이면 true, filter 형식이 잘못되었거나 최대 구독 수를 넘으면 false
+     */
+    public boolean subscribe(String serviceId, Channel channel, String filter) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        return queueGroup != null && queueGroup.subscribe(channel, filter);
+    }
+
+    /**
+     * 클라이언트 채널의 topic filter 구독을 해제한다.
+     * @param serviceId 서비스ID
+     * @param channel 클라이언트 채널
+     * @param filter topic filter
+     * @return 구독중이었으면 true
+     */
+    public boolean unsubscribe(String serviceId, Channel channel, String filter) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(serviceId);
+        return queueGroup != null && queueGroup.unsubscribe(channel, filter);
+    }
+
     /**
      * Push 메시지의 서비스ID, 그룹ID, 클라이언트ID에 따라 해당하는 OutboundQueue에 메시지를 추가한다.<br>
      * -클라이언트ID가 null이 아닌 경우, 해당 클라이언트ID를 갖는 채널의 OutboundQueue에 메시지 추가<br>
      * -클라이언트ID가 null이고 그룹ID가 null이 아닌 경우, 해당 그룹ID를 갖는 모든 채널의 OutboundQueue에 메시지 추가<br>
      * -클라이언트ID와 그룹ID가 모두 null인 경우, 해당 서비스ID를 갖는 모든 채널의 OutboundQueue에 메시지 추가<br>
+     * -클라이언트ID, 그룹ID 대상은 인덱스를 통해 조회하므로 전체 연결 수가 아닌 대상 수에 비례하는 비용으로 처리<br>
+     * -클라이언트ID에 해당하는 채널이 없는 경우 우편함을 사용하도록 설정되어 있으면 우편함에 보관<br>
+     * -여러 대상 메시지는 clientIds, groupIds에 해당하는 채널의 합집합에 한 번씩 추가<br>
+     * -topic 메시지는 topic에 일치하는 filter를 구독한 채널에 한 번씩 추가 (topic trie를 통해 일치하는 filter 수에 비례하는 비용으로 조회)
      * @param pushMessage Push 메시지
      */
     public void transfer(PushMessage pushMessage) {
-        String serviceId = pushMessage.getServiceId();
-        if (!outboundQueueGroups.containsKey(serviceId)) {
+        transfer(pushMessage, 0, 1);
+    }
+
+    /**
+     * InboundQueueWorker가 담당하는 파티션 기준으로 Push 메시지를 해당하는 OutboundQueue에 추가한다.<br>
+     * -클라이언트ID, topic 대상 메시지는 InboundQueue에서 이미 파티션이 결정되었으므로 {@link #transfer(PushMessage)}와 동일하게 처리<br>
+     * -전체, 그룹 대상 메시지는 partition key가 담당 파티션에 속하는 채널의 OutboundQueue에만 추가<br>
+     * -여러 대상 메시지는 담당 파티션에 속하는 클라이언트ID 대상과, partition key가 담당 파티션에 속하는 그룹 채널에만 추가
+     * @param pushMessage Push 메시지
+     * @param partition 담당 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     */
+    public void transfer(PushMessage pushMessage, int partition, int partitionCount) {
+        OutboundQueueGroup queueGroup = outboundQueueGroups.get(pushMessage.getServiceId());
+        if (queueGroup == null) {
+            return;
+        }
+
+        if (pushMessage.isMultiTarget()) {
+            fanOut(queueGroup, multiTargets(queueGroup, pushMessage, partition, partitionCount), pushMessage);
+            return;
+        }
+        if (pushMessage.getTopic() != null) {
+            fanOut(queueGroup, queueGroup.findByTopic(pushMessage.getTopic()), pushMessage);
             return;
         }
 
-        Map<ChannelId, OutboundQueue> queueGroup = outboundQueueGroups.get(serviceId);
         String clientId = pushMessage.getClientId();
         if (clientId != null) {
-            queueGroup.forEach((channelId, queue) -> {
-                if (clientId.equals(queue.clientId())) {
-                    queue.enqueue(pushMessage);
+            Collection<OutboundQueue> targets = queueGroup.findByClientId(clientId);
+            if (targets.isEmpty()) {
+                if (queueGroup.storeOffline(pushMessage)) {
+                    return;
                 }
-            });
+                // 우편함 확인 도중 클라이언트ID가 등록된 경우 다시 조회
+                targets = queueGroup.findByClientId(clientId);
+            }
+            fanOut(queueGroup, targets, pushMessage);
         } else {
             String groupId = pushMessage.getGroupId();
             if (groupId != null) {
-                 queueGroup.forEach((channelId, queue) -> {
-                     if (groupId.equals(queue.groupId())) {
-                         queue.enqueue(pushMessage);
-                     }
-                 });
+                fanOut(queueGroup, queueGroup.findByGroupId(groupId, partition, partitionCount), pushMessage);
             } else {
-                queueGroup.forEach((channelId, queue) -> {
-                    queue.enqueue(pushMessage);
-                });
+                fanOut(queueGroup, partitionCount == 1 ? queueGroup.queues() : queueGroup.queues(partition, partitionCount), pushMessage);
+            }
+        }
+    }
+
+    /**
+     * 여러 대상 메시지 중 담당 파티션에 속하는 대상의 OutboundQueue collection을 반환한다.<br>
+     * -클라이언트ID 대상은 클라이언트ID의 파티션, 그룹ID 대상은 그룹에 속한 채널의 partition key의 파티션으로 판단<br>
+     * -연결된 채널이 없는 클라이언트ID 대상은 클라이언트ID를 지정한 메시지로 우편함에 보관<br>
+     * -clientIds에 포함된 클라이언트의 채널은 그룹ID 대상에서 제외하여, 파티션이 다른 경우에도 한 번만 추가되도록 함
+     * @param queueGroup 서비스ID에 해당하는 OutboundQueue 그룹
+     * @param pushMessage 여러 대상 메시지
+     * @param partition 담당 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     * @return 대상 OutboundQueue collection
+     */
+    private Collection<OutboundQueue> multiTargets(OutboundQueueGroup queueGroup, PushMessage pushMessage, int partition, int partitionCount) {
+        Collection<OutboundQueue> targets = new LinkedHashSet<OutboundQueue>();
+        Collection<String> clientIds = pushMessage.getClientIds();
+        if (clientIds != null) {
+            for (String clientId : clientIds) {
+                if (InboundQueue.partition(clientId, partitionCount) != partition) {
+                    continue;
+                }
+                Collection<OutboundQueue> queues = queueGroup.findByClientId(clientId);
+                if (queues.isEmpty()) {
+                    if (queueGroup.storeOffline(pushMessage.retarget(null, clientId, null, null))) {
+                        continue;
+                    }
+                    // 우편함 확인 도중 클라이언트ID가 등록된 경우 다시 조회
+                    queues = queueGroup.findByClientId(clientId);
+                }
+                targets.addAll(queues);
+            }
+        }
+        if (pushMessage.getGroupIds() != null) {
+            for (String groupId : pushMessage.getGroupIds()) {
+                for (OutboundQueue queue : queueGroup.findByGroupId(groupId, partition, partitionCount)) {
+                    if (clientIds == null || !clientIds.contains(queue.clientId())) {
+                        targets.add(queue);
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * InboundQueueWorker에서 일괄 추출한 Push 메시지들을 순서대로 해당하는 OutboundQueue에 추가한다.<br>
+     * -개별 메시지 처리 중 발생한 예외는 로깅하고 나머지 메시지는 계속 처리
+     * @param pushMessages Push 메시지 collection
+     * @param partition 담당 파티션 번호
+     * @param partitionCount 전체 파티션 수
+     */
+    public void transfer(Collection<PushMessage> pushMessages, int partition, int partitionCount) {
+        for (PushMessage pushMessage : pushMessages) {
+            try {
+                transfer(pushMessage, partition, partitionCount);
+            } catch (Exception e) {
+                LOG.error("[OutboundQueueManager] failed to transfer " + pushMessage, e);
+            }
+        }
+    }
+
+    /**
+     * 대상 OutboundQueue collection에 메시지를 추가한다.<br>
+     * -대상이 여럿인 경우 메시지를 한 번만 인코딩하고, 각 OutboundQueue에는 이를 공유하는 retained duplicate를 추가
+     * @param queueGroup 서비스ID에 해당하는 OutboundQueue 그룹
+     * @param targets 대상 OutboundQueue collection
+     * @param pushMessage Push 메시지
+     */
+    private void fanOut(OutboundQueueGroup queueGroup, Collection<OutboundQueue> targets, PushMessage pushMessage) {
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        SharedEncoding sharedEncoded = targets.size() > 1 ? queueGroup.encodeShared(pushMessage) : null;
+        try {
+            targets.forEach(queue -> queue.enqueue(pushMessage, sharedEncoded));
+        } finally {
+            if (sharedEncoded != null) {
+                sharedEncoded.close();
             }
         }
     }
@@ -115,7 +354,7 @@ public class OutboundQueueManager {
      * 서비스ID에 따른 OutboundQueue 그룹 collection을 반환한다.
      * @return OutboundQueue 그룹 collection (read-only)
      */
-    public Map<String, Map<ChannelId, OutboundQueue>> outboundQueueGroups() {
+    public Map<String, OutboundQueueGroup> outboundQueueGroups() {
         return Collections.unmodifiableMap(outboundQueueGroups);
     }
 
@@ -0,0 +1,150 @@
+package chess.push.server.queue;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 서비스ID 단위로 집계하는 OutboundQueue 처리 통계<br>
+ * -여러 InboundQueueWorker 쓰레드와 EventLoop에서 동시에 갱신하므로 LongAdder 사용
+ */
+public class OutboundQueueStatistics {
+
+    private final LongAdder droppedNewest = new LongAdder();	// 큐가 가득 차서 버려진 새 메시지 수
+    private final LongAdder droppedOldest = new LongAdder();	// 새 메시지를 위해 버려진 오래된 메시지 수
+    private final LongAdder blocked = new LongAdder();			// 대기 후 큐에 추가된 메시지 수
+    private final LongAdder blockTimedOut = new LongAdder();	// 대기 시간 내에 큐에 추가되지 못해 버려진 메시지 수
+    private final LongAdder disconnected = new LongAdder();		// 큐가 가득 차서 연결을 종료한 클라이언트 채널 수
+    private final LongAdder spilled = new LongAdder();			// 파일에 기록된 메시지 수
+    private final LongAdder spillFailed = new LongAdder();		// 파일 기록/조회에 실패하거나 파일 용량을 초과하여 버려진 메시지 수
+    private final LongAdder conflated = new LongAdder();		// 같은 conflation key의 최신 메시지로 대체된 메시지 수
+    private final LongAdder expired = new LongAdder();			// 전송 전에 만료되어 버려진 메시지 수
+    private final LongAdder storedOffline = new LongAdder();	// 연결되지 않은 클라이언트ID의 우편함에 보관된 메시지 수
+    private final LongAdder offlineDropped = new LongAdder();	// 우편함이 가득 차서 버려진 메시지 수
+    private final LongAdder offlineExpired = new LongAdder();	// 유휴 시간이 지난 우편함과 함께 버려진 메시지 수
+    private final LongAdder offlineDelivered = new LongAdder();	// 재연결시 우편함에서 OutboundQueue로 전달된 메시지 수
+    private final LongAdder resumed = new LongAdder();			// 재연결시 history에서 다시 전송한 메시지 수
+    private final LongAdder resumeTruncated = new LongAdder();	// history 보관 범위나 큐 공간을 벗어나 누락분을 모두 전송하지 못한 재연결 수
+    private final LongAdder budgetExceeded = new LongAdder();	// 메모리 budget을 초과하여 overflowPolicy에 따라 처리된 메시지 수
+    private final LongAdder acked = new LongAdder();			// 클라이언트가 ack를 보낸 메시지 수
+    private final LongAdder ackLatency = new LongAdder();		// 최초 전송부터 ack까지 걸린 시간 합계 (밀리초)
+    private final LongAccumulator ackLatencyMax = new LongAccumulator(Math::max, 0L);	// 최초 전송부터 ack까지 걸린 최대 시간 (밀리초)
+    private final LongAdder redelivered = new LongAdder();		// ack 시간 초과로 다시 전송한 메시지 수
+    private final LongAdder ackTimedOut = new LongAdder();		// 재전송 횟수를 넘어 ack를 받지 못하고 버려진 메시지 수
+    private final LongAdder unacked = new LongAdder();			// ack를 받지 못한 채 연결이 종료된 메시지 수
+
+    void droppedNewest() {
+        droppedNewest.increment();
+    }
+
+    void droppedOldest() {
+        droppedOldest.increment();
+    }
+
+    void blocked() {
+        blocked.increment();
+    }
+
+    void blockTimedOut() {
+        blockTimedOut.increment();
+    }
+
+    void disconnected() {
+        disconnected.increment();
+    }
+
+    void spilled() {
+        spilled.increment();
+    }
+
+    void spillFailed() {
+        spillFailed.increment();
+    }
+
+    void spillFailed(long count) {
+        spillFailed.add(count);
+    }
+
+    void conflated() {
+        conflated.increment();
+    }
+
+    void expired() {
+        expired.increment();
+    }
+
+    void storedOffline() {
+        storedOffline.increment();
+    }
+
+    void offlineDropped() {
+        offlineDropped.increment();
+    }
+
+    void offlineExpired(long count) {
+        offlineExpired.add(count);
+    }
+
+    void offlineDelivered(long count) {
+        offlineDelivered.add(count);
+    }
+
+    void resumed(long count) {
+        resumed.add(count);
+    }
+
+    void resumeTruncated() {
+        resumeTruncated.increment();
+    }
+
+    void budgetExceeded() {
+        budgetExceeded.increment();
+    }
+
+    void acked(long latency) {
+        acked.increment();
+        ackLatency.add(latency);
+        ackLatencyMax.accumulate(latency);
+    }
+
+    void redelivered() {
+        redelivered.increment();
+    }
+
+    void ackTimedOut() {
+        ackTimedOut.increment();
+    }
+
+    void unacked(long count) {
+        unacked.add(count);
+    }
+
+    /**
+     * 통계의 현재 상태를 문자열로 반환한다.
+     * @return 통계 상태 문자열
+     */
+    public String status() {
+        long ackCount = acked.sum();
+        return "droppedNewest: " + droppedNewest.sum()
+                + ", droppedOldest: " + droppedOldest.sum()
+                + ", blocked: " + blocked.sum()
+                + ", blockTimedOut: " + blockTimedOut.sum()
+                + ", disconnected: " + disconnected.sum()
+                + ", spilled: " + spilled.sum()
+                + ", spillFailed: " + spillFailed.sum()
+                + ", conflated: " + conflated.sum()
+                + ", expired: " + expired.sum()
+                + ", storedOffline: " + storedOffline.sum()
+                + ", offlineDropped: " + offlineDropped.sum()
+                + ", offlineExpired: " + offlineExpired.sum()
+                + ", offlineDelivered: " + offlineDelivered.sum()
+                + ", resumed: " + resumed.sum()
+                + ", resumeTruncated: " + resumeTruncated.sum()
+                + ", budgetExceeded: " + budgetExceeded.sum()
+                + ", acked: " + ackCount
+                + ", ackLatency avg/max: " + (ackCount > 0 ? ackLatency.sum() / ackCount : 0) + "/" + ackLatencyMax.get() + " ms"
+                + ", redelivered: " + redelivered.sum()
+                + ", ackTimedOut: " + ackTimedOut.sum()
+                + ", unacked: " + unacked.sum();
+    }
+
+}
@@ -0,0 +1,148 @@
+package chess.push.server.queue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import chess.push.common.PushMessage;
+import chess.push.common.PushMessageJson;
+
+/**
+ * OutboundQueue에서 넘치는 메시지를 순서대로 기록하고 조회하는 파일<br>
+ * -메시지마다 [길이(int) + JSON] 형태로 추가 기록하고 앞에서부터 순서대로 조회<br>
+ * -기록된 메시지를 모두 조회하면 파일을 삭제하고, 다음 기록시 다시 생성<br>
+ * -우선순위별 lane마다 기록된 메시지 수를 유지하여 lane 단위로 기록된 메시지가 있는지 확인 가능<br>
+ * -InboundQueueWorker 쓰레드(기록)와 EventLoop(조회)에서 동시에 접근하므로 모든 메서드는 동기화됨
+ */
+class OutboundSpillFile {
+
+    private final File file;				// spill file
+    private final int capacity;				// 기록할 수 있는 최대 메시지 수
+    private DataOutputStream output;		// 기록용 stream
+    private DataInputStream input;			// 조회용 stream
+    private int size;						// 기록된 후 조회되지 않은 메시지 수
+    private final int[] laneSizes;			// lane별 기록된 후 조회되지 않은 메시지 수
+
+    /**
+     * constructor with parameters
+     * @param directory spill file을 생성할 디렉토리
+     * @param name spill file 이름
+     * @param capacity 기록할 수 있는 최대 메시지 수
+     */
+    OutboundSpillFile(String directory, String name, int capacity) {
+        this.file = new File(directory, name);
+        this.capacity = capacity;
+        this.laneSizes = new int[PriorityScheduler.LANE_COUNT];
+    }
+
+    /**
+     * 조회되지 않은 메시지가 없는지 여부를 반환한다.
+     * @return 메시지가 없으면 true
+     */
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * lane에 해당하는 조회되지 않은 메시지가 없는지 여부를 반환한다.
+     * @param lane lane 번호
+     * @return 메시지가 없으면 true
+     */
+    synchronized boolean isEmpty(int lane) {
+        return laneSizes[lane] == 0;
+    }
+
+    /**
+     * 조회되지 않은 메시지 수를 반환한다.
+     * @return 메시지 수
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 파일 끝에 메시지를 기록한다.
+     * @param pushMessage Push 메시지
+     * @return 기록에 성공하면 true, 최대 메시지 수를 초과하면 false
+     * @throws IOException 파일 기록 실패
+     */
+    synchronized boolean append(PushMessage pushMessage) throws IOException {
+        if (size >= capacity) {
+            return false;
+        }
+        if (output == null) {
+            file.getParentFile().mkdirs();
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        }
+
+        byte[] bytes = PushMessageJson.writeBytes(pushMessage);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+        size++;
+        laneSizes[PriorityScheduler.lane(pushMessage)]++;
+        return true;
+    }
+
+    /**
+     * 가장 먼저 기록된 메시지를 조회하여 반환한다.
+     * @return Push 메시지 (없으면 null)
+     * @throws IOException 파일 조회 실패
+     */
+    synchronized PushMessage poll() throws IOException {
+        if (size == 0) {
+            return null;
+        }
+
+        // 조회할 메시지가 버퍼에 남아 있지 않도록 기록된 내용을 먼저 파일에 반영
+        output.flush();
+        if (input == null) {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        }
+
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        PushMessage pushMessage = PushMessageJson.read(bytes);
+        laneSizes[PriorityScheduler.lane(pushMessage)]--;
+        if (--size == 0) {
+            close();
+        }
+        return pushMessage;
+    }
+
+    /**
+     * 파일을 닫고 삭제한다.
+     */
+    synchronized void close() {
+        size = 0;
+        Arrays.fill(laneSizes, 0);
+        closeQuietly(input);
+        closeQuietly(output);
+        input = null;
+        output = null;
+        file.delete();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+
+}
@@ -0,0 +1,75 @@
+package chess.push.server.queue;
+
+import java.util.function.IntPredicate;
+
+import chess.push.common.PushMessage;
+import chess.push.common.PushPriority;
+import chess.push.server.property.PrioritySchedulingType;
+
+/**
+ * 우선순위별 큐(lane) 중 다음에 메시지를 추출할 lane을 결정<br>
+ * -lane 번호는 PushPriority의 순서와 같음 (0: HIGH)<br>
+ * -추출하는 쓰레드 하나에서만 사용해야 함 (thread-safe하지 않음)
+ */
+public class PriorityScheduler {
+
+    /**
+     * lane 수
+     */
+    public static final int LANE_COUNT = PushPriority.values().length;
+
+    private final PrioritySchedulingType type;	// 추출 순서 유형
+    private final int[] weights;				// WEIGHTED 유형에서 lane별로 번갈아 추출하는 메시지 수
+    private int lane;							// WEIGHTED 유형에서 현재 추출중인 lane
+    private int credit;							// WEIGHTED 유형에서 현재 lane에서 더 추출할 수 있는 메시지 수
+
+    /**
+     * constructor with parameters
+     * @param type 추출 순서 유형
+     * @param weights lane별 가중치
+     */
+    public PriorityScheduler(PrioritySchedulingType type, int[] weights) {
+        this.type = type;
+        this.weights = weights;
+        this.lane = 0;
+        this.credit = weights[0];
+    }
+
+    /**
+     * Push 메시지의 우선순위에 해당하는 lane 번호를 반환한다.
+     * @param message Push 메시지
+     * @return lane 번호 (우선순위가 없으면 NORMAL)
+     */
+    public static int lane(PushMessage message) {
+        PushPriority priority = message.getPriority();
+        return priority == null ? PushPriority.NORMAL.ordinal() : priority.ordinal();
+    }
+
+    /**
+     * 다음에 메시지를 추출할 lane 번호를 반환한다.
+     * @param isEmpty lane 번호에 해당하는 lane이 비어 있는지 확인하는 함수
+     * @return lane 번호 (모든 lane이 비어 있으면 -1)
+     */
+    public int next(IntPredicate isEmpty) {
+        if (type == PrioritySchedulingType.STRICT) {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                if (!isEmpty.test(i)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // 현재 lane의 가중치를 모두 사용했거나 비어 있으면 다음 lane으로 이동 (한 바퀴 돌아 처음 lane까지 확인)
+        for (int i = 0; i <= LANE_COUNT; i++) {
+            if (credit > 0 && !isEmpty.test(lane)) {
+                credit--;
+                return lane;
+            }
+            lane = (lane + 1) % LANE_COUNT;
+            credit = weights[lane];
+        }
+        return -1;
+    }
+
+}
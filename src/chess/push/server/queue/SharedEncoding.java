@@ -0,0 +1,62 @@
+package chess.push.server.queue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * 여러 채널이 공유하도록 한 번만 인코딩한 메시지(ByteBuf 또는 WebSocketFrame)<br>
+ * -메모리 budget은 인코딩시 한 번만 할당하고, 인코딩한 쪽과 복제본을 받은 모든 OutboundMessage가 전송(또는 폐기)을 마치면 반환<br>
+ * -채널마다 독립적인 reader/writer index가 필요하므로 OutboundMessage에는 retained duplicate를 넘김
+ */
+class SharedEncoding {
+
+    private final Object encoded;				// 인코딩된 메시지 (ByteBuf 또는 ByteBufHolder)
+    private final int size;						// 메모리 budget에 집계한 크기 (byte)
+    private final OutboundMemoryBudget budget;	// 크기를 집계한 메모리 budget
+    private final AtomicInteger references;		// budget 반환을 기다리는 참조 수 (인코딩한 쪽 포함)
+
+    /**
+     * constructor with parameters<br>
+     * -이미 전송하기로 한 메시지이므로 budget 상한과 관계없이 할당
+     * @param encoded 인코딩된 메시지 (reference count 소유권을 넘겨받음)
+     * @param budget 크기를 집계할 메모리 budget
+     */
+    SharedEncoding(Object encoded, OutboundMemoryBudget budget) {
+        this.encoded = encoded;
+        this.size = encoded instanceof ByteBufHolder ? ((ByteBufHolder) encoded).content().readableBytes() : ((ByteBuf) encoded).readableBytes();
+        this.budget = budget;
+        this.references = new AtomicInteger(1);
+        budget.reserve(size);
+    }
+
+    /**
+     * 내용을 공유하는 복제본을 생성하고 budget 참조 수를 증가시킨다.<br>
+     * -복제본은 독립적인 reader/writer index를 가지며 원본의 reference count를 하나 증가시킴
+     * @return 복제본
+     */
+    Object retainedDuplicate() {
+        references.incrementAndGet();
+        return encoded instanceof ByteBufHolder ? ((ByteBufHolder) encoded).retainedDuplicate() : ((ByteBuf) encoded).retainedDuplicate();
+    }
+
+    /**
+     * 복제본의 전송(또는 폐기)이 끝났음을 반영하고, 마지막 참조이면 budget을 반환한다.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            budget.release(size);
+        }
+    }
+
+    /**
+     * 모든 대상 채널에 복제본을 넘긴 후 인코딩한 쪽의 원본과 참조를 해제한다.
+     */
+    void close() {
+        ReferenceCountUtil.release(encoded);
+        release();
+    }
+
+}
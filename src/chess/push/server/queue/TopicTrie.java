@@ -0,0 +1,223 @@
+package chess.push.server.queue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * '/'로 구분된 계층형 topic filter를 level 단위 node로 보관하고, topic에 일치하는 filter의 구독자를 조회하는 trie<br>
+ * -filter level "*"는 임의의 한 level, 마지막 level "#"는 0개 이상의 나머지 level과 일치 (예: "region/*&#47;store", "region/#")<br>
+ * -조회는 lock 없이 topic의 level 수와 일치하는 node 수에 비례하는 비용으로 처리하며, 추가/제거는 인스턴스 단위로 동기화<br>
+ * -구독자가 없는 node는 제거시 정리
+ * @param <T> 구독자 타입
+ */
+public class TopicTrie<T> {
+
+    public static final char SEPARATOR = '/';				// level 구분자
+    public static final String SINGLE_LEVEL = "*";			// 한 level과 일치하는 wildcard
+    public static final String MULTI_LEVEL = "#";			// 0개 이상의 나머지 level과 일치하는 wildcard (마지막 level에만 사용)
+
+    private final Node<T> root;		// 최상위 node
+    private int size;				// 구독자가 있는 filter 수
+
+    public TopicTrie() {
+        this.root = new Node<T>();
+    }
+
+    /**
+     * filter에 구독자를 추가한다.
+     * @param filter topic filter
+     * @param subscriber 구독자
+     * @return filter의 첫 구독자이면 true
+     */
+    public synchronized boolean add(String filter, T subscriber) {
+        Node<T> node = root;
+        for (String level : levels(filter)) {
+            node = node.children.computeIfAbsent(level, key -> new Node<T>());
+        }
+        boolean first = node.subscribers.isEmpty();
+        if (node.subscribers.add(subscriber) && first) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * filter에서 구독자를 제거하고, 구독자와 하위 node가 없는 node를 정리한다.
+     * @param filter topic filter
+     * @param subscriber 구독자
+     * @return filter의 마지막 구독자이면 true
+     */
+    public synchronized boolean remove(String filter, T subscriber) {
+        List<String> levels = levels(filter);
+        List<Node<T>> path = new ArrayList<Node<T>>(levels.size() + 1);
+        Node<T> node = root;
+        path.add(node);
+        for (String level : levels) {
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+            path.add(node);
+        }
+        if (!node.subscribers.remove(subscriber) || !node.subscribers.isEmpty()) {
+            return false;
+        }
+
+        size--;
+        for (int i = levels.size(); i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).children.remove(levels.get(i - 1));
+        }
+        return true;
+    }
+
+    /**
+     * 모든 filter에서 구독자를 제거하고, 구독자와 하위 node가 없는 node를 정리한다.
+     * @param subscriber 구독자
+     */
+    public synchronized void removeSubscriber(T subscriber) {
+        removeSubscriber(root, subscriber);
+    }
+
+    private void removeSubscriber(Node<T> node, T subscriber) {
+        if (node.subscribers.remove(subscriber) && node.subscribers.isEmpty()) {
+            size--;
+        }
+        node.children.values().removeIf(child -> {
+            removeSubscriber(child, subscriber);
+            return child.isEmpty();
+        });
+    }
+
+    /**
+     * topic에 일치하는 filter의 구독자를 조회한다.<br>
+     * -여러 filter에 일치하는 구독자는 한 번만 포함
+     * @param topic wildcard를 포함하지 않는 topic
+     * @return 구독자 collection (read-only)
+     */
+    public Set<T> match(String topic) {
+        Set<T> result = new LinkedHashSet<T>();
+        match(root, levels(topic), 0, result::addAll);
+        return Collections.unmodifiableSet(result);
+    }
+
+    private static <T> void match(Node<T> node, List<String> levels, int index, Consumer<Set<T>> consumer) {
+        Node<T> multiLevel = node.children.get(MULTI_LEVEL);
+        if (multiLevel != null) {
+            consumer.accept(multiLevel.subscribers);
+        }
+        if (index == levels.size()) {
+            consumer.accept(node.subscribers);
+            return;
+        }
+
+        Node<T> exact = node.children.get(levels.get(index));
+        if (exact != null) {
+            match(exact, levels, index + 1, consumer);
+        }
+        Node<T> singleLevel = node.children.get(SINGLE_LEVEL);
+        if (singleLevel != null) {
+            match(singleLevel, levels, index + 1, consumer);
+        }
+    }
+
+    /**
+     * 구독자가 있는 filter 수를 반환한다.
+     * @return filter 수
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * topic filter가 topic과 일치하는지 여부를 반환한다.
+     * @param filter topic filter
+     * @param topic wildcard를 포함하지 않는 topic
+     * @return 일치하면 true
+     */
+    public static boolean matches(String filter, String topic) {
+        List<String> filterLevels = levels(filter);
+        List<String> topicLevels = levels(topic);
+        for (int i = 0; i < filterLevels.size(); i++) {
+            String level = filterLevels.get(i);
+            if (MULTI_LEVEL.equals(level)) {
+                return true;
+            }
+            if (i == topicLevels.size() || !(SINGLE_LEVEL.equals(level) || level.equals(topicLevels.get(i)))) {
+                return false;
+            }
+        }
+        return filterLevels.size() == topicLevels.size();
+    }
+
+    /**
+     * topic filter 형식이 올바른지 여부를 반환한다.
+     * @param filter topic filter
+     * @return wildcard가 level 전체를 차지하고 "#"가 마지막 level에만 있으면 true
+     */
+    public static boolean isValidFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return false;
+        }
+        List<String> levels = levels(filter);
+        for (int i = 0; i < levels.size(); i++) {
+            String level = levels.get(i);
+            if (MULTI_LEVEL.equals(level)) {
+                if (i != levels.size() - 1) {
+                    return false;
+                }
+            } else if (!SINGLE_LEVEL.equals(level) && (level.indexOf('*') >= 0 || level.indexOf('#') >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * topic 형식이 올바른지 여부를 반환한다.
+     * @param topic topic
+     * @return 비어 있지 않고 wildcard를 포함하지 않으면 true
+     */
+    public static boolean isValidTopic(String topic) {
+        return topic != null && !topic.isEmpty() && topic.indexOf('*') < 0 && topic.indexOf('#') < 0;
+    }
+
+    private static List<String> levels(String topic) {
+        List<String> levels = new ArrayList<String>();
+        int start = 0;
+        int end;
+        while ((end = topic.indexOf(SEPARATOR, start)) >= 0) {
+            levels.add(topic.substring(start, end));
+            start = end + 1;
+        }
+        levels.add(topic.substring(start));
+        return levels;
+    }
+
+    /**
+     * topic filter의 한 level에 해당하는 node
+     * @param <T> 구독자 타입
+     */
+    private static class Node<T> {
+
+        private final Map<String, Node<T>> children;	// 다음 level을 key로 하는 하위 node collection
+        private final Set<T> subscribers;				// 이 node에서 끝나는 filter의 구독자 collection
+
+        Node() {
+            this.children = new ConcurrentHashMap<String, Node<T>>();
+            this.subscribers = ConcurrentHashMap.newKeySet();
+        }
+
+        boolean isEmpty() {
+            return subscribers.isEmpty() && children.isEmpty();
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+package chess.push.server.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import chess.push.server.property.WaitStrategyType;
+
+/**
+ * 링 버퍼가 비어 있을 때 소비 쓰레드의 대기 방식<br>
+ * -소비 쓰레드는 {@link #await(BooleanSupplier)}로 대기하고, 생산자는 요소 추가 후 {@link #signal()}을 호출
+ */
+public abstract class WaitStrategy {
+
+    /**
+     * 대기 방식 유형에 따른 인스턴스를 생성한다.
+     * @param type 대기 방식 유형
+     * @return WaitStrategy 인스턴스
+     */
+    public static WaitStrategy newInstance(WaitStrategyType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("The wait strategy type is null");
+        }
+
+        switch (type) {
+            case BLOCKING:
+                return new BlockingWaitStrategy();
+            case SPINNING:
+                return new SpinningWaitStrategy();
+            case YIELDING:
+                return new YieldingWaitStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy type [" + type + "]");
+        }
+    }
+
+    /**
+     * 링 버퍼에 요소가 추가될 때까지 소비 쓰레드를 대기시킨다.<br>
+     * -요소 추가 없이 반환될 수 있으므로 호출자는 반환 후 다시 확인해야 함
+     * @param isEmpty 대기 대상 링 버퍼(들)가 비어 있는지 확인하는 함수
+     * @throws InterruptedException 대기중 쓰레드가 interrupt된 경우
+     */
+    public abstract void await(BooleanSupplier isEmpty) throws InterruptedException;
+
+    /**
+     * 요소가 추가되었음을 대기중인 소비 쓰레드에 알린다.
+     */
+    public void signal() {
+        // 기본적으로 소비 쓰레드가 스스로 확인하므로 알릴 필요 없음
+    }
+
+    protected static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * 소비 쓰레드를 park하고 생산자가 unpark하는 방식
+     */
+    private static class BlockingWaitStrategy extends WaitStrategy {
+
+        private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+        private volatile Thread waiter;		// park 상태인 소비 쓰레드
+
+        @Override
+        public void await(BooleanSupplier isEmpty) throws InterruptedException {
+            checkInterrupted();
+
+            waiter = Thread.currentThread();
+            try {
+                // waiter 공개 후 다시 확인하여 signal 유실 방지
+                if (isEmpty.getAsBoolean()) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+            } finally {
+                waiter = null;
+            }
+
+            checkInterrupted();
+        }
+
+        @Override
+        public void signal() {
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+    }
+
+    /**
+     * 소비 쓰레드가 양보 없이 계속 확인하는 방식
+     */
+    private static class SpinningWaitStrategy extends WaitStrategy {
+
+        @Override
+        public void await(BooleanSupplier isEmpty) throws InterruptedException {
+            while (isEmpty.getAsBoolean()) {
+                checkInterrupted();
+            }
+        }
+
+    }
+
+    /**
+     * 소비 쓰레드가 일정 횟수 확인 후 Thread.yield()로 양보하는 방식
+     */
+    private static class YieldingWaitStrategy extends WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public void await(BooleanSupplier isEmpty) throws InterruptedException {
+            int counter = SPIN_TRIES;
+            while (isEmpty.getAsBoolean()) {
+                checkInterrupted();
+                if (counter > 0) {
+                    counter--;
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+
+    }
+
+}
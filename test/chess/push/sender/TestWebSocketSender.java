@@ -17,8 +17,6 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
 
 public final class TestWebSocketSender {
 
@@ -49,7 +47,6 @@ public final class TestWebSocketSender {
                          @Override
                          protected void initChannel(SocketChannel ch) throws Exception {
                              ChannelPipeline pipeline = ch.pipeline();
-                             pipeline.addLast(new StringEncoder(CharsetUtil.UTF_8));
                              pipeline.addLast(new PushMessageEncoder(PushConstant.DEFAULT_DELIMITER_STR));
                              pipeline.addLast(new TestWebSocketSenderHandler());
                          }
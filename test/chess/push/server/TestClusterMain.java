@@ -0,0 +1,119 @@
+package chess.push.server;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import chess.push.common.PushConstant;
+import chess.push.server.property.PushBaseProperty;
+import chess.push.server.property.PushServiceProperty;
+import chess.push.server.property.ServerType;
+import io.netty.util.CharsetUtil;
+
+/**
+ * loopback 주소로 3개 노드의 클러스터를 기동하고 노드간 전달을 확인하는 테스트<br>
+ * -node0의 Inbound Server로 송신한 개별/그룹/전체 메시지가 node1, node2에 연결된 클라이언트에 전달되는지 로깅
+ */
+public class TestClusterMain {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TestClusterMain.class);
+
+    private static final String SERVICE_ID = "test.cluster";
+    private static final int NODE_COUNT = 3;
+    private static final int BASE_PORT = 9000;	// node i: inbound 9000+10i, outbound 9001+10i, cluster 9009+10i
+
+    public static void main(String[] args) throws Exception {
+        List<String> members = new ArrayList<String>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            members.add("127.0.0.1:" + (BASE_PORT + i * 10 + 9));
+        }
+
+        List<Server> servers = new ArrayList<Server>();
+        try {
+            for (int i = 0; i < NODE_COUNT; i++) {
+                PushBaseProperty baseProperty = new PushBaseProperty();
+                baseProperty.setInboundServerPort(BASE_PORT + i * 10);
+                baseProperty.setInboundQueueCheckInterval(60);
+                baseProperty.setOutboundQueueCheckInterval(60);
+                baseProperty.setClusterAddress(members.get(i));
+                baseProperty.setClusterMembers(members);
+                baseProperty.afterPropertiesSet();
+
+                PushServiceProperty serviceProperty = new PushServiceProperty();
+                serviceProperty.setServiceId(SERVICE_ID);
+                serviceProperty.setInboundQueueCapacity(10000);
+                serviceProperty.setOutboundQueueCapacity(10000);
+                serviceProperty.setOutboundServerPort(BASE_PORT + i * 10 + 1);
+                serviceProperty.setOutboundServerType(ServerType.TCPSOCKET);
+                serviceProperty.afterPropertiesSet();
+
+                Server server = new Server();
+                server.startupServer(false, baseProperty, Collections.singletonList(serviceProperty));
+                servers.add(server);
+            }
+
+            // node1에 client1(group1), node2에 client2(group1) 연결
+            Socket client1 = connect(BASE_PORT + 11, "{\"groupId\":\"group1\",\"clientId\":\"client1\"}");
+            Socket client2 = connect(BASE_PORT + 21, "{\"groupId\":\"group1\",\"clientId\":\"client2\"}");
+            TimeUnit.SECONDS.sleep(1L);
+
+            // node0으로 개별/그룹/전체 메시지 송신
+            try (Socket sender = new Socket("127.0.0.1", BASE_PORT)) {
+                OutputStream out = sender.getOutputStream();
+                for (String message : Arrays.asList(
+                        "{\"serviceId\":\"" + SERVICE_ID + "\",\"clientId\":\"client1\",\"message\":\"to client1\"}",
+                        "{\"serviceId\":\"" + SERVICE_ID + "\",\"clientId\":\"client2\",\"message\":\"to client2\"}",
+                        "{\"serviceId\":\"" + SERVICE_ID + "\",\"groupId\":\"group1\",\"message\":\"to group1\"}",
+                        "{\"serviceId\":\"" + SERVICE_ID + "\",\"message\":\"to all\"}")) {
+                    out.write((message + PushConstant.DEFAULT_DELIMITER_STR).getBytes(CharsetUtil.UTF_8));
+                }
+                out.flush();
+                TimeUnit.SECONDS.sleep(1L);
+            }
+
+            // client1: to client1, to group1, to all / client2: to client2, to group1, to all
+            LOG.info("client1 received {}", read(client1));
+            LOG.info("client2 received {}", read(client2));
+            client1.close();
+            client2.close();
+
+        } catch (Exception e) {
+            LOG.error("test failed", e);
+
+        } finally {
+            servers.forEach(Server::shutdownServer);
+        }
+    }
+
+    private static Socket connect(int port, String registration) throws Exception {
+        Socket socket = new Socket("127.0.0.1", port);
+        socket.getOutputStream().write((registration + PushConstant.DEFAULT_DELIMITER_STR).getBytes(CharsetUtil.UTF_8));
+        return socket;
+    }
+
+    private static List<String> read(Socket socket) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        InputStream in = socket.getInputStream();
+        byte[] buffer = new byte[8192];
+        socket.setSoTimeout(500);
+        try {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                builder.append(new String(buffer, 0, read, CharsetUtil.UTF_8));
+            }
+        } catch (SocketTimeoutException e) {
+            // 더 이상 수신할 메시지 없음
+        }
+        return Arrays.asList(builder.toString().split(PushConstant.DEFAULT_DELIMITER_STR));
+    }
+
+}